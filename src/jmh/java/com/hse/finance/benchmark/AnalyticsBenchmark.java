@@ -0,0 +1,85 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.facade.AnalyticsFacade;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.OperationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link AnalyticsFacade} method over the last year of the dataset. The range starts and ends
+ * mid-day, so both the aggregated whole days and the scanned edge days are exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AnalyticsBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int operations;
+
+    @Param({"indexed", "columnar"})
+    public String storage;
+
+    private AnalyticsFacade analytics;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private UUID expenseCategoryId;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = SyntheticData.generate(operations);
+        analytics = new BenchmarkContext(storage).load(data).analyticsFacade;
+        end = data.getAnchor().atTime(12, 0);
+        start = end.minusYears(1);
+        expenseCategoryId = data.getCategories().stream()
+                .filter(category -> category.getType() == OperationType.EXPENSE)
+                .findFirst()
+                .map(Category::getId)
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public BigDecimal calculateBalanceDifference() {
+        return analytics.calculateBalanceDifference(start, end);
+    }
+
+    @Benchmark
+    public Map<Category, BigDecimal> groupOperationsByCategory() {
+        return analytics.groupOperationsByCategory(start, end);
+    }
+
+    @Benchmark
+    public List<Map.Entry<Category, BigDecimal>> getTopSpendingCategories() {
+        return analytics.getTopSpendingCategories(start, end, 5);
+    }
+
+    @Benchmark
+    public List<Map.Entry<Category, BigDecimal>> getTopSpendingCategoriesThisMonth() {
+        return analytics.getTopSpendingCategoriesThisMonth(5);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> getMonthlyTrendForCategory() {
+        return analytics.getMonthlyTrendForCategory(expenseCategoryId, 12);
+    }
+}
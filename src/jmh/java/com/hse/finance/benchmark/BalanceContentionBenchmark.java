@@ -0,0 +1,79 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel {@link OperationFacade#createOperation} spread over a varying number of accounts.
+ * Compare thread counts with {@code -t 1,2,4,8}: throughput should scale with the threads once
+ * there are many more accounts than threads, and flatten when all threads share one account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Threads(4)
+public class BalanceContentionBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"1", "16", "1024"})
+    public int accounts;
+
+    private OperationFacade facade;
+    private List<UUID> accountIds;
+    private Category income;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkContext context = new BenchmarkContext("indexed");
+        income = Category.builder().id(UUID.randomUUID()).name("Salary").type(OperationType.INCOME).build();
+        context.categoryRepository.save(income);
+        accountIds = new ArrayList<>();
+        for (int i = 0; i < accounts; i++) {
+            BankAccount account = BankAccount.builder()
+                    .id(UUID.randomUUID())
+                    .name("Account " + i)
+                    .balance(BigDecimal.ZERO)
+                    .build();
+            context.bankAccountRepository.save(account);
+            accountIds.add(account.getId());
+        }
+        facade = context.operationFacade;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public Operation createOperation(ThreadRandom state) {
+        UUID accountId = accountIds.get(state.random.nextInt(accountIds.size()));
+        return facade.createOperation(OperationType.INCOME, accountId, AMOUNT, income.getId(), null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.command.CommandExecutor;
+import com.hse.finance.facade.AnalyticsFacade;
+import com.hse.finance.facade.BankAccountFacade;
+import com.hse.finance.facade.CategoryFacade;
+import com.hse.finance.facade.ExportFacade;
+import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.factory.BankAccountFactory;
+import com.hse.finance.factory.CategoryFactory;
+import com.hse.finance.factory.OperationFactory;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.analytics.MonthlySpendingRanking;
+import com.hse.finance.service.analytics.OperationAggregates;
+import com.hse.finance.service.cascade.CascadeDeleteService;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.snapshot.SnapshotManager;
+import com.hse.finance.util.importer.BinarySnapshotImporter;
+import com.hse.finance.util.importer.CsvDataImporter;
+import com.hse.finance.util.importer.JsonDataImporter;
+import com.hse.finance.util.importer.YamlDataImporter;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * The application object graph wired by hand, without starting Spring
+ */
+public final class BenchmarkContext {
+    public final BankAccountRepository bankAccountRepository = new BankAccountRepository();
+    public final CategoryRepository categoryRepository = new CategoryRepository();
+    public final OperationRepository operationRepository;
+    public final OperationAggregates aggregates;
+    public final MonthlySpendingRanking monthlySpendingRanking = new MonthlySpendingRanking();
+    public final AccountLocks accountLocks = new AccountLocks();
+
+    public final BankAccountRepositoryProxy bankAccountRepositoryProxy;
+    public final BankAccountFacade bankAccountFacade;
+    public final CategoryFacade categoryFacade;
+    public final OperationFacade operationFacade;
+    public final AnalyticsFacade analyticsFacade;
+    public final ExportFacade exportFacade;
+
+    public final JsonDataImporter jsonDataImporter;
+    public final YamlDataImporter yamlDataImporter;
+    public final CsvDataImporter csvDataImporter;
+    public final BinarySnapshotImporter binarySnapshotImporter;
+
+    /**
+     * @param storage operation storage backend, as in {@code finance.operations.storage}
+     */
+    public BenchmarkContext(String storage) {
+        operationRepository = new OperationRepository(storage, ChronoUnit.MONTHS);
+        aggregates = new OperationAggregates(operationRepository);
+        bankAccountRepositoryProxy = new BankAccountRepositoryProxy(bankAccountRepository);
+        CascadeDeleteService cascadeDeleteService = new CascadeDeleteService(operationRepository,
+                bankAccountRepositoryProxy, List.of(aggregates, monthlySpendingRanking), accountLocks);
+        bankAccountFacade = new BankAccountFacade(new BankAccountFactory(), bankAccountRepositoryProxy,
+                accountLocks, CommandExecutor.shared(), cascadeDeleteService, null);
+        categoryFacade = new CategoryFacade(new CategoryFactory(), categoryRepository, cascadeDeleteService);
+        operationFacade = new OperationFacade(new OperationFactory(), operationRepository,
+                bankAccountRepositoryProxy, categoryRepository, List.of(aggregates, monthlySpendingRanking), accountLocks);
+        analyticsFacade = new AnalyticsFacade(operationRepository, categoryRepository, aggregates,
+                monthlySpendingRanking);
+        exportFacade = new ExportFacade(bankAccountRepositoryProxy, categoryRepository, operationRepository,
+                new SnapshotManager(bankAccountRepository, categoryRepository, operationRepository, accountLocks));
+        jsonDataImporter = new JsonDataImporter(bankAccountFacade, categoryFacade, operationFacade);
+        yamlDataImporter = new YamlDataImporter(bankAccountFacade, categoryFacade, operationFacade);
+        csvDataImporter = new CsvDataImporter(bankAccountFacade, categoryFacade, operationFacade);
+        binarySnapshotImporter = new BinarySnapshotImporter(bankAccountRepository, categoryRepository,
+                operationRepository, List.of(aggregates, monthlySpendingRanking), accountLocks);
+    }
+
+    /**
+     * Stores the dataset directly in the repositories, bypassing the facades
+     */
+    public BenchmarkContext load(SyntheticData data) {
+        data.copyAccounts().forEach(bankAccountRepository::save);
+        data.getCategories().forEach(categoryRepository::save);
+        data.getOperations().forEach(operationRepository::save);
+        aggregates.onOperationsReloaded(data.getOperations());
+        monthlySpendingRanking.onOperationsReloaded(data.getOperations());
+        return this;
+    }
+}
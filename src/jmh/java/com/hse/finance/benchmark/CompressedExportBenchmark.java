@@ -0,0 +1,74 @@
+package com.hse.finance.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hse.finance.facade.ExportFacade;
+import com.hse.finance.service.snapshot.SnapshotManager;
+import com.hse.finance.util.compression.CompressionCodecs;
+import com.hse.finance.visitor.CsvExportVisitor;
+import com.hse.finance.visitor.ExportVisitor;
+import com.hse.finance.visitor.JsonExportVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gzip-compressed export to a file, with compression on its own thread ({@code pipeline=true})
+ * or inline in the serializing thread; the overlap only pays off with at least two cores
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CompressedExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int operations;
+
+    @Param({"json", "csv"})
+    public String format;
+
+    @Param({"true", "false"})
+    public boolean pipeline;
+
+    private ExportFacade exportFacade;
+    private ExportVisitor visitor;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkContext context = new BenchmarkContext("indexed").load(SyntheticData.generate(operations));
+        exportFacade = new ExportFacade(context.bankAccountRepositoryProxy, context.categoryRepository,
+                context.operationRepository, new SnapshotManager(context.bankAccountRepository,
+                context.categoryRepository, context.operationRepository, context.accountLocks),
+                CompressionCodecs.defaults(), pipeline);
+        visitor = "json".equals(format) ? new JsonExportVisitor(new ObjectMapper()) : new CsvExportVisitor();
+        file = Files.createTempFile("finance-export-benchmark", "." + format + ".gz");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void exportData() throws IOException {
+        exportFacade.exportData(visitor, file.toString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.hse.finance.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hse.finance.facade.ExportFacade;
+import com.hse.finance.visitor.BinaryExportVisitor;
+import com.hse.finance.visitor.CsvExportVisitor;
+import com.hse.finance.visitor.ExportVisitor;
+import com.hse.finance.visitor.JsonExportVisitor;
+import com.hse.finance.visitor.YamlExportVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full export of the dataset by every export visitor into a discarding stream, so that only
+ * serialization is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ExportBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int operations;
+
+    @Param({"json", "yaml", "csv", "binary"})
+    public String format;
+
+    private ExportFacade exportFacade;
+    private ExportVisitor visitor;
+
+    @Setup
+    public void setUp() {
+        exportFacade = new BenchmarkContext("indexed").load(SyntheticData.generate(operations)).exportFacade;
+        switch (format) {
+            case "json":
+                visitor = new JsonExportVisitor(new ObjectMapper());
+                break;
+            case "yaml":
+                visitor = new YamlExportVisitor();
+                break;
+            case "csv":
+                visitor = new CsvExportVisitor();
+                break;
+            case "binary":
+                visitor = new BinaryExportVisitor();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    @Benchmark
+    public void exportData() throws IOException {
+        exportFacade.exportData(visitor, OutputStream.nullOutputStream());
+    }
+}
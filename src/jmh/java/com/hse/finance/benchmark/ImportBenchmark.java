@@ -0,0 +1,112 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.util.importer.BinarySnapshotImporter;
+import com.hse.finance.util.importer.DataImporter;
+import com.hse.finance.util.importer.ImportStatistics;
+import com.hse.finance.visitor.BinaryExportVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One full import of a generated file per iteration, into empty repositories; {@code binary}
+ * restores a snapshot written by BinaryExportVisitor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ImportBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int operations;
+
+    @Param({"json", "yaml", "csv", "binary"})
+    public String format;
+
+    private Path directory;
+    private File file;
+    private DataImporter importer;
+    private BinarySnapshotImporter binaryImporter;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        SyntheticData data = SyntheticData.generate(operations);
+        directory = Files.createTempDirectory("finance-import-benchmark");
+        switch (format) {
+            case "json":
+                file = directory.resolve("data.json").toFile();
+                data.writeJson(file.toPath());
+                break;
+            case "yaml":
+                file = directory.resolve("data.yaml").toFile();
+                data.writeYaml(file.toPath());
+                break;
+            case "csv":
+                file = data.writeCsv(directory).toFile();
+                break;
+            case "binary":
+                file = directory.resolve("data.bin").toFile();
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024)) {
+                    new BenchmarkContext("indexed").load(data).exportFacade.exportData(new BinaryExportVisitor(), out);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createImporter() {
+        BenchmarkContext context = new BenchmarkContext("indexed");
+        switch (format) {
+            case "json":
+                importer = context.jsonDataImporter;
+                break;
+            case "yaml":
+                importer = context.yamlDataImporter;
+                break;
+            case "binary":
+                binaryImporter = context.binarySnapshotImporter;
+                break;
+            default:
+                importer = context.csvDataImporter;
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ImportStatistics importData() throws IOException {
+        return binaryImporter != null ? binaryImporter.importData(file) : importer.importData(file);
+    }
+}
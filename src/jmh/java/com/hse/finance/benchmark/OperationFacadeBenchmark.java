@@ -0,0 +1,64 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link OperationFacade#createOperation} on top of a preloaded dataset.
+ * The repositories are reloaded before every iteration so that they do not grow without bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class OperationFacadeBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int operations;
+
+    @Param({"indexed", "columnar"})
+    public String storage;
+
+    private SyntheticData data;
+    private OperationFacade facade;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        data = SyntheticData.generate(operations);
+    }
+
+    @Setup(Level.Iteration)
+    public void load() {
+        facade = new BenchmarkContext(storage).load(data).operationFacade;
+        random = new SplittableRandom(SyntheticData.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public Operation createOperation() {
+        UUID accountId = data.getAccounts().get(random.nextInt(data.getAccounts().size())).getId();
+        Category category = data.getCategories().get(random.nextInt(data.getCategories().size()));
+        return facade.createOperation(category.getType(), accountId, AMOUNT, category.getId(), "Benchmark");
+    }
+}
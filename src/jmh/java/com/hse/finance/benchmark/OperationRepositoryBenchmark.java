@@ -0,0 +1,92 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.OperationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of {@link OperationRepository} for every storage backend
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class OperationRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int operations;
+
+    @Param({"indexed", "partitioned", "columnar"})
+    public String storage;
+
+    private OperationRepository repository;
+    private SyntheticData data;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticData.generate(operations);
+        repository = new BenchmarkContext(storage).load(data).operationRepository;
+        random = new SplittableRandom(SyntheticData.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public Optional<Operation> findById() {
+        return repository.findById(data.getOperations().get(random.nextInt(operations)).getId());
+    }
+
+    @Benchmark
+    public List<Operation> findByBankAccountId() {
+        return repository.findByBankAccountId(randomAccount());
+    }
+
+    @Benchmark
+    public List<Operation> findByCategoryId() {
+        return repository.findByCategoryId(data.getCategories().get(random.nextInt(data.getCategories().size())).getId());
+    }
+
+    @Benchmark
+    public List<Operation> findByType() {
+        return repository.findByType(OperationType.INCOME);
+    }
+
+    @Benchmark
+    public List<Operation> findByDateBetweenOneWeek() {
+        LocalDateTime start = randomDay();
+        return repository.findByDateBetween(start, start.plusWeeks(1));
+    }
+
+    @Benchmark
+    public List<Operation> findByDateBetweenOneYear() {
+        LocalDateTime start = randomDay();
+        return repository.findByDateBetween(start, start.plusYears(1));
+    }
+
+    private UUID randomAccount() {
+        return data.getAccounts().get(random.nextInt(data.getAccounts().size())).getId();
+    }
+
+    private LocalDateTime randomDay() {
+        return data.getAnchor().minusDays(1 + random.nextInt(SyntheticData.DAYS)).atStartOfDay();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hse.finance.benchmark;
+
+import com.hse.finance.facade.AnalyticsFacade;
+import com.hse.finance.model.Category;
+import com.hse.finance.service.analytics.ParallelOperationScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AnalyticsFacade} in {@code scan} mode over the last year of the dataset. Compare the scores
+ * for {@code parallelism=1} (sequential scan) with higher values to see the speedup; it needs a
+ * machine with at least as many cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ParallelAnalyticsBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int operations;
+
+    @Param({"indexed", "columnar"})
+    public String storage;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    private ParallelOperationScanner scanner;
+    private AnalyticsFacade analytics;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = SyntheticData.generate(operations);
+        BenchmarkContext context = new BenchmarkContext(storage).load(data);
+        scanner = new ParallelOperationScanner(context.operationRepository, parallelism);
+        analytics = new AnalyticsFacade(context.operationRepository, context.categoryRepository,
+                context.aggregates, context.monthlySpendingRanking, scanner, "scan");
+        end = data.getAnchor().atTime(12, 0);
+        start = end.minusYears(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scanner.shutdown();
+    }
+
+    @Benchmark
+    public BigDecimal calculateBalanceDifference() {
+        return analytics.calculateBalanceDifference(start, end);
+    }
+
+    @Benchmark
+    public Map<Category, BigDecimal> groupOperationsByCategory() {
+        return analytics.groupOperationsByCategory(start, end);
+    }
+}
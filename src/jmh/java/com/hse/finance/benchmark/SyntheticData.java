@@ -0,0 +1,230 @@
+package com.hse.finance.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Reproducible synthetic dataset: the same seed and size always give the same accounts, categories
+ * and operations. Operation dates are spread over the {@link #DAYS} days before the anchor day.
+ */
+public final class SyntheticData {
+    public static final long DEFAULT_SEED = 42;
+    public static final int DAYS = 3 * 365;
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000000.00");
+
+    private final List<BankAccount> accounts;
+    private final List<Category> categories;
+    private final List<Operation> operations;
+    private final LocalDate anchor;
+    private Map<UUID, String> names;
+
+    private SyntheticData(List<BankAccount> accounts, List<Category> categories, List<Operation> operations,
+                          LocalDate anchor) {
+        this.accounts = accounts;
+        this.categories = categories;
+        this.operations = operations;
+        this.anchor = anchor;
+    }
+
+    /**
+     * Generates {@code operationCount} operations over one account per 1000 operations (at least 10)
+     * and 50 categories, dated before today
+     */
+    public static SyntheticData generate(int operationCount) {
+        return generate(operationCount, DEFAULT_SEED, LocalDate.now());
+    }
+
+    public static SyntheticData generate(int operationCount, long seed, LocalDate anchor) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<BankAccount> accounts = new ArrayList<>();
+        int accountCount = Math.max(10, operationCount / 1000);
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(BankAccount.builder()
+                    .id(uuid(random))
+                    .name("Account " + i)
+                    .balance(INITIAL_BALANCE)
+                    .build());
+        }
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            OperationType type = i % 5 == 0 ? OperationType.INCOME : OperationType.EXPENSE;
+            categories.add(Category.builder()
+                    .id(uuid(random))
+                    .name("Category " + i)
+                    .type(type)
+                    .build());
+        }
+
+        List<Operation> operations = new ArrayList<>(operationCount);
+        LocalDateTime start = anchor.minusDays(DAYS).atStartOfDay();
+        long secondsInRange = DAYS * 24L * 3600;
+        for (int i = 0; i < operationCount; i++) {
+            Category category = categories.get(random.nextInt(categories.size()));
+            operations.add(Operation.builder()
+                    .id(uuid(random))
+                    .type(category.getType())
+                    .bankAccountId(accounts.get(random.nextInt(accounts.size())).getId())
+                    .categoryId(category.getId())
+                    .amount(BigDecimal.valueOf(random.nextLong(1, 100_000), 2))
+                    .date(start.plusSeconds(random.nextLong(secondsInRange)))
+                    .description(random.nextInt(4) == 0 ? null : "Operation " + i)
+                    .build());
+        }
+
+        return new SyntheticData(accounts, categories, operations, anchor);
+    }
+
+    public List<BankAccount> getAccounts() {
+        return Collections.unmodifiableList(accounts);
+    }
+
+    public List<Category> getCategories() {
+        return Collections.unmodifiableList(categories);
+    }
+
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    public LocalDate getAnchor() {
+        return anchor;
+    }
+
+    /**
+     * Copies of the accounts, so that balance updates do not leak between benchmark iterations
+     */
+    public List<BankAccount> copyAccounts() {
+        List<BankAccount> copies = new ArrayList<>(accounts.size());
+        for (BankAccount account : accounts) {
+            copies.add(new BankAccount(account.getId(), account.getName(), account.getBalance()));
+        }
+        return copies;
+    }
+
+    /**
+     * Writes the dataset in the import format of the JSON importer
+     */
+    public void writeJson(Path file) throws IOException {
+        writeDocument(new JsonFactory(), file);
+    }
+
+    /**
+     * Writes the dataset in the import format of the YAML importer
+     */
+    public void writeYaml(Path file) throws IOException {
+        writeDocument(new YAMLFactory(), file);
+    }
+
+    /**
+     * Writes accounts.csv, categories.csv and operations.csv into the directory, returns operations.csv
+     */
+    public Path writeCsv(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (Writer out = Files.newBufferedWriter(directory.resolve("accounts.csv"))) {
+            out.write("name,balance\n");
+            for (BankAccount account : accounts) {
+                out.write(account.getName() + "," + account.getBalance() + "\n");
+            }
+        }
+        try (Writer out = Files.newBufferedWriter(directory.resolve("categories.csv"))) {
+            out.write("name,type\n");
+            for (Category category : categories) {
+                out.write(category.getName() + "," + category.getType() + "\n");
+            }
+        }
+        Path operationsFile = directory.resolve("operations.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(operationsFile)) {
+            out.write("type,amount,account_name,category_name,description\n");
+            for (Operation operation : operations) {
+                out.write(operation.getType() + "," + operation.getAmount() + "," + accountName(operation) + ","
+                        + categoryName(operation) + "," + (operation.getDescription() == null ? "" : operation.getDescription()));
+                out.newLine();
+            }
+        }
+        return operationsFile;
+    }
+
+    private void writeDocument(JsonFactory factory, Path file) throws IOException {
+        try (JsonGenerator out = factory.createGenerator(Files.newBufferedWriter(file))) {
+            out.writeStartObject();
+            out.writeArrayFieldStart("accounts");
+            for (BankAccount account : accounts) {
+                out.writeStartObject();
+                out.writeStringField("name", account.getName());
+                out.writeStringField("balance", account.getBalance().toString());
+                out.writeEndObject();
+            }
+            out.writeEndArray();
+            out.writeArrayFieldStart("categories");
+            for (Category category : categories) {
+                out.writeStartObject();
+                out.writeStringField("name", category.getName());
+                out.writeStringField("type", category.getType().name());
+                out.writeEndObject();
+            }
+            out.writeEndArray();
+            out.writeArrayFieldStart("operations");
+            for (Operation operation : operations) {
+                out.writeStartObject();
+                out.writeStringField("type", operation.getType().name());
+                out.writeStringField("amount", operation.getAmount().toString());
+                out.writeStringField("account_name", accountName(operation));
+                out.writeStringField("category_name", categoryName(operation));
+                if (operation.getDescription() != null) {
+                    out.writeStringField("description", operation.getDescription());
+                }
+                out.writeEndObject();
+            }
+            out.writeEndArray();
+            out.writeEndObject();
+        }
+    }
+
+    private String accountName(Operation operation) {
+        return names().get(operation.getBankAccountId());
+    }
+
+    private String categoryName(Operation operation) {
+        return names().get(operation.getCategoryId());
+    }
+
+    private Map<UUID, String> names() {
+        if (names == null) {
+            names = new HashMap<>();
+            accounts.forEach(account -> names.put(account.getId(), account.getName()));
+            categories.forEach(category -> names.put(category.getId(), category.getName()));
+        }
+        return names;
+    }
+
+    private static UUID uuid(SplittableRandom random) {
+        // Version 4 layout, so that the ids look like the ones the factories create
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+}
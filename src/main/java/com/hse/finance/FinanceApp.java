@@ -1,6 +1,7 @@
 package com.hse.finance;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hse.finance.service.metrics.MetricsRegistry;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -19,4 +20,9 @@ public class FinanceApp {
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
     }
+    
+    @Bean
+    public MetricsRegistry metricsRegistry() {
+        return MetricsRegistry.getDefault();
+    }
 } 
\ No newline at end of file
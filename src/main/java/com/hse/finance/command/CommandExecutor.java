@@ -0,0 +1,172 @@
+package com.hse.finance.command;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs commands asynchronously
+ *
+ * On Java 21+ every command gets its own virtual thread; on older runtimes a bounded pool of
+ * platform threads is used. Submission blocks the caller while {@code perTypeLimit} commands of
+ * the same type or {@code maxInFlight} commands in total are running or queued (backpressure),
+ * so workers never wait for permits.
+ */
+@Component
+public class CommandExecutor {
+    private static final Logger log = LoggerFactory.getLogger(CommandExecutor.class);
+
+    private final int maxInFlight;
+    private final int perTypeLimit;
+    private final int poolSize;
+    private final Semaphore inFlight;
+    private final ConcurrentHashMap<String, Semaphore> typeLimits = new ConcurrentHashMap<>();
+    private volatile ExecutorService executor;
+
+    public CommandExecutor() {
+        this(1024, 64, 0);
+    }
+
+    /**
+     * @param poolSize threads of the platform pool used without virtual threads, 0 for twice the processors
+     */
+    @Autowired
+    public CommandExecutor(@Value("${finance.commands.max-in-flight:1024}") int maxInFlight,
+                           @Value("${finance.commands.per-type-limit:64}") int perTypeLimit,
+                           @Value("${finance.commands.pool-size:0}") int poolSize) {
+        if (maxInFlight <= 0 || perTypeLimit <= 0) {
+            throw new IllegalArgumentException("Command limits must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+        this.perTypeLimit = perTypeLimit;
+        this.poolSize = poolSize > 0 ? poolSize : 2 * Runtime.getRuntime().availableProcessors();
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Submits the command, blocking while too many commands of its type or in total are in flight
+     *
+     * @param commandType name used for the per-type concurrency limit
+     */
+    public <T> CompletableFuture<T> submit(String commandType, Command<T> command) {
+        Semaphore typeLimit = typeLimits.computeIfAbsent(commandType, type -> new Semaphore(perTypeLimit));
+        try {
+            typeLimit.acquire();
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                typeLimit.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor().execute(() -> run(command, typeLimit, future));
+        } catch (RuntimeException e) {
+            release(typeLimit);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Executor with the default limits shared by components built without one. Its threads never
+     * keep the JVM alive, so it is not shut down.
+     */
+    public static CommandExecutor shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Number of commands submitted and not yet finished
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        ExecutorService current = executor;
+        if (current != null) {
+            current.shutdown();
+            if (!current.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Commands still running after shutdown timeout");
+            }
+        }
+    }
+
+    private <T> void run(Command<T> command, Semaphore typeLimit, CompletableFuture<T> future) {
+        T result;
+        try {
+            result = command.execute();
+        } catch (Throwable e) {
+            release(typeLimit);
+            future.completeExceptionally(e);
+            return;
+        }
+        // Permits are returned before completion so that dependents see the slot as free
+        release(typeLimit);
+        future.complete(result);
+    }
+
+    private void release(Semaphore typeLimit) {
+        inFlight.release();
+        typeLimit.release();
+    }
+
+    private ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    current = createExecutor();
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private ExecutorService createExecutor() {
+        try {
+            // Java 21+, looked up reflectively because the code is compiled for Java 17
+            ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Running commands on virtual threads");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads unavailable, running commands on {} platform threads", poolSize);
+            AtomicInteger counter = new AtomicInteger();
+            // The queue never exceeds maxInFlight thanks to the in-flight semaphore
+            return new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(maxInFlight), runnable -> {
+                        Thread thread = new Thread(runnable, "command-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    private static final class Shared {
+        private static final CommandExecutor INSTANCE = new CommandExecutor();
+    }
+}
@@ -1,11 +1,16 @@
 package com.hse.finance.command;
 
+import com.hse.finance.service.metrics.CommandMetrics;
+import com.hse.finance.service.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Decorator that measures execution time of a command
  *
+ * Latency, outcome and in-flight count are recorded in the command's {@link CommandMetrics};
+ * only failures are logged.
+ *
  * @param <T> The result type of the command
  */
 public class TimedCommandDecorator<T> implements Command<T> {
@@ -13,25 +18,36 @@ public class TimedCommandDecorator<T> implements Command<T> {
     
     private final Command<T> command;
     private final String commandName;
+    private final CommandMetrics metrics;
 
     public TimedCommandDecorator(Command<T> command, String commandName) {
+        this(command, commandName, MetricsRegistry.getDefault());
+    }
+
+    public TimedCommandDecorator(Command<T> command, String commandName, MetricsRegistry registry) {
         this.command = command;
         this.commandName = commandName;
+        this.metrics = registry.command(commandName);
     }
 
     @Override
     public T execute() {
-        long startTime = System.currentTimeMillis();
+        long startTime = metrics.started();
+        boolean succeeded = false;
         
         try {
             T result = command.execute();
-            long endTime = System.currentTimeMillis();
-            log.info("Command {} executed in {} ms", commandName, (endTime - startTime));
+            succeeded = true;
             return result;
         } catch (Exception e) {
-            long endTime = System.currentTimeMillis();
-            log.error("Command {} failed after {} ms: {}", commandName, (endTime - startTime), e.getMessage());
+            log.error("Command {} failed: {}", commandName, e.getMessage());
             throw e;
+        } finally {
+            if (succeeded) {
+                metrics.succeeded(startTime);
+            } else {
+                metrics.failed(startTime);
+            }
         }
     }
-} 
\ No newline at end of file
+}
@@ -2,7 +2,7 @@ package com.hse.finance.command.bankaccount;
 
 import com.hse.finance.command.Command;
 import com.hse.finance.proxy.BankAccountRepositoryProxy;
-import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.cascade.CascadeDeleteService;
 
 import java.util.UUID;
 
@@ -11,7 +11,7 @@ import java.util.UUID;
  */
 public class DeleteBankAccountCommand implements Command<Boolean> {
     private BankAccountRepositoryProxy bankAccountRepository;
-    private OperationRepository operationRepository;
+    private CascadeDeleteService cascadeDeleteService;
     private UUID accountId;
     
     /**
@@ -21,12 +21,13 @@ public class DeleteBankAccountCommand implements Command<Boolean> {
     }
     
     /**
-     * Constructor with all required parameters
+     * Constructor with all required parameters; the operations are deleted through the cascade
+     * service, in the background if there are many
      */
-    public DeleteBankAccountCommand(BankAccountRepositoryProxy bankAccountRepository, 
-                                  OperationRepository operationRepository, UUID accountId) {
+    public DeleteBankAccountCommand(BankAccountRepositoryProxy bankAccountRepository,
+                                  CascadeDeleteService cascadeDeleteService, UUID accountId) {
         this.bankAccountRepository = bankAccountRepository;
-        this.operationRepository = operationRepository;
+        this.cascadeDeleteService = cascadeDeleteService;
         this.accountId = accountId;
     }
 
@@ -36,10 +37,11 @@ public class DeleteBankAccountCommand implements Command<Boolean> {
             return false;
         }
         
-        // First, delete all operations associated with this account
-        operationRepository.deleteByBankAccountId(accountId);
-        
-        // Then delete the account itself
-        return bankAccountRepository.deleteById(accountId);
+        // The account goes first, so that no new operation can reference it during the cascade
+        if (!bankAccountRepository.deleteById(accountId)) {
+            return false;
+        }
+        cascadeDeleteService.deleteOperationsOfAccount(accountId);
+        return true;
     }
 } 
\ No newline at end of file
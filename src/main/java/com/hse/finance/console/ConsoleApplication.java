@@ -5,9 +5,13 @@ import com.hse.finance.model.BankAccount;
 import com.hse.finance.model.Category;
 import com.hse.finance.model.Operation;
 import com.hse.finance.model.OperationType;
+import com.hse.finance.service.cascade.BulkDeleteJob;
+import com.hse.finance.util.importer.BinarySnapshotImporter;
 import com.hse.finance.util.importer.CsvDataImporter;
+import com.hse.finance.util.importer.ImportStatistics;
 import com.hse.finance.util.importer.JsonDataImporter;
 import com.hse.finance.util.importer.YamlDataImporter;
+import com.hse.finance.visitor.BinaryExportVisitor;
 import com.hse.finance.visitor.CsvExportVisitor;
 import com.hse.finance.visitor.JsonExportVisitor;
 import com.hse.finance.visitor.YamlExportVisitor;
@@ -21,6 +25,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Scanner;
 import java.util.UUID;
 
@@ -40,6 +45,8 @@ public class ConsoleApplication implements CommandLineRunner {
     private JsonExportVisitor jsonExportVisitor;
     private YamlExportVisitor yamlExportVisitor;
     private CsvExportVisitor csvExportVisitor;
+    private BinaryExportVisitor binaryExportVisitor;
+    private BinarySnapshotImporter binarySnapshotImporter;
     
     private final Scanner scanner = new Scanner(System.in);
     
@@ -49,7 +56,8 @@ public class ConsoleApplication implements CommandLineRunner {
                              ExportFacade exportFacade, JsonDataImporter jsonDataImporter,
                              YamlDataImporter yamlDataImporter, CsvDataImporter csvDataImporter,
                              JsonExportVisitor jsonExportVisitor, YamlExportVisitor yamlExportVisitor,
-                             CsvExportVisitor csvExportVisitor) {
+                             CsvExportVisitor csvExportVisitor, BinaryExportVisitor binaryExportVisitor,
+                             BinarySnapshotImporter binarySnapshotImporter) {
         this.bankAccountFacade = bankAccountFacade;
         this.categoryFacade = categoryFacade;
         this.operationFacade = operationFacade;
@@ -61,6 +69,8 @@ public class ConsoleApplication implements CommandLineRunner {
         this.jsonExportVisitor = jsonExportVisitor;
         this.yamlExportVisitor = yamlExportVisitor;
         this.csvExportVisitor = csvExportVisitor;
+        this.binaryExportVisitor = binaryExportVisitor;
+        this.binarySnapshotImporter = binarySnapshotImporter;
     }
     
     @Override
@@ -307,9 +317,12 @@ public class ConsoleApplication implements CommandLineRunner {
         String idStr = scanner.nextLine();
         UUID id = UUID.fromString(idStr);
         
-        boolean deleted = categoryFacade.deleteCategory(id);
+        Optional<BulkDeleteJob> job = categoryFacade.startCategoryDeletion(id);
         
-        if (deleted) {
+        if (job.isPresent() && !job.get().isDone()) {
+            System.out.println("Category deleted, its " + job.get().getTotal()
+                    + " operations are being removed in the background.");
+        } else if (job.isPresent()) {
             System.out.println("Category deleted successfully.");
         } else {
             System.out.println("Category not found or could not be deleted.");
@@ -530,11 +543,12 @@ public class ConsoleApplication implements CommandLineRunner {
         System.out.println("1. JSON");
         System.out.println("2. YAML");
         System.out.println("3. CSV");
+        System.out.println("4. Binary snapshot");
         System.out.print("Enter choice: ");
         
         int formatChoice = readIntInput();
         
-        System.out.print("Enter output file path: ");
+        System.out.print("Enter output file path (add .gz to compress): ");
         String filePath = scanner.nextLine();
         
         try {
@@ -548,6 +562,9 @@ public class ConsoleApplication implements CommandLineRunner {
                 case 3:
                     exportFacade.exportData(csvExportVisitor, filePath);
                     break;
+                case 4:
+                    exportFacade.exportData(binaryExportVisitor, filePath);
+                    break;
                 default:
                     System.out.println("Invalid format choice.");
                     return;
@@ -565,6 +582,7 @@ public class ConsoleApplication implements CommandLineRunner {
         System.out.println("1. JSON");
         System.out.println("2. YAML");
         System.out.println("3. CSV");
+        System.out.println("4. Binary snapshot (replaces all current data)");
         System.out.print("Enter choice: ");
         
         int formatChoice = readIntInput();
@@ -574,16 +592,20 @@ public class ConsoleApplication implements CommandLineRunner {
         
         try {
             File file = new File(filePath);
+            ImportStatistics statistics;
             
             switch (formatChoice) {
                 case 1:
-                    jsonDataImporter.importData(file);
+                    statistics = jsonDataImporter.importData(file);
                     break;
                 case 2:
-                    yamlDataImporter.importData(file);
+                    statistics = yamlDataImporter.importData(file);
                     break;
                 case 3:
-                    csvDataImporter.importData(file);
+                    statistics = csvDataImporter.importData(file);
+                    break;
+                case 4:
+                    statistics = binarySnapshotImporter.importData(file);
                     break;
                 default:
                     System.out.println("Invalid format choice.");
@@ -591,6 +613,7 @@ public class ConsoleApplication implements CommandLineRunner {
             }
             
             System.out.println("Data imported successfully from: " + filePath);
+            System.out.println("Imported " + statistics);
         } catch (Exception e) {
             System.out.println("Error importing data: " + e.getMessage());
         }
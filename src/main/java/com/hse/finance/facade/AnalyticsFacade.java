@@ -1,75 +1,119 @@
 package com.hse.finance.facade;
 
 import com.hse.finance.model.Category;
-import com.hse.finance.model.Operation;
 import com.hse.finance.model.OperationType;
+import com.hse.finance.service.analytics.DayRange;
+import com.hse.finance.service.analytics.MonthlySpendingRanking;
+import com.hse.finance.service.analytics.OperationAggregates;
+import com.hse.finance.service.analytics.ParallelOperationScanner;
+import com.hse.finance.service.analytics.TopK;
+import com.hse.finance.service.analytics.TrendGranularity;
 import com.hse.finance.service.repository.CategoryRepository;
 import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.snapshot.RepositorySnapshot;
+import com.hse.finance.service.snapshot.SnapshotManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Facade for analytics operations
+ *
+ * With {@code finance.analytics.mode=aggregated} (default) whole days of a requested period are
+ * answered from the materialized OperationAggregates, only the partial days at the edges of the
+ * period are read from the operations themselves. With {@code scan} the operations of the whole
+ * period are scanned by ParallelOperationScanner. With {@code snapshot} every call reads the
+ * operations and categories of one SnapshotManager snapshot, so a result never mixes states from
+ * before and after a concurrent change.
  */
 @Service
 public class AnalyticsFacade {
     private OperationRepository operationRepository;
     private CategoryRepository categoryRepository;
+    private OperationAggregates aggregates;
+    private MonthlySpendingRanking monthlySpendingRanking;
+    private ParallelOperationScanner scanner;
+    private SnapshotManager snapshotManager;
 
+    public AnalyticsFacade(OperationRepository operationRepository, CategoryRepository categoryRepository,
+                           OperationAggregates aggregates, MonthlySpendingRanking monthlySpendingRanking) {
+        this(operationRepository, categoryRepository, aggregates, monthlySpendingRanking, null, "aggregated");
+    }
+
+    public AnalyticsFacade(OperationRepository operationRepository, CategoryRepository categoryRepository,
+                           OperationAggregates aggregates, MonthlySpendingRanking monthlySpendingRanking,
+                           ParallelOperationScanner scanner, String mode) {
+        this(operationRepository, categoryRepository, aggregates, monthlySpendingRanking, scanner, null, mode);
+    }
+
+    /**
+     * @param mode {@code aggregated}, {@code scan} or {@code snapshot}
+     */
     @Autowired
-    public AnalyticsFacade(OperationRepository operationRepository, CategoryRepository categoryRepository) {
+    public AnalyticsFacade(OperationRepository operationRepository, CategoryRepository categoryRepository,
+                           OperationAggregates aggregates, MonthlySpendingRanking monthlySpendingRanking,
+                           ParallelOperationScanner scanner, SnapshotManager snapshotManager,
+                           @Value("${finance.analytics.mode:aggregated}") String mode) {
         this.operationRepository = operationRepository;
         this.categoryRepository = categoryRepository;
+        this.aggregates = aggregates;
+        this.monthlySpendingRanking = monthlySpendingRanking;
+        switch (mode) {
+            case "aggregated":
+                break;
+            case "scan":
+                this.scanner = Objects.requireNonNull(scanner, "Scan mode requires a scanner");
+                break;
+            case "snapshot":
+                this.snapshotManager = Objects.requireNonNull(snapshotManager, "Snapshot mode requires a snapshot manager");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown analytics mode: " + mode);
+        }
     }
 
     /**
      * Calculate the difference between income and expenses in the specified period
      */
     public BigDecimal calculateBalanceDifference(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Operation> operations = operationRepository.findByDateBetween(startDate, endDate);
+        if (snapshotManager != null) {
+            try (RepositorySnapshot snapshot = snapshotManager.open()) {
+                return snapshot.balanceDifference(startDate, endDate);
+            }
+        }
+        if (scanner != null) {
+            return scanner.balanceDifference(startDate, endDate);
+        }
         
-        BigDecimal income = operations.stream()
-                .filter(op -> op.getType() == OperationType.INCOME)
-                .map(Operation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        BigDecimal expenses = operations.stream()
-                .filter(op -> op.getType() == OperationType.EXPENSE)
-                .map(Operation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        return income.subtract(expenses);
+        DayRange range = DayRange.of(startDate, endDate);
+        BigDecimal difference = range.hasFullDays()
+                ? aggregates.balanceDifference(range.getFirstFullDay(), range.getLastFullDay())
+                : BigDecimal.ZERO;
+
+        for (LocalDateTime[] partial : range.getPartialRanges()) {
+            difference = difference.add(operationRepository.balanceDifference(partial[0], partial[1]));
+        }
+
+        return difference;
     }
 
     /**
      * Group operations by category and calculate sum for each category
      */
     public Map<Category, BigDecimal> groupOperationsByCategory(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Operation> operations = operationRepository.findByDateBetween(startDate, endDate);
-        Map<UUID, BigDecimal> categoryAmounts = new HashMap<>();
-        
-        // Group and sum amounts by category ID
-        for (Operation operation : operations) {
-            UUID categoryId = operation.getCategoryId();
-            BigDecimal amount = operation.getAmount();
-            
-            categoryAmounts.put(categoryId, 
-                    categoryAmounts.getOrDefault(categoryId, BigDecimal.ZERO).add(amount));
-        }
-        
-        // Map category IDs to actual Category objects
-        Map<Category, BigDecimal> result = new HashMap<>();
-        for (Map.Entry<UUID, BigDecimal> entry : categoryAmounts.entrySet()) {
-            categoryRepository.findById(entry.getKey()).ifPresent(category -> 
-                    result.put(category, entry.getValue()));
+        if (snapshotManager != null) {
+            try (RepositorySnapshot snapshot = snapshotManager.open()) {
+                return groupByCategory(snapshot.sumByCategory(startDate, endDate, null), snapshot::findCategory);
+            }
         }
-        
-        return result;
+        return groupByCategory(sumByCategory(startDate, endDate, null), categoryRepository::findById);
     }
 
     /**
@@ -77,66 +121,100 @@ public class AnalyticsFacade {
      */
     public List<Map.Entry<Category, BigDecimal>> getTopSpendingCategories(
             LocalDateTime startDate, LocalDateTime endDate, int limit) {
-            
-        List<Operation> operations = operationRepository.findByDateBetween(startDate, endDate)
-                .stream()
-                .filter(op -> op.getType() == OperationType.EXPENSE)
-                .collect(Collectors.toList());
-                
-        Map<UUID, BigDecimal> categoryAmounts = new HashMap<>();
-        
-        // Group and sum amounts by category ID
-        for (Operation operation : operations) {
-            UUID categoryId = operation.getCategoryId();
-            BigDecimal amount = operation.getAmount();
-            
-            categoryAmounts.put(categoryId, 
-                    categoryAmounts.getOrDefault(categoryId, BigDecimal.ZERO).add(amount));
+        if (snapshotManager != null) {
+            try (RepositorySnapshot snapshot = snapshotManager.open()) {
+                return top(snapshot.sumByCategory(startDate, endDate, OperationType.EXPENSE),
+                        snapshot::findCategory, limit);
+            }
         }
-        
-        // Map category IDs to actual Category objects
-        Map<Category, BigDecimal> categoryTotals = new HashMap<>();
-        for (Map.Entry<UUID, BigDecimal> entry : categoryAmounts.entrySet()) {
+        return top(sumByCategory(startDate, endDate, OperationType.EXPENSE), categoryRepository::findById, limit);
+    }
+
+    /**
+     * Get top spending categories of the current month from the continuously maintained ranking
+     */
+    public List<Map.Entry<Category, BigDecimal>> getTopSpendingCategoriesThisMonth(int limit) {
+        List<Map.Entry<Category, BigDecimal>> result = new ArrayList<>(Math.max(0, limit));
+        for (Map.Entry<UUID, BigDecimal> entry : monthlySpendingRanking.top(limit)) {
             categoryRepository.findById(entry.getKey()).ifPresent(category -> 
-                    categoryTotals.put(category, entry.getValue()));
+                    result.add(new AbstractMap.SimpleImmutableEntry<>(category, entry.getValue())));
         }
-        
-        // Sort by amount (descending) and limit
-        return categoryTotals.entrySet().stream()
-                .sorted(Map.Entry.<Category, BigDecimal>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return result;
     }
 
     /**
-     * Get month-to-month spending comparison for a given category
+     * Get month-to-month spending comparison for a given category, keyed by month ({@code yyyy-MM})
+     * over the days from N months ago until today
      */
     public Map<String, BigDecimal> getMonthlyTrendForCategory(UUID categoryId, int monthsToAnalyze) {
-        // Get the category to ensure it exists
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new IllegalArgumentException("Category not found with ID: " + categoryId));
-        
-        // Calculate start date (N months ago)
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusMonths(monthsToAnalyze);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusMonths(monthsToAnalyze);
         
-        // Get operations for this category in the date range
-        List<Operation> operations = operationRepository.findByCategoryId(categoryId).stream()
-                .filter(op -> !op.getDate().isBefore(startDate) && !op.getDate().isAfter(endDate))
-                .collect(Collectors.toList());
+        Map<String, BigDecimal> monthlyTotals = new LinkedHashMap<>();
+        getTrendForCategory(categoryId, startDate, endDate, TrendGranularity.MONTH)
+                .forEach((month, amount) -> monthlyTotals.put(YearMonth.from(month).toString(), amount));
         
-        // Group operations by month and calculate total for each month
-        Map<String, BigDecimal> monthlyTotals = new TreeMap<>(); // TreeMap for chronological order
+        return monthlyTotals;
+    }
+
+    /**
+     * Get the sums of a category per period over the days [startDate, endDate], keyed by the first
+     * day of each period in chronological order
+     */
+    public Map<LocalDate, BigDecimal> getTrendForCategory(UUID categoryId, LocalDate startDate, LocalDate endDate,
+                                                          TrendGranularity granularity) {
+        // Ensure the category exists
+        categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new IllegalArgumentException("Category not found with ID: " + categoryId));
         
-        for (Operation operation : operations) {
-            String monthKey = operation.getDate().getYear() + "-" + 
-                    String.format("%02d", operation.getDate().getMonthValue());
-            
-            monthlyTotals.put(monthKey, 
-                    monthlyTotals.getOrDefault(monthKey, BigDecimal.ZERO)
-                    .add(operation.getAmount()));
+        return aggregates.trendForCategory(categoryId, startDate, endDate, granularity);
+    }
+
+    /**
+     * Map category IDs to actual Category objects
+     */
+    private static Map<Category, BigDecimal> groupByCategory(Map<UUID, BigDecimal> categoryAmounts,
+                                                             Function<UUID, Optional<Category>> categories) {
+        Map<Category, BigDecimal> result = new HashMap<>();
+        for (Map.Entry<UUID, BigDecimal> entry : categoryAmounts.entrySet()) {
+            categories.apply(entry.getKey()).ifPresent(category -> 
+                    result.put(category, entry.getValue()));
+        }
+        return result;
+    }
+
+    private static List<Map.Entry<Category, BigDecimal>> top(Map<UUID, BigDecimal> categoryAmounts,
+                                                             Function<UUID, Optional<Category>> categories,
+                                                             int limit) {
+        // Only categories that make it into the heap are looked up
+        TopK<Category> top = new TopK<>(limit);
+        for (Map.Entry<UUID, BigDecimal> entry : categoryAmounts.entrySet()) {
+            if (top.accepts(entry.getValue())) {
+                categories.apply(entry.getKey()).ifPresent(category -> 
+                        top.offer(category, entry.getValue()));
+            }
+        }
+        return top.toList();
+    }
+
+    /**
+     * Sum amounts per category in the period, optionally restricted to one operation type
+     */
+    private Map<UUID, BigDecimal> sumByCategory(LocalDateTime startDate, LocalDateTime endDate, OperationType type) {
+        if (scanner != null) {
+            return scanner.sumByCategory(startDate, endDate, type);
         }
         
-        return monthlyTotals;
+        DayRange range = DayRange.of(startDate, endDate);
+        Map<UUID, BigDecimal> categoryAmounts = range.hasFullDays()
+                ? aggregates.sumByCategory(range.getFirstFullDay(), range.getLastFullDay(), type)
+                : new HashMap<>();
+
+        for (LocalDateTime[] partial : range.getPartialRanges()) {
+            operationRepository.sumByCategory(partial[0], partial[1], type)
+                    .forEach((categoryId, amount) -> categoryAmounts.merge(categoryId, amount, BigDecimal::add));
+        }
+
+        return categoryAmounts;
     }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.hse.finance.facade;
 
 import com.hse.finance.command.Command;
+import com.hse.finance.command.CommandExecutor;
 import com.hse.finance.command.TimedCommandDecorator;
 import com.hse.finance.command.bankaccount.CreateBankAccountCommand;
 import com.hse.finance.command.bankaccount.DeleteBankAccountCommand;
@@ -8,66 +9,126 @@ import com.hse.finance.command.bankaccount.UpdateBankAccountCommand;
 import com.hse.finance.factory.BankAccountFactory;
 import com.hse.finance.model.BankAccount;
 import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.cascade.CascadeDeleteService;
+import com.hse.finance.service.ledger.BalanceLedger;
+import com.hse.finance.service.lock.AccountLocks;
 import com.hse.finance.service.repository.OperationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Facade for bank account operations
  */
 @Service
 public class BankAccountFacade {
+    private static final String CREATE = "CreateBankAccount";
+    private static final String UPDATE = "UpdateBankAccount";
+    private static final String DELETE = "DeleteBankAccount";
+    
     private BankAccountFactory bankAccountFactory;
     private BankAccountRepositoryProxy bankAccountRepository;
-    private OperationRepository operationRepository;
+    private AccountLocks accountLocks;
+    private CommandExecutor commandExecutor;
+    private CascadeDeleteService cascadeDeleteService;
+    private BalanceLedger balanceLedger;
 
-    @Autowired
+    /**
+     * Facade with its own account locks, the shared command executor and no balance ledger
+     */
     public BankAccountFacade(BankAccountFactory bankAccountFactory,
                            BankAccountRepositoryProxy bankAccountRepository,
                            OperationRepository operationRepository) {
+        this(bankAccountFactory, bankAccountRepository, operationRepository, new AccountLocks());
+    }
+
+    private BankAccountFacade(BankAccountFactory bankAccountFactory,
+                            BankAccountRepositoryProxy bankAccountRepository,
+                            OperationRepository operationRepository,
+                            AccountLocks accountLocks) {
+        this(bankAccountFactory, bankAccountRepository, accountLocks, CommandExecutor.shared(),
+                new CascadeDeleteService(operationRepository, bankAccountRepository, List.of(), accountLocks), null);
+    }
+
+    /**
+     * @param cascadeDeleteService deletes the operations of a deleted account and notifies the observers
+     * @param balanceLedger replays balances from checkpoints and keeps the opening balances;
+     *                      without it balances cannot be recalculated
+     */
+    @Autowired
+    public BankAccountFacade(BankAccountFactory bankAccountFactory,
+                           BankAccountRepositoryProxy bankAccountRepository,
+                           AccountLocks accountLocks,
+                           CommandExecutor commandExecutor,
+                           CascadeDeleteService cascadeDeleteService,
+                           BalanceLedger balanceLedger) {
         this.bankAccountFactory = bankAccountFactory;
         this.bankAccountRepository = bankAccountRepository;
-        this.operationRepository = operationRepository;
+        this.accountLocks = accountLocks;
+        this.commandExecutor = commandExecutor;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.balanceLedger = balanceLedger;
     }
 
     public BankAccount createBankAccount(String name, BigDecimal initialBalance) {
-        Command<BankAccount> command = new CreateBankAccountCommand(
-                bankAccountFactory, bankAccountRepository, name, initialBalance);
-        
-        Command<BankAccount> timedCommand = new TimedCommandDecorator<>(command, "CreateBankAccount");
-        
-        return timedCommand.execute();
+        return createCommand(name, initialBalance).execute();
+    }
+
+    public CompletableFuture<BankAccount> createBankAccountAsync(String name, BigDecimal initialBalance) {
+        return commandExecutor.submit(CREATE, createCommand(name, initialBalance));
     }
 
     public Optional<BankAccount> updateBankAccount(UUID accountId, String newName) {
         if (accountId == null || newName == null || newName.trim().isEmpty()) {
             return Optional.empty();
         }
-
-        Command<BankAccount> command = new UpdateBankAccountCommand(
-                bankAccountRepository, accountId, newName);
-        
-        Command<BankAccount> timedCommand = new TimedCommandDecorator<>(command, "UpdateBankAccount");
         
         try {
-            return Optional.of(timedCommand.execute());
+            return Optional.of(updateCommand(accountId, newName).execute());
         } catch (IllegalArgumentException e) {
             return Optional.empty();
         }
     }
 
+    public CompletableFuture<Optional<BankAccount>> updateBankAccountAsync(UUID accountId, String newName) {
+        return commandExecutor.submit(UPDATE, () -> updateBankAccount(accountId, newName));
+    }
+
     public boolean deleteBankAccount(UUID accountId) {
-        Command<Boolean> command = new DeleteBankAccountCommand(
-                bankAccountRepository, operationRepository, accountId);
+        return deleteCommand(accountId).execute();
+    }
+
+    public CompletableFuture<Boolean> deleteBankAccountAsync(UUID accountId) {
+        return commandExecutor.submit(DELETE, deleteCommand(accountId));
+    }
+
+    private Command<BankAccount> createCommand(String name, BigDecimal initialBalance) {
+        Command<BankAccount> command = new CreateBankAccountCommand(
+                bankAccountFactory, bankAccountRepository, name, initialBalance);
+        
+        return new TimedCommandDecorator<>(command, CREATE);
+    }
+
+    private Command<BankAccount> updateCommand(UUID accountId, String newName) {
+        Command<BankAccount> command = new UpdateBankAccountCommand(
+                bankAccountRepository, accountId, newName);
         
-        Command<Boolean> timedCommand = new TimedCommandDecorator<>(command, "DeleteBankAccount");
+        return new TimedCommandDecorator<>(command, UPDATE);
+    }
+
+    private Command<Boolean> deleteCommand(UUID accountId) {
+        Command<Boolean> command = new DeleteBankAccountCommand(bankAccountRepository, cascadeDeleteService, accountId);
         
-        return timedCommand.execute();
+        Command<Boolean> timedCommand = new TimedCommandDecorator<>(command, DELETE);
+        
+        // No operation can be applied to the account while it is being deleted
+        return () -> accountLocks.withLock(accountId, timedCommand::execute);
     }
 
     public List<BankAccount> getAllBankAccounts() {
@@ -78,16 +139,43 @@ public class BankAccountFacade {
         return bankAccountRepository.findById(id);
     }
 
+    /**
+     * Restores the balance of the account from its opening balance and operations. Only the
+     * operations since the last checkpoint of the ledger are replayed.
+     */
     public void recalculateBalance(UUID accountId) {
-        BankAccount account = bankAccountRepository.findById(accountId)
-                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with ID: " + accountId));
-        
-        BigDecimal calculatedBalance = BigDecimal.ZERO;
-        // Get all operations for this account and recalculate the balance
-        // For INCOME operations, add to the balance
-        // For EXPENSE operations, subtract from the balance
-        
-        account.setBalance(calculatedBalance);
-        bankAccountRepository.save(account);
+        if (balanceLedger == null) {
+            // Summing the operations alone would drop the opening balance, which only the ledger keeps
+            throw new IllegalStateException("Balance ledger is not configured");
+        }
+        accountLocks.withLock(accountId, () -> {
+            BankAccount account = bankAccountRepository.findById(accountId)
+                    .orElseThrow(() -> new IllegalArgumentException("Bank account not found with ID: " + accountId));
+            
+            BigDecimal calculatedBalance = balanceLedger.replayBalance(accountId).orElseThrow(() ->
+                    new IllegalStateException("Bank account is not in the ledger: " + accountId));
+            
+            account.setBalance(calculatedBalance);
+            bankAccountRepository.save(account);
+            return account;
+        });
+    }
+
+    /**
+     * Recomputes every balance from the opening balances and all operations in one parallel pass.
+     * Balance updates of all accounts wait until it finishes.
+     */
+    public Map<UUID, BigDecimal> recalculateAllBalances() {
+        if (balanceLedger == null) {
+            throw new IllegalStateException("Balance ledger is not configured");
+        }
+        return accountLocks.exclusively(() -> {
+            Map<UUID, BigDecimal> balances = balanceLedger.rebuildAll();
+            balances.forEach((accountId, balance) -> bankAccountRepository.findById(accountId).ifPresent(account -> {
+                account.setBalance(balance);
+                bankAccountRepository.save(account);
+            }));
+            return balances;
+        });
     }
-} 
\ No newline at end of file
+}
@@ -3,8 +3,10 @@ package com.hse.finance.facade;
 import com.hse.finance.factory.CategoryFactory;
 import com.hse.finance.model.Category;
 import com.hse.finance.model.OperationType;
+import com.hse.finance.proxy.CategoryRepositoryProxy;
+import com.hse.finance.service.cascade.BulkDeleteJob;
+import com.hse.finance.service.cascade.CascadeDeleteService;
 import com.hse.finance.service.repository.CategoryRepository;
-import com.hse.finance.service.repository.OperationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -18,15 +20,24 @@ import java.util.UUID;
 @Service
 public class CategoryFacade {
     private CategoryFactory categoryFactory;
-    private CategoryRepository categoryRepository;
-    private OperationRepository operationRepository;
+    private CategoryRepositoryProxy categoryRepository;
+    private CascadeDeleteService cascadeDeleteService;
 
-    @Autowired
     public CategoryFacade(CategoryFactory categoryFactory, CategoryRepository categoryRepository, 
-                         OperationRepository operationRepository) {
+                         CascadeDeleteService cascadeDeleteService) {
+        this(categoryFactory, new CategoryRepositoryProxy(categoryRepository), cascadeDeleteService);
+    }
+
+    /**
+     * @param cascadeDeleteService deletes the operations of a deleted category, reverting them on the
+     *                             account balances
+     */
+    @Autowired
+    public CategoryFacade(CategoryFactory categoryFactory, CategoryRepositoryProxy categoryRepository, 
+                         CascadeDeleteService cascadeDeleteService) {
         this.categoryFactory = categoryFactory;
         this.categoryRepository = categoryRepository;
-        this.operationRepository = operationRepository;
+        this.cascadeDeleteService = cascadeDeleteService;
     }
 
     public Category createCategory(String name, OperationType type) {
@@ -44,14 +55,19 @@ public class CategoryFacade {
     }
 
     public boolean deleteCategory(UUID categoryId) {
-        if (!categoryRepository.findById(categoryId).isPresent()) {
-            return false;
-        }
+        return startCategoryDeletion(categoryId).isPresent();
+    }
 
-        // Delete all operations with this category first
-        operationRepository.deleteByCategoryId(categoryId);
-        
-        return categoryRepository.deleteById(categoryId);
+    /**
+     * Deletes the category and starts deleting its operations; many operations are deleted in the
+     * background and the returned job reports the progress. Empty if there is no such category.
+     */
+    public Optional<BulkDeleteJob> startCategoryDeletion(UUID categoryId) {
+        // The category goes first, so that no new operation can reference it during the cascade
+        if (!categoryRepository.findById(categoryId).isPresent() || !categoryRepository.deleteById(categoryId)) {
+            return Optional.empty();
+        }
+        return Optional.of(cascadeDeleteService.deleteOperationsOfCategory(categoryId));
     }
 
     public List<Category> getAllCategories() {
@@ -1,66 +1,149 @@
 package com.hse.finance.facade;
 
 import com.hse.finance.model.BankAccount;
-import com.hse.finance.model.Category;
 import com.hse.finance.model.Operation;
 import com.hse.finance.proxy.BankAccountRepositoryProxy;
 import com.hse.finance.service.repository.CategoryRepository;
 import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.snapshot.RepositorySnapshot;
+import com.hse.finance.service.snapshot.SnapshotManager;
+import com.hse.finance.util.compression.CompressionCodec;
+import com.hse.finance.util.compression.CompressionCodecs;
+import com.hse.finance.util.compression.PipelinedOutputStream;
 import com.hse.finance.visitor.ExportVisitor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Facade for exporting finance data
+ *
+ * With a SnapshotManager every export writes one point-in-time snapshot of the repositories,
+ * while writers keep going; without it the live repositories are read. Operations are read one
+ * account at a time while the visitor writes them, so they are never all held in memory at once.
+ *
+ * Files whose extension names a compression codec (e.g. {@code .gz}) are compressed while they
+ * are written. With {@code finance.export.compression-pipeline=true} (default) compression runs on
+ * its own thread, overlapping with serialization.
  */
 @Service
 public class ExportFacade {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PIPELINE_DEPTH = 8;
+    
     private BankAccountRepositoryProxy bankAccountRepository;
     private CategoryRepository categoryRepository;
     private OperationRepository operationRepository;
+    private SnapshotManager snapshotManager;
+    private CompressionCodecs compressionCodecs;
+    private boolean compressionPipeline;
 
-    @Autowired
     public ExportFacade(BankAccountRepositoryProxy bankAccountRepository, CategoryRepository categoryRepository,
                        OperationRepository operationRepository) {
+        this(bankAccountRepository, categoryRepository, operationRepository, null);
+    }
+
+    public ExportFacade(BankAccountRepositoryProxy bankAccountRepository, CategoryRepository categoryRepository,
+                       OperationRepository operationRepository, SnapshotManager snapshotManager) {
+        this(bankAccountRepository, categoryRepository, operationRepository, snapshotManager,
+                CompressionCodecs.defaults(), true);
+    }
+
+    @Autowired
+    public ExportFacade(BankAccountRepositoryProxy bankAccountRepository, CategoryRepository categoryRepository,
+                       OperationRepository operationRepository, SnapshotManager snapshotManager,
+                       CompressionCodecs compressionCodecs,
+                       @Value("${finance.export.compression-pipeline:true}") boolean compressionPipeline) {
         this.bankAccountRepository = bankAccountRepository;
         this.categoryRepository = categoryRepository;
         this.operationRepository = operationRepository;
+        this.snapshotManager = snapshotManager;
+        this.compressionCodecs = compressionCodecs;
+        this.compressionPipeline = compressionPipeline;
     }
 
     /**
-     * Export all finance data using the provided visitor
+     * Export all finance data using the provided visitor, compressed if the file extension names a codec
      */
     public void exportData(ExportVisitor visitor, String outputFilePath) throws IOException {
-        // Get all data from repositories
-        List<BankAccount> accounts = bankAccountRepository.findAll();
-        List<Category> categories = categoryRepository.findAll();
-        List<Operation> operations = operationRepository.findAll();
-        
-        // Visit all data objects
-        visitor.visitBankAccounts(accounts);
-        visitor.visitCategories(categories);
-        visitor.visitOperations(operations);
-        
-        // Get result and write to file
-        String result = visitor.getResult();
-        writeToFile(result, outputFilePath);
+        exportData(visitor, outputFilePath, compressionCodecs.forPath(outputFilePath).orElse(null));
     }
-    
-    private void writeToFile(String content, String filePath) throws IOException {
-        File file = new File(filePath);
+
+    /**
+     * Export all finance data using the provided visitor, compressed with the given codec (null for none)
+     */
+    public void exportData(ExportVisitor visitor, String outputFilePath, CompressionCodec codec) throws IOException {
+        File file = new File(outputFilePath);
         
         // Create parent directories if they don't exist
         if (file.getParentFile() != null) {
             file.getParentFile().mkdirs();
         }
         
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.write(content);
+        try (OutputStream out = openOutput(file, codec)) {
+            exportData(visitor, out);
+        }
+    }
+    
+    /**
+     * Export all finance data using the provided visitor, which writes every record straight to the stream
+     */
+    public void exportData(ExportVisitor visitor, OutputStream out) throws IOException {
+        // Visitors are singletons keeping the state of the current export
+        synchronized (visitor) {
+            if (snapshotManager == null) {
+                List<BankAccount> accounts = bankAccountRepository.findAll();
+                visitor.begin(out);
+                visitor.visitBankAccounts(accounts);
+                visitor.visitCategories(categoryRepository.findAll());
+                visitor.visitOperations(byAccount(accounts, operationRepository::findByBankAccountId));
+                visitor.finish();
+                return;
+            }
+            try (RepositorySnapshot snapshot = snapshotManager.open()) {
+                List<BankAccount> accounts = snapshot.getBankAccounts();
+                visitor.begin(out);
+                visitor.visitBankAccounts(accounts);
+                visitor.visitCategories(snapshot.getCategories());
+                visitor.visitOperations(byAccount(accounts, snapshot::getOperationsOfAccount));
+                visitor.finish();
+            }
+        }
+    }
+
+    /**
+     * Operations of the accounts, each account's looked up only when the previous one is written
+     */
+    private static Iterable<Operation> byAccount(List<BankAccount> accounts, Function<UUID, List<Operation>> lookup) {
+        return () -> accounts.stream()
+                .flatMap(account -> lookup.apply(account.getId()).stream())
+                .iterator();
+    }
+
+    private OutputStream openOutput(File file, CompressionCodec codec) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+        if (codec == null) {
+            return out;
+        }
+        OutputStream compressed;
+        try {
+            compressed = codec.compress(out);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+        if (!compressionPipeline) {
+            return new BufferedOutputStream(compressed, BUFFER_SIZE);
         }
+        return new PipelinedOutputStream(compressed, BUFFER_SIZE, PIPELINE_DEPTH, "export-compression");
     }
-} 
\ No newline at end of file
+}
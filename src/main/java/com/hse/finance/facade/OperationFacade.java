@@ -3,9 +3,13 @@ package com.hse.finance.facade;
 import com.hse.finance.factory.OperationFactory;
 import com.hse.finance.model.BankAccount;
 import com.hse.finance.model.Category;
+import com.hse.finance.model.Money;
 import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationRequest;
 import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
 import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.lock.AccountLocks;
 import com.hse.finance.service.repository.CategoryRepository;
 import com.hse.finance.service.repository.OperationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +17,13 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -26,23 +35,53 @@ public class OperationFacade {
     private OperationRepository operationRepository;
     private BankAccountRepositoryProxy bankAccountRepository;
     private CategoryRepository categoryRepository;
+    private List<OperationObserver> observers;
+    private AccountLocks accountLocks;
+
+    public OperationFacade(OperationFactory operationFactory, OperationRepository operationRepository,
+                          BankAccountRepositoryProxy bankAccountRepository, CategoryRepository categoryRepository,
+                          List<OperationObserver> observers) {
+        this(operationFactory, operationRepository, bankAccountRepository, categoryRepository, observers,
+                new AccountLocks());
+    }
 
     @Autowired
     public OperationFacade(OperationFactory operationFactory, OperationRepository operationRepository,
-                          BankAccountRepositoryProxy bankAccountRepository, CategoryRepository categoryRepository) {
+                          BankAccountRepositoryProxy bankAccountRepository, CategoryRepository categoryRepository,
+                          List<OperationObserver> observers, AccountLocks accountLocks) {
         this.operationFactory = operationFactory;
         this.operationRepository = operationRepository;
         this.bankAccountRepository = bankAccountRepository;
         this.categoryRepository = categoryRepository;
+        this.observers = observers;
+        this.accountLocks = accountLocks;
     }
 
     public Operation createOperation(OperationType type, UUID bankAccountId, 
                                       BigDecimal amount, UUID categoryId, 
                                       String description) {
-        // Validate that the bank account and category exist
-        BankAccount account = bankAccountRepository.findById(bankAccountId)
-                .orElseThrow(() -> new IllegalArgumentException("Bank account not found with ID: " + bankAccountId));
-                
+        return applyOperation(prepareOperation(type, bankAccountId, amount, categoryId, description));
+    }
+
+    /**
+     * Builds an operation from checked field values without saving it or touching balances, safe to
+     * call concurrently. Its account and category are checked only when it is applied.
+     */
+    public Operation prepareOperation(OperationType type, UUID bankAccountId,
+                                      BigDecimal amount, UUID categoryId,
+                                      String description) {
+        return operationFactory.createOperation(type, bankAccountId, amount, categoryId, description);
+    }
+
+    /**
+     * Validates an already built operation, applies it to its account balance and saves it.
+     * The balance is updated under the account lock, so concurrent operations never lose updates.
+     */
+    public Operation applyOperation(Operation operation) {
+        UUID bankAccountId = operation.getBankAccountId();
+        UUID categoryId = operation.getCategoryId();
+        OperationType type = operation.getType();
+
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with ID: " + categoryId));
         
@@ -52,28 +91,131 @@ public class OperationFacade {
                     "Category type " + category.getType() + " does not match operation type " + type);
         }
         
-        // Create the operation
-        Operation operation = operationFactory.createOperation(type, bankAccountId, amount, categoryId, description);
-        
-        // Update the account balance
-        if (type == OperationType.INCOME) {
-            account.setBalance(account.getBalance().add(amount));
-        } else {
-            // Проверяем, не станет ли баланс отрицательным перед вычитанием
-            BigDecimal newBalance = account.getBalance().subtract(amount);
-            if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+        accountLocks.withLock(bankAccountId, () -> {
+            // Validate that the bank account exists
+            BankAccount account = bankAccountRepository.findById(bankAccountId)
+                    .orElseThrow(() -> new IllegalArgumentException("Bank account not found with ID: " + bankAccountId));
+            // A category cascade settles under the account locks, so the category is checked again here
+            requireCategory(categoryId);
+            
+            // Update the account balance in cents
+            long newBalance = type == OperationType.INCOME
+                    ? Money.add(account.getBalanceCents(), operation.getAmountCents())
+                    : Money.subtract(account.getBalanceCents(), operation.getAmountCents());
+            // Проверяем, не станет ли баланс отрицательным
+            if (type != OperationType.INCOME && newBalance < 0) {
                 throw new IllegalStateException("Operation would cause account balance to become negative");
             }
-            account.setBalance(newBalance);
-        }
-        
-        // Save the operation and the updated account
-        operationRepository.save(operation);
-        bankAccountRepository.save(account);
+            account.setBalanceCents(newBalance);
+            
+            // Save the operation and the updated account
+            operationRepository.save(operation);
+            bankAccountRepository.save(account);
+            return operation;
+        });
+        observers.forEach(observer -> observer.onOperationCreated(operation));
         
         return operation;
     }
 
+    /**
+     * Creates a batch of operations, all or none of them
+     */
+    public List<Operation> createOperations(List<OperationRequest> requests) {
+        List<Operation> operations = new ArrayList<>(requests.size());
+        for (OperationRequest request : requests) {
+            operations.add(prepareOperation(request.getType(), request.getBankAccountId(), request.getAmount(),
+                    request.getCategoryId(), request.getDescription()));
+        }
+        return applyOperations(operations);
+    }
+
+    /**
+     * Applies a batch of already built operations, all or none of them.
+     *
+     * Accounts and categories are resolved once per batch. Every operation is checked for the fields
+     * the stores need, so that the bulk write cannot fail partway, and the operations of every account
+     * are checked in list order against its running balance, exactly as if they were applied one by
+     * one; if any check fails nothing is changed. Then the operations are stored in one bulk write and
+     * every account gets a single balance update.
+     */
+    public List<Operation> applyOperations(List<Operation> operations) {
+        Map<UUID, Category> categories = new HashMap<>();
+        Set<UUID> accountIds = new LinkedHashSet<>();
+        for (Operation operation : operations) {
+            checkStorable(operation);
+            UUID categoryId = operation.getCategoryId();
+            Category category = categories.computeIfAbsent(categoryId, id -> categoryRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Category not found with ID: " + id)));
+            if (category.getType() != operation.getType()) {
+                throw new IllegalArgumentException(
+                        "Category type " + category.getType() + " does not match operation type " + operation.getType());
+            }
+            accountIds.add(operation.getBankAccountId());
+        }
+
+        accountLocks.withLocks(accountIds, () -> {
+            // Validate every account against its running balance before changing anything.
+            // Per account, the net change and the lowest running change are summed in cents;
+            // the balance stays non-negative throughout iff it covers the lowest running change.
+            Map<UUID, BankAccount> accounts = new HashMap<>();
+            Map<UUID, long[]> changes = new HashMap<>();
+            for (UUID accountId : accountIds) {
+                BankAccount account = bankAccountRepository.findById(accountId)
+                        .orElseThrow(() -> new IllegalArgumentException("Bank account not found with ID: " + accountId));
+                accounts.put(accountId, account);
+                changes.put(accountId, new long[2]);
+            }
+            categories.keySet().forEach(this::requireCategory);
+            for (Operation operation : operations) {
+                long[] change = changes.get(operation.getBankAccountId());
+                change[0] = operation.getType() == OperationType.INCOME
+                        ? Money.add(change[0], operation.getAmountCents())
+                        : Money.subtract(change[0], operation.getAmountCents());
+                change[1] = Math.min(change[1], change[0]);
+            }
+            for (BankAccount account : accounts.values()) {
+                if (Money.add(account.getBalanceCents(), changes.get(account.getId())[1]) < 0) {
+                    throw new IllegalStateException("Operation would cause account balance to become negative");
+                }
+            }
+
+            // Bulk insert, then one net balance update per account
+            operationRepository.saveAll(operations);
+            for (BankAccount account : accounts.values()) {
+                account.setBalanceCents(Money.add(account.getBalanceCents(), changes.get(account.getId())[0]));
+                bankAccountRepository.save(account);
+            }
+            return operations;
+        });
+        for (Operation operation : operations) {
+            observers.forEach(observer -> observer.onOperationCreated(operation));
+        }
+
+        return operations;
+    }
+
+    /**
+     * Rejects operations that a store would refuse only after storing earlier rows of the batch,
+     * and amounts that are not positive, which the balance checks rely on
+     */
+    private static void checkStorable(Operation operation) {
+        if (operation.getId() == null || operation.getType() == null || operation.getDate() == null
+                || !operation.hasAmount() || operation.getBankAccountId() == null
+                || operation.getCategoryId() == null) {
+            throw new IllegalArgumentException("Operation is missing required fields: " + operation.getId());
+        }
+        if (operation.getAmountCents() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + operation.getId());
+        }
+    }
+
+    private void requireCategory(UUID categoryId) {
+        if (!categoryRepository.findById(categoryId).isPresent()) {
+            throw new IllegalArgumentException("Category not found with ID: " + categoryId);
+        }
+    }
+
     public boolean deleteOperation(UUID operationId) {
         Optional<Operation> operationOpt = operationRepository.findById(operationId);
         if (!operationOpt.isPresent()) {
@@ -81,20 +223,26 @@ public class OperationFacade {
         }
         
         Operation operation = operationOpt.get();
-        BankAccount account = bankAccountRepository.findById(operation.getBankAccountId())
-                .orElseThrow(() -> new IllegalStateException("Bank account not found for operation: " + operationId));
-        
-        // Reverse the effect on the bank account balance
-        if (operation.getType() == OperationType.INCOME) {
-            account.setBalance(account.getBalance().subtract(operation.getAmount()));
-        } else {
-            account.setBalance(account.getBalance().add(operation.getAmount()));
+        boolean deleted = accountLocks.withLock(operation.getBankAccountId(), () -> {
+            BankAccount account = bankAccountRepository.findById(operation.getBankAccountId())
+                    .orElseThrow(() -> new IllegalStateException("Bank account not found for operation: " + operationId));
+            
+            // Only the thread that actually deletes the operation reverses it
+            if (!operationRepository.deleteById(operationId)) {
+                return false;
+            }
+            
+            // Reverse the effect on the bank account balance
+            account.setBalanceCents(operation.getType() == OperationType.INCOME
+                    ? Money.subtract(account.getBalanceCents(), operation.getAmountCents())
+                    : Money.add(account.getBalanceCents(), operation.getAmountCents()));
+            bankAccountRepository.save(account);
+            return true;
+        });
+        if (deleted) {
+            observers.forEach(observer -> observer.onOperationDeleted(operation));
         }
         
-        // Delete the operation and update the account
-        boolean deleted = operationRepository.deleteById(operationId);
-        bankAccountRepository.save(account);
-        
         return deleted;
     }
 
@@ -1,16 +1,27 @@
 package com.hse.finance.factory;
 
 import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.UUID;
 
 /**
  * Factory for creating BankAccount objects
  */
 @Component
 public class BankAccountFactory {
+    private final IdGenerator idGenerator;
+
+    public BankAccountFactory() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Autowired
+    public BankAccountFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     /**
      * Creates a new bank account with validated parameters
@@ -24,10 +35,12 @@ public class BankAccountFactory {
             initialBalance = BigDecimal.ZERO;
         } else if (initialBalance.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Initial balance cannot be negative");
+        } else if (!Money.isRepresentable(initialBalance)) {
+            throw new IllegalArgumentException("Initial balance cannot have more than two decimals");
         }
         
         return BankAccount.builder()
-                .id(UUID.randomUUID())
+                .id(idGenerator.nextId())
                 .name(name)
                 .balance(initialBalance)
                 .build();
@@ -2,15 +2,24 @@ package com.hse.finance.factory;
 
 import com.hse.finance.model.Category;
 import com.hse.finance.model.OperationType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
 /**
  * Factory for creating Category objects
  */
 @Component
 public class CategoryFactory {
+    private final IdGenerator idGenerator;
+
+    public CategoryFactory() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Autowired
+    public CategoryFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     /**
      * Creates a new category with validated parameters
@@ -25,7 +34,7 @@ public class CategoryFactory {
         }
         
         return Category.builder()
-                .id(UUID.randomUUID())
+                .id(idGenerator.nextId())
                 .name(name)
                 .type(type)
                 .build();
@@ -0,0 +1,13 @@
+package com.hse.finance.factory;
+
+import java.util.UUID;
+
+/**
+ * Source of ids for new entities
+ *
+ * Selected with {@code finance.ids.generator}: {@code time-ordered} (default) or {@code random}.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    UUID nextId();
+}
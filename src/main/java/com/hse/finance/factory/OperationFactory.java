@@ -1,7 +1,9 @@
 package com.hse.finance.factory;
 
+import com.hse.finance.model.Money;
 import com.hse.finance.model.Operation;
 import com.hse.finance.model.OperationType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -13,6 +15,16 @@ import java.util.UUID;
  */
 @Component
 public class OperationFactory {
+    private final IdGenerator idGenerator;
+
+    public OperationFactory() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Autowired
+    public OperationFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     /**
      * Creates a new operation with validated parameters
@@ -36,12 +48,16 @@ public class OperationFactory {
             throw new IllegalArgumentException("Amount must be positive");
         }
         
+        if (!Money.isRepresentable(amount)) {
+            throw new IllegalArgumentException("Amount must have at most 2 decimal places");
+        }
+        
         if (categoryId == null) {
             throw new IllegalArgumentException("Category ID cannot be null");
         }
         
         return Operation.builder()
-                .id(UUID.randomUUID())
+                .id(idGenerator.nextId())
                 .type(type)
                 .bankAccountId(bankAccountId)
                 .amount(amount)
@@ -0,0 +1,19 @@
+package com.hse.finance.factory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Generates random version 4 UUIDs with {@link UUID#randomUUID()}
+ */
+@Component
+@ConditionalOnProperty(name = "finance.ids.generator", havingValue = "random")
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,29 @@
+package com.hse.finance.factory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp followed by random bits
+ *
+ * The random bits come from {@link ThreadLocalRandom}, so generation never contends between threads
+ * as {@link UUID#randomUUID()} does on its shared {@code SecureRandom}. Ids of different
+ * milliseconds sort in creation order, which keeps inserts into ordered structures appending.
+ */
+@Component
+@ConditionalOnProperty(name = "finance.ids.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedIdGenerator implements IdGenerator {
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    @Override
+    public UUID nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | VERSION | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = VARIANT | (random.nextLong() >>> 2);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -5,11 +5,14 @@ import java.util.UUID;
 
 /**
  * Represents a banking account entity
+ *
+ * The balance is kept in cents, see {@link Money}; {@code BigDecimal} is used only at the API edge.
  */
 public class BankAccount {
     private UUID id;
     private String name;
-    private BigDecimal balance;
+    // Volatile: updated under the account lock, read without it
+    private volatile long balanceCents;
 
     // Default constructor
     public BankAccount() {
@@ -19,7 +22,7 @@ public class BankAccount {
     public BankAccount(UUID id, String name, BigDecimal balance) {
         this.id = id;
         this.name = name;
-        this.balance = balance;
+        setBalance(balance);
     }
 
     // Getters and setters
@@ -40,11 +43,22 @@ public class BankAccount {
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return Money.toBigDecimal(balanceCents);
     }
 
+    /**
+     * @throws IllegalArgumentException if the balance has more than two decimals, see {@link Money}
+     */
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        this.balanceCents = balance == null ? 0 : Money.toCents(balance);
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
     }
 
     // Builder pattern implementation
@@ -0,0 +1,60 @@
+package com.hse.finance.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money arithmetic on {@code long} cents
+ *
+ * Sums kept in cents cost no allocation; conversion to {@code BigDecimal} happens only when a
+ * result leaves the application. Every operation fails with {@link ArithmeticException} instead of
+ * silently overflowing.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Whether the amount has at most two decimals and fits into a long number of cents
+     */
+    public static boolean isRepresentable(BigDecimal amount) {
+        try {
+            toCents(amount);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null");
+        }
+        try {
+            return amount.setScale(SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount cannot be represented in cents: " + amount, e);
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long left, long right) {
+        try {
+            return Math.addExact(left, right);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money overflow: " + left + " + " + right + " cents");
+        }
+    }
+
+    public static long subtract(long left, long right) {
+        try {
+            return Math.subtractExact(left, right);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money overflow: " + left + " - " + right + " cents");
+        }
+    }
+}
@@ -6,12 +6,15 @@ import java.util.UUID;
 
 /**
  * Represents a financial operation entity
+ *
+ * The amount is kept in cents, see {@link Money}; {@code BigDecimal} is used only at the API edge.
  */
 public class Operation {
     private UUID id;
     private OperationType type;
     private UUID bankAccountId;
-    private BigDecimal amount;
+    private long amountCents;
+    private boolean hasAmount;
     private LocalDateTime date;
     private UUID categoryId;
     private String description;
@@ -26,7 +29,7 @@ public class Operation {
         this.id = id;
         this.type = type;
         this.bankAccountId = bankAccountId;
-        this.amount = amount;
+        setAmount(amount);
         this.date = date;
         this.categoryId = categoryId;
         this.description = description;
@@ -58,11 +61,36 @@ public class Operation {
     }
 
     public BigDecimal getAmount() {
-        return amount;
+        return hasAmount ? Money.toBigDecimal(amountCents) : null;
     }
 
+    /**
+     * @throws IllegalArgumentException if the amount has more than two decimals, see {@link Money}
+     */
     public void setAmount(BigDecimal amount) {
-        this.amount = amount;
+        this.amountCents = amount == null ? 0 : Money.toCents(amount);
+        this.hasAmount = amount != null;
+    }
+
+    public boolean hasAmount() {
+        return hasAmount;
+    }
+
+    /**
+     * The amount in cents, see {@link Money}
+     *
+     * @throws IllegalStateException if the amount is missing
+     */
+    public long getAmountCents() {
+        if (!hasAmount) {
+            throw new IllegalStateException("Operation has no amount: " + id);
+        }
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+        this.hasAmount = true;
     }
 
     public LocalDateTime getDate() {
@@ -98,7 +126,8 @@ public class Operation {
         private UUID id;
         private OperationType type;
         private UUID bankAccountId;
-        private BigDecimal amount;
+        private long amountCents;
+        private boolean hasAmount;
         private LocalDateTime date;
         private UUID categoryId;
         private String description;
@@ -118,8 +147,18 @@ public class Operation {
             return this;
         }
 
+        /**
+         * @throws IllegalArgumentException if the amount has more than two decimals, see {@link Money}
+         */
         public Builder amount(BigDecimal amount) {
-            this.amount = amount;
+            this.amountCents = amount == null ? 0 : Money.toCents(amount);
+            this.hasAmount = amount != null;
+            return this;
+        }
+
+        public Builder amountCents(long amountCents) {
+            this.amountCents = amountCents;
+            this.hasAmount = true;
             return this;
         }
 
@@ -139,7 +178,11 @@ public class Operation {
         }
 
         public Operation build() {
-            return new Operation(id, type, bankAccountId, amount, date, categoryId, description);
+            Operation operation = new Operation(id, type, bankAccountId, null, date, categoryId, description);
+            if (hasAmount) {
+                operation.setAmountCents(amountCents);
+            }
+            return operation;
         }
     }
 } 
\ No newline at end of file
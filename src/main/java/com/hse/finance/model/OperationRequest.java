@@ -0,0 +1,44 @@
+package com.hse.finance.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Parameters of an operation to be created, used by batch ingestion
+ */
+public class OperationRequest {
+    private final OperationType type;
+    private final UUID bankAccountId;
+    private final BigDecimal amount;
+    private final UUID categoryId;
+    private final String description;
+
+    public OperationRequest(OperationType type, UUID bankAccountId, BigDecimal amount, UUID categoryId,
+                            String description) {
+        this.type = type;
+        this.bankAccountId = bankAccountId;
+        this.amount = amount;
+        this.categoryId = categoryId;
+        this.description = description;
+    }
+
+    public OperationType getType() {
+        return type;
+    }
+
+    public UUID getBankAccountId() {
+        return bankAccountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public UUID getCategoryId() {
+        return categoryId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
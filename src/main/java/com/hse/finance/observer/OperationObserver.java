@@ -0,0 +1,27 @@
+package com.hse.finance.observer;
+
+import com.hse.finance.model.Operation;
+
+import java.util.Collection;
+
+/**
+ * Observer notified about operations created or deleted through OperationFacade
+ */
+public interface OperationObserver {
+    /**
+     * Called after the operation has been saved and the account balance updated
+     */
+    void onOperationCreated(Operation operation);
+
+    /**
+     * Called after the operation has been removed and the account balance reverted
+     */
+    void onOperationDeleted(Operation operation);
+
+    /**
+     * Called after the operations have been loaded into the repository directly, bypassing
+     * OperationFacade (e.g. on restore). Observers keeping derived state should rebuild it.
+     */
+    default void onOperationsReloaded(Collection<Operation> operations) {
+    }
+}
@@ -2,63 +2,77 @@ package com.hse.finance.proxy;
 
 import com.hse.finance.model.BankAccount;
 import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.RepositoryListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Proxy for BankAccountRepository that implements caching
+ *
+ * Accounts are loaded into a bounded cache on first lookup ({@code finance.cache.accounts.maximum-size},
+ * {@code finance.cache.accounts.ttl-seconds}, 0 for no expiry). The cache follows every change of the
+ * repository through a listener, including changes made without the proxy.
  */
 @Component
 public class BankAccountRepositoryProxy {
     private final BankAccountRepository repository;
-    private final ConcurrentHashMap<UUID, BankAccount> cache = new ConcurrentHashMap<>();
-    private boolean isCacheInitialized = false;
+    private final BoundedCache<UUID, BankAccount> cache;
 
-    @Autowired
     public BankAccountRepositoryProxy(BankAccountRepository repository) {
-        this.repository = repository;
+        this(repository, 10_000, 0);
     }
 
-    private void initCacheIfNeeded() {
-        if (!isCacheInitialized) {
-            repository.findAll().forEach(account -> cache.put(account.getId(), account));
-            isCacheInitialized = true;
-        }
+    @Autowired
+    public BankAccountRepositoryProxy(BankAccountRepository repository,
+                                      @Value("${finance.cache.accounts.maximum-size:10000}") int maximumSize,
+                                      @Value("${finance.cache.accounts.ttl-seconds:0}") long ttlSeconds) {
+        this.repository = repository;
+        this.cache = new BoundedCache<>(maximumSize, Duration.ofSeconds(ttlSeconds));
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(BankAccount account) {
+                cache.put(account.getId(), account);
+            }
+
+            @Override
+            public void onDeleted(UUID id) {
+                cache.invalidate(id);
+            }
+
+            @Override
+            public void onCleared() {
+                cache.invalidateAll();
+            }
+        });
     }
 
     public void save(BankAccount account) {
-        initCacheIfNeeded();
         repository.save(account);
-        cache.put(account.getId(), account);
     }
 
     public Optional<BankAccount> findById(UUID id) {
-        initCacheIfNeeded();
-        return Optional.ofNullable(cache.get(id));
+        return Optional.ofNullable(cache.get(id, key -> repository.findById(key).orElse(null)));
     }
 
     public List<BankAccount> findAll() {
-        initCacheIfNeeded();
-        return List.copyOf(cache.values());
+        return repository.findAll();
     }
 
     public boolean deleteById(UUID id) {
-        initCacheIfNeeded();
-        boolean isDeleted = repository.deleteById(id);
-        if (isDeleted) {
-            cache.remove(id);
-        }
-        return isDeleted;
+        return repository.deleteById(id);
     }
 
     public void clear() {
         repository.clear();
-        cache.clear();
-        isCacheInitialized = false;
     }
-} 
\ No newline at end of file
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+}
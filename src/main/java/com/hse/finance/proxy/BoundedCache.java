@@ -0,0 +1,215 @@
+package com.hse.finance.proxy;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache with LRU eviction, optional expiry and per-key loading
+ *
+ * Entries are spread over segments, each an access-ordered map behind its own lock, so lookups of
+ * different keys rarely contend. A missing key is loaded by one thread while concurrent callers
+ * wait for that load. A load racing with a put or an invalidation of the same key is returned to
+ * its caller but not cached, so the cache never resurrects a stale value.
+ *
+ * Backs the account and category proxies. Operations have no cached proxy: OperationRepository
+ * answers lookups from its own in-memory indexes, so a cache would only copy them.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class BoundedCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of entries
+     * @param ttl time after writing when an entry expires, null or zero for no expiry
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BoundedCache(int maximumSize, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        int count = Integer.highestOneBit(Math.min(MAX_SEGMENTS, maximumSize));
+        int capacity = (maximumSize + count - 1) / count;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(capacity, evictions);
+        }
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached value or null, counting a hit or a miss
+     */
+    public V getIfPresent(K key) {
+        V value = lookup(key);
+        (value == null ? misses : hits).increment();
+        return value;
+    }
+
+    /**
+     * Returns the cached value, loading it with the loader on a miss. Null results are not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = lookup(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            value = loader.apply(key);
+            loads.increment();
+        } catch (RuntimeException e) {
+            loading.remove(key, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            // Not registered any more when the key was written or invalidated during the load
+            if (loading.remove(key, load) && value != null) {
+                segment.put(key, new Entry<>(value, expiresAt()));
+            }
+        }
+        load.complete(value);
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            loading.remove(key);
+            segment.put(key, new Entry<>(value, expiresAt()));
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            loading.remove(key);
+            segment.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                loading.keySet().removeIf(key -> segment(key) == segment);
+                segment.clear();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(), size());
+    }
+
+    private V lookup(K key) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt != 0 && System.nanoTime() - entry.expiresAt >= 0) {
+                segment.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private long expiresAt() {
+        if (ttlNanos == 0) {
+            return 0;
+        }
+        long expiresAt = System.nanoTime() + ttlNanos;
+        // Zero means no expiry
+        return expiresAt == 0 ? 1 : expiresAt;
+    }
+
+    private Segment<K, V> segment(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Access-ordered map dropping its least recently used entry when full; guarded by its own monitor
+     */
+    @SuppressWarnings("serial")
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        private Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() <= capacity) {
+                return false;
+            }
+            evictions.increment();
+            return true;
+        }
+    }
+}
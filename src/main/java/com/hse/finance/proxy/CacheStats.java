@@ -0,0 +1,51 @@
+package com.hse.finance.proxy;
+
+/**
+ * Snapshot of cache statistics; expired entries are counted as evictions
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long evictions;
+    private final long size;
+
+    public CacheStats(long hits, long misses, long loads, long evictions, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, hits=%d, misses=%d, hit rate=%.1f%%, loads=%d, evictions=%d",
+                size, hits, misses, getHitRate() * 100, loads, evictions);
+    }
+}
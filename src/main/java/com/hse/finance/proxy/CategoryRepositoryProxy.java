@@ -0,0 +1,81 @@
+package com.hse.finance.proxy;
+
+import com.hse.finance.model.Category;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.RepositoryListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Proxy for CategoryRepository that implements caching
+ *
+ * Configured with {@code finance.cache.categories.maximum-size} and {@code finance.cache.categories.ttl-seconds}.
+ */
+@Component
+public class CategoryRepositoryProxy {
+    private final CategoryRepository repository;
+    private final BoundedCache<UUID, Category> cache;
+
+    public CategoryRepositoryProxy(CategoryRepository repository) {
+        this(repository, 10_000, 0);
+    }
+
+    @Autowired
+    public CategoryRepositoryProxy(CategoryRepository repository,
+                                   @Value("${finance.cache.categories.maximum-size:10000}") int maximumSize,
+                                   @Value("${finance.cache.categories.ttl-seconds:0}") long ttlSeconds) {
+        this.repository = repository;
+        this.cache = new BoundedCache<>(maximumSize, Duration.ofSeconds(ttlSeconds));
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Category category) {
+                cache.put(category.getId(), category);
+            }
+
+            @Override
+            public void onDeleted(UUID id) {
+                cache.invalidate(id);
+            }
+
+            @Override
+            public void onCleared() {
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    public void save(Category category) {
+        repository.save(category);
+    }
+
+    public Optional<Category> findById(UUID id) {
+        return Optional.ofNullable(cache.get(id, key -> repository.findById(key).orElse(null)));
+    }
+
+    public List<Category> findAll() {
+        return repository.findAll();
+    }
+
+    public List<Category> findByType(OperationType type) {
+        return repository.findByType(type);
+    }
+
+    public boolean deleteById(UUID id) {
+        return repository.deleteById(id);
+    }
+
+    public void clear() {
+        repository.clear();
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+}
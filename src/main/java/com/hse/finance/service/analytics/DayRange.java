@@ -0,0 +1,69 @@
+package com.hse.finance.service.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an inclusive [start, end] date-time range into whole days, which can be answered from
+ * per-day aggregates, and the partial days at its edges, which have to be read from raw operations
+ */
+public final class DayRange {
+    private final LocalDate firstFullDay;
+    private final LocalDate lastFullDay;
+    private final List<LocalDateTime[]> partialRanges;
+
+    private DayRange(LocalDate firstFullDay, LocalDate lastFullDay, List<LocalDateTime[]> partialRanges) {
+        this.firstFullDay = firstFullDay;
+        this.lastFullDay = lastFullDay;
+        this.partialRanges = partialRanges;
+    }
+
+    public static DayRange of(LocalDateTime start, LocalDateTime end) {
+        List<LocalDateTime[]> partial = new ArrayList<>();
+        if (start.isAfter(end)) {
+            return new DayRange(null, null, partial);
+        }
+
+        LocalDate firstFull = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate lastFull = end.toLocalTime().equals(LocalTime.MAX)
+                ? end.toLocalDate() : end.toLocalDate().minusDays(1);
+
+        if (firstFull.isAfter(lastFull)) {
+            partial.add(new LocalDateTime[]{start, end});
+            return new DayRange(null, null, partial);
+        }
+
+        LocalDateTime fullStart = firstFull.atStartOfDay();
+        if (start.isBefore(fullStart)) {
+            partial.add(new LocalDateTime[]{start, fullStart.minusNanos(1)});
+        }
+        LocalDateTime fullEnd = lastFull.plusDays(1).atStartOfDay();
+        if (!end.isBefore(fullEnd)) {
+            partial.add(new LocalDateTime[]{fullEnd, end});
+        }
+        return new DayRange(firstFull, lastFull, partial);
+    }
+
+    public boolean hasFullDays() {
+        return firstFullDay != null;
+    }
+
+    public LocalDate getFirstFullDay() {
+        return firstFullDay;
+    }
+
+    public LocalDate getLastFullDay() {
+        return lastFullDay;
+    }
+
+    /**
+     * Inclusive [start, end] pairs not covered by whole days
+     */
+    public List<LocalDateTime[]> getPartialRanges() {
+        return partialRanges;
+    }
+}
@@ -0,0 +1,130 @@
+package com.hse.finance.service.analytics;
+
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Expense categories of the current month ranked by spending, maintained on every operation write
+ *
+ * Each month keeps its totals per category together with a set ordered by amount, so updating a
+ * category costs O(log categories) and reading the top K costs O(K). Operations dated in earlier
+ * months are ignored; later months are kept until they become current, and past months are dropped.
+ */
+@Component
+public class MonthlySpendingRanking implements OperationObserver {
+    private static final Comparator<Total> RANK = Comparator.comparingLong((Total total) -> total.cents).reversed()
+            .thenComparing(total -> total.categoryId);
+
+    private final Clock clock;
+    private final Map<YearMonth, Ranking> months = new HashMap<>();
+
+    public MonthlySpendingRanking() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public MonthlySpendingRanking(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void onOperationCreated(Operation operation) {
+        apply(operation, 1);
+    }
+
+    @Override
+    public void onOperationDeleted(Operation operation) {
+        apply(operation, -1);
+    }
+
+    @Override
+    public synchronized void onOperationsReloaded(Collection<Operation> operations) {
+        months.clear();
+        operations.forEach(this::onOperationCreated);
+    }
+
+    /**
+     * Up to {@code limit} category ids with the largest expenses this month, largest first
+     */
+    public synchronized List<Map.Entry<UUID, BigDecimal>> top(int limit) {
+        Ranking ranking = months.get(currentMonth());
+        List<Map.Entry<UUID, BigDecimal>> result = new ArrayList<>(Math.max(0, limit));
+        if (ranking == null) {
+            return result;
+        }
+        Iterator<Total> iterator = ranking.ranked.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            Total total = iterator.next();
+            result.add(new AbstractMap.SimpleImmutableEntry<>(total.categoryId, Money.toBigDecimal(total.cents)));
+        }
+        return result;
+    }
+
+    private synchronized void apply(Operation operation, int sign) {
+        if (operation.getType() != OperationType.EXPENSE) {
+            return;
+        }
+        YearMonth current = currentMonth();
+        YearMonth month = YearMonth.from(operation.getDate());
+        if (month.isBefore(current)) {
+            return;
+        }
+        months.keySet().removeIf(past -> past.isBefore(current));
+        Ranking ranking = months.computeIfAbsent(month, m -> new Ranking());
+        ranking.add(operation.getCategoryId(), sign * operation.getAmountCents(), sign);
+    }
+
+    private YearMonth currentMonth() {
+        return YearMonth.now(clock);
+    }
+
+    /**
+     * Category totals of one month
+     */
+    private static final class Ranking {
+        private final Map<UUID, Total> totals = new HashMap<>();
+        private final TreeSet<Total> ranked = new TreeSet<>(RANK);
+
+        void add(UUID categoryId, long cents, int count) {
+            Total previous = totals.remove(categoryId);
+            Total updated = previous == null
+                    ? new Total(categoryId, cents, count)
+                    : new Total(categoryId, Money.add(previous.cents, cents), previous.count + count);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            if (updated.count > 0) {
+                totals.put(categoryId, updated);
+                ranked.add(updated);
+            }
+        }
+    }
+
+    private static final class Total {
+        private final UUID categoryId;
+        private final long cents;
+        private final long count;
+
+        private Total(UUID categoryId, long cents, long count) {
+            this.categoryId = categoryId;
+            this.cents = cents;
+            this.count = count;
+        }
+    }
+}
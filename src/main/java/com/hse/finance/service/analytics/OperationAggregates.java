@@ -0,0 +1,272 @@
+package com.hse.finance.service.analytics;
+
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.repository.RepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Materialized per-(category, day) and per-(account, day) sums and counts.
+ *
+ * Kept up to date by a listener of the operation repository, so every write is counted whichever
+ * path it takes, and analytics over whole days cost O(keys × days) instead of O(operations).
+ * Category sums are also rolled up per month, so month and quarter trends cost O(months).
+ */
+@Component
+public class OperationAggregates implements OperationObserver {
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListMap<LocalDate, Cell>> byCategory = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListMap<LocalDate, Cell>> byAccount = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListMap<YearMonth, Cell>> byCategoryMonth = new ConcurrentHashMap<>();
+
+    public OperationAggregates(OperationRepository operationRepository) {
+        operationRepository.findAll().forEach(this::add);
+        operationRepository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Operation operation) {
+                add(operation);
+            }
+
+            @Override
+            public void onReplaced(Operation previous, Operation operation) {
+                remove(previous);
+                add(operation);
+            }
+
+            @Override
+            public void beforeDeleted(Operation operation) {
+                remove(operation);
+            }
+
+            @Override
+            public void onDeleted(UUID id) {
+            }
+
+            @Override
+            public void onCleared() {
+                clear();
+            }
+        });
+    }
+
+    @Override
+    public void onOperationCreated(Operation operation) {
+        // Counted by the repository listener
+    }
+
+    @Override
+    public void onOperationDeleted(Operation operation) {
+        // Counted by the repository listener
+    }
+
+    /**
+     * Drops all aggregates and recomputes them from the given operations
+     */
+    @Override
+    public void onOperationsReloaded(Collection<Operation> operations) {
+        clear();
+        operations.forEach(this::add);
+    }
+
+    /**
+     * Income minus expenses over the whole days [from, to]
+     */
+    public BigDecimal balanceDifference(LocalDate from, LocalDate to) {
+        long difference = 0;
+        for (ConcurrentSkipListMap<LocalDate, Cell> days : byAccount.values()) {
+            for (Cell cell : days.subMap(from, true, to, true).values()) {
+                difference = Money.subtract(Money.add(difference, cell.income), cell.expense);
+            }
+        }
+        return Money.toBigDecimal(difference);
+    }
+
+    /**
+     * Sum of operation amounts per category over the whole days [from, to].
+     * When {@code type} is null both incomes and expenses are summed.
+     */
+    public Map<UUID, BigDecimal> sumByCategory(LocalDate from, LocalDate to, OperationType type) {
+        Map<UUID, BigDecimal> result = new HashMap<>();
+        for (Map.Entry<UUID, ConcurrentSkipListMap<LocalDate, Cell>> entry : byCategory.entrySet()) {
+            long sum = 0;
+            boolean found = false;
+            for (Cell cell : entry.getValue().subMap(from, true, to, true).values()) {
+                if (cell.count(type) > 0) {
+                    sum = Money.add(sum, cell.cents(type));
+                    found = true;
+                }
+            }
+            if (found) {
+                result.put(entry.getKey(), Money.toBigDecimal(sum));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of operations of the category over the whole days [from, to]
+     */
+    public long countForCategory(UUID categoryId, LocalDate from, LocalDate to) {
+        ConcurrentSkipListMap<LocalDate, Cell> days = byCategory.get(categoryId);
+        if (days == null) {
+            return 0;
+        }
+        return days.subMap(from, true, to, true).values().stream().mapToLong(cell -> cell.count(null)).sum();
+    }
+
+    /**
+     * Number of operations of the account over the whole days [from, to]
+     */
+    public long countForAccount(UUID accountId, LocalDate from, LocalDate to) {
+        ConcurrentSkipListMap<LocalDate, Cell> days = byAccount.get(accountId);
+        if (days == null) {
+            return 0;
+        }
+        return days.subMap(from, true, to, true).values().stream().mapToLong(cell -> cell.count(null)).sum();
+    }
+
+    /**
+     * Sum of the amounts of the category per period over the whole days [from, to], keyed by the
+     * first day of the period in chronological order. Periods without operations are omitted;
+     * periods cut by the window only include the days inside it.
+     */
+    public Map<LocalDate, BigDecimal> trendForCategory(UUID categoryId, LocalDate from, LocalDate to,
+                                                       TrendGranularity granularity) {
+        Map<LocalDate, Long> trend = new LinkedHashMap<>();
+        ConcurrentSkipListMap<LocalDate, Cell> days = byCategory.get(categoryId);
+        if (days == null || from.isAfter(to)) {
+            return new LinkedHashMap<>();
+        }
+
+        if (granularity == TrendGranularity.DAY || granularity == TrendGranularity.WEEK) {
+            for (Map.Entry<LocalDate, Cell> day : days.subMap(from, true, to, true).entrySet()) {
+                trend.merge(granularity.periodStart(day.getKey()), day.getValue().cents(null), Money::add);
+            }
+            return toAmounts(trend);
+        }
+
+        ConcurrentSkipListMap<YearMonth, Cell> months = byCategoryMonth.get(categoryId);
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            LocalDate monthStart = month.atDay(1);
+            LocalDate monthEnd = month.atEndOfMonth();
+            Cell cell;
+            if (!monthStart.isBefore(from) && !monthEnd.isAfter(to)) {
+                cell = months == null ? null : months.get(month);
+            } else {
+                // Months cut by the window are summed from their days
+                cell = sum(days.subMap(monthStart.isBefore(from) ? from : monthStart, true,
+                        monthEnd.isAfter(to) ? to : monthEnd, true).values());
+            }
+            if (cell != null && cell.count(null) > 0) {
+                trend.merge(granularity.periodStart(monthStart), cell.cents(null), Money::add);
+            }
+        }
+        return toAmounts(trend);
+    }
+
+    private void add(Operation operation) {
+        apply(operation, Cell.of(operation));
+    }
+
+    private void remove(Operation operation) {
+        apply(operation, Cell.of(operation).negate());
+    }
+
+    private void clear() {
+        byCategory.clear();
+        byAccount.clear();
+        byCategoryMonth.clear();
+    }
+
+    private void apply(Operation operation, Cell delta) {
+        LocalDate day = operation.getDate().toLocalDate();
+        merge(byCategory, operation.getCategoryId(), day, delta);
+        merge(byAccount, operation.getBankAccountId(), day, delta);
+        merge(byCategoryMonth, operation.getCategoryId(), YearMonth.from(day), delta);
+    }
+
+    private static Map<LocalDate, BigDecimal> toAmounts(Map<LocalDate, Long> cents) {
+        Map<LocalDate, BigDecimal> amounts = new LinkedHashMap<>();
+        cents.forEach((period, sum) -> amounts.put(period, Money.toBigDecimal(sum)));
+        return amounts;
+    }
+
+    private static Cell sum(Collection<Cell> cells) {
+        Cell total = null;
+        for (Cell cell : cells) {
+            total = total == null ? cell : total.plus(cell);
+        }
+        return total;
+    }
+
+    private static <P> void merge(ConcurrentHashMap<UUID, ConcurrentSkipListMap<P, Cell>> index,
+                                  UUID key, P period, Cell delta) {
+        ConcurrentSkipListMap<P, Cell> periods = index.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>());
+        // Cells are immutable, so the remapping function is safe to retry
+        periods.compute(period, (p, cell) -> {
+            Cell updated = cell == null ? delta : cell.plus(delta);
+            return updated.count(null) == 0 ? null : updated;
+        });
+    }
+
+    /**
+     * Immutable aggregate of the operations of one key on one day, amounts in cents
+     */
+    private static final class Cell {
+        private final long income;
+        private final long expense;
+        private final long incomeCount;
+        private final long expenseCount;
+
+        private Cell(long income, long expense, long incomeCount, long expenseCount) {
+            this.income = income;
+            this.expense = expense;
+            this.incomeCount = incomeCount;
+            this.expenseCount = expenseCount;
+        }
+
+        static Cell of(Operation operation) {
+            return operation.getType() == OperationType.INCOME
+                    ? new Cell(operation.getAmountCents(), 0, 1, 0)
+                    : new Cell(0, operation.getAmountCents(), 0, 1);
+        }
+
+        Cell plus(Cell other) {
+            return new Cell(Money.add(income, other.income), Money.add(expense, other.expense),
+                    incomeCount + other.incomeCount, expenseCount + other.expenseCount);
+        }
+
+        Cell negate() {
+            return new Cell(-income, -expense, -incomeCount, -expenseCount);
+        }
+
+        long count(OperationType type) {
+            if (type == null) {
+                return incomeCount + expenseCount;
+            }
+            return type == OperationType.INCOME ? incomeCount : expenseCount;
+        }
+
+        long cents(OperationType type) {
+            if (type == null) {
+                return Money.add(income, expense);
+            }
+            return type == OperationType.INCOME ? income : expense;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.hse.finance.service.analytics;
+
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.OperationRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Scans operations of a period in parallel
+ *
+ * The period is split in halves recursively into disjoint date buckets, every bucket is scanned by
+ * the repository on a fork-join pool and the partial results are combined with exact
+ * {@code BigDecimal} addition, so results are identical to a single sequential scan. The pool size
+ * is set with {@code finance.analytics.parallelism} (0 for the number of processors, 1 scans in
+ * the calling thread). A store that cannot seek by date (the columnar store once rows were
+ * appended out of date order) would scan every row once per bucket, so the period is then scanned
+ * in one pass instead.
+ */
+@Component
+public class ParallelOperationScanner {
+    /** Buckets per worker, so that uneven buckets still keep every worker busy */
+    private static final int BUCKETS_PER_THREAD = 4;
+    private static final Duration MIN_BUCKET = Duration.ofHours(1);
+
+    private final OperationRepository operationRepository;
+    private final int parallelism;
+    private final int depth;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public ParallelOperationScanner(OperationRepository operationRepository,
+                                    @Value("${finance.analytics.parallelism:0}") int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Analytics parallelism must not be negative");
+        }
+        this.operationRepository = operationRepository;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.depth = 32 - Integer.numberOfLeadingZeros(this.parallelism * BUCKETS_PER_THREAD - 1);
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Income minus expenses of the operations dated within [start, end]
+     */
+    public BigDecimal balanceDifference(LocalDateTime start, LocalDateTime end) {
+        return scan(start, end, operationRepository::balanceDifference, BigDecimal::add);
+    }
+
+    /**
+     * Sum of amounts per category of the operations dated within [start, end], optionally of one type only
+     */
+    public Map<UUID, BigDecimal> sumByCategory(LocalDateTime start, LocalDateTime end, OperationType type) {
+        return scan(start, end, (from, to) -> operationRepository.sumByCategory(from, to, type),
+                ParallelOperationScanner::mergeSums);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private <R> R scan(LocalDateTime start, LocalDateTime end, BucketScan<R> scan, BinaryOperator<R> combiner) {
+        if (pool == null || !start.isBefore(end) || !operationRepository.isDateSeekable()) {
+            return scan.apply(start, end);
+        }
+        return pool.invoke(new ScanTask<>(start, end, depth, scan, combiner));
+    }
+
+    private static Map<UUID, BigDecimal> mergeSums(Map<UUID, BigDecimal> left, Map<UUID, BigDecimal> right) {
+        Map<UUID, BigDecimal> larger = left.size() >= right.size() ? left : right;
+        Map<UUID, BigDecimal> smaller = larger == left ? right : left;
+        smaller.forEach((categoryId, amount) -> larger.merge(categoryId, amount, BigDecimal::add));
+        return larger;
+    }
+
+    @FunctionalInterface
+    private interface BucketScan<R> {
+        R apply(LocalDateTime start, LocalDateTime end);
+    }
+
+    /**
+     * Scans [start, end], splitting it into [start, middle] and (middle, end] while depth remains
+     */
+    @SuppressWarnings("serial")
+    private static final class ScanTask<R> extends RecursiveTask<R> {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int depth;
+        private final BucketScan<R> scan;
+        private final BinaryOperator<R> combiner;
+
+        ScanTask(LocalDateTime start, LocalDateTime end, int depth, BucketScan<R> scan, BinaryOperator<R> combiner) {
+            this.start = start;
+            this.end = end;
+            this.depth = depth;
+            this.scan = scan;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            Duration span = Duration.between(start, end);
+            if (depth == 0 || span.compareTo(MIN_BUCKET) < 0) {
+                return scan.apply(start, end);
+            }
+            LocalDateTime middle = start.plus(span.dividedBy(2));
+            ScanTask<R> left = new ScanTask<>(start, middle, depth - 1, scan, combiner);
+            ScanTask<R> right = new ScanTask<>(middle.plusNanos(1), end, depth - 1, scan, combiner);
+            left.fork();
+            R rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hse.finance.service.analytics;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The K largest amounts offered, kept in a bounded min-heap
+ *
+ * Offering costs O(log K) and only entries beating the current K-th amount are kept, so selecting
+ * from N entries costs O(N log K) time and O(K) memory instead of sorting all N. Not thread-safe.
+ *
+ * @param <K> The key type
+ */
+public class TopK<K> {
+    private static final Comparator<Map.Entry<?, BigDecimal>> BY_AMOUNT = Comparator.comparing(Map.Entry::getValue);
+
+    private final int k;
+    private final PriorityQueue<Map.Entry<K, BigDecimal>> heap;
+
+    public TopK(int k) {
+        this.k = Math.max(0, k);
+        this.heap = new PriorityQueue<>(this.k + 1, BY_AMOUNT);
+    }
+
+    /**
+     * Whether an entry with the amount would currently be kept
+     */
+    public boolean accepts(BigDecimal amount) {
+        return heap.size() < k || (k > 0 && amount.compareTo(heap.peek().getValue()) > 0);
+    }
+
+    public void offer(K key, BigDecimal amount) {
+        if (accepts(amount)) {
+            heap.add(new AbstractMap.SimpleImmutableEntry<>(key, amount));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+    }
+
+    /**
+     * The kept entries, largest amount first
+     */
+    public List<Map.Entry<K, BigDecimal>> toList() {
+        List<Map.Entry<K, BigDecimal>> result = new ArrayList<>(heap);
+        result.sort(BY_AMOUNT.reversed());
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.hse.finance.service.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the periods a trend is split into; every period is identified by its first day
+ */
+public enum TrendGranularity {
+    DAY,
+    /** ISO weeks starting on Monday */
+    WEEK,
+    MONTH,
+    QUARTER;
+
+    /**
+     * First day of the period containing the day
+     */
+    public LocalDate periodStart(LocalDate day) {
+        switch (this) {
+            case DAY:
+                return day;
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return day.withDayOfMonth(1);
+            case QUARTER:
+                return LocalDate.of(day.getYear(), (day.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            default:
+                throw new IllegalStateException("Unknown granularity: " + this);
+        }
+    }
+}
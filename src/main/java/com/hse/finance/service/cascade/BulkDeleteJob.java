@@ -0,0 +1,72 @@
+package com.hse.finance.service.cascade;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a cascade delete started by CascadeDeleteService
+ */
+public class BulkDeleteJob {
+    private final String target;
+    private final int total;
+    private final AtomicInteger processed = new AtomicInteger();
+    private final CompletableFuture<Integer> completion = new CompletableFuture<>();
+
+    BulkDeleteJob(String target, int total) {
+        this.target = target;
+        this.total = total;
+    }
+
+    /**
+     * What is being deleted, e.g. {@code category <id>}
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Number of operations found when the job started
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * Share of the operations processed so far, from 0 to 1
+     */
+    public double getProgress() {
+        return total == 0 ? 1.0 : Math.min(1.0, (double) processed.get() / total);
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Completes with the number of deleted operations
+     */
+    public CompletableFuture<Integer> getCompletion() {
+        return completion;
+    }
+
+    void advance(int count) {
+        processed.addAndGet(count);
+    }
+
+    void complete(int deleted) {
+        completion.complete(deleted);
+    }
+
+    void fail(Throwable error) {
+        completion.completeExceptionally(error);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkDeleteJob{target=" + target + ", processed=" + processed.get() + "/" + total + "}";
+    }
+}
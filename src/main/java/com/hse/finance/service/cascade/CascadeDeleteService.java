@@ -0,0 +1,204 @@
+package com.hse.finance.service.cascade;
+
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.OperationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes the operations of a removed account or category
+ *
+ * The operations are found through the repository's per-owner indexes and removed by id in
+ * chunks, each chunk under the locks of its accounts. Deleting a category reverses the removed
+ * operations on the balances of their accounts; both cascades notify the observers, so derived
+ * aggregates stay correct. Up to {@code finance.cascade.background-threshold} operations are
+ * deleted in the calling thread, larger cascades run as a background job reporting progress.
+ * The owner must be removed before the cascade starts, so that no new operations reference it.
+ * Operations check their account and category under the account lock, so the last, empty pass
+ * over the operations of a category runs while no account lock is held: an operation saved
+ * after it would have seen the category removed.
+ */
+@Component
+public class CascadeDeleteService {
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    private final OperationRepository operationRepository;
+    private final BankAccountRepositoryProxy bankAccountRepository;
+    private final List<OperationObserver> observers;
+    private final AccountLocks accountLocks;
+    private final int backgroundThreshold;
+    private final int chunkSize;
+    private final List<BulkDeleteJob> running = new CopyOnWriteArrayList<>();
+
+    private ExecutorService executor;
+
+    public CascadeDeleteService(OperationRepository operationRepository,
+                                BankAccountRepositoryProxy bankAccountRepository,
+                                List<OperationObserver> observers, AccountLocks accountLocks) {
+        this(operationRepository, bankAccountRepository, observers, accountLocks, 10000, 1024);
+    }
+
+    @Autowired
+    public CascadeDeleteService(OperationRepository operationRepository,
+                                BankAccountRepositoryProxy bankAccountRepository,
+                                List<OperationObserver> observers, AccountLocks accountLocks,
+                                @Value("${finance.cascade.background-threshold:10000}") int backgroundThreshold,
+                                @Value("${finance.cascade.chunk-size:1024}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Cascade chunk size must be positive");
+        }
+        this.operationRepository = operationRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.observers = observers;
+        this.accountLocks = accountLocks;
+        this.backgroundThreshold = backgroundThreshold;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Deletes the operations of a removed account; balances are left alone, the account is gone
+     */
+    public BulkDeleteJob deleteOperationsOfAccount(UUID bankAccountId) {
+        // The account is removed under its own lock, which the caller may still hold
+        return start("account " + bankAccountId, () -> operationRepository.findByBankAccountId(bankAccountId),
+                false, false);
+    }
+
+    /**
+     * Deletes the operations of a removed category and reverses them on their account balances
+     */
+    public BulkDeleteJob deleteOperationsOfCategory(UUID categoryId) {
+        return start("category " + categoryId, () -> operationRepository.findByCategoryId(categoryId), true, true);
+    }
+
+    /**
+     * Background jobs not finished yet
+     */
+    public List<BulkDeleteJob> getRunningJobs() {
+        return new ArrayList<>(running);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private BulkDeleteJob start(String target, OwnedOperations owned, boolean reverseBalances,
+                                boolean settleExclusively) {
+        List<Operation> operations = owned.find();
+        BulkDeleteJob job = new BulkDeleteJob(target, operations.size());
+        if (operations.size() <= backgroundThreshold) {
+            run(job, operations, owned, reverseBalances, settleExclusively);
+            return job;
+        }
+
+        running.add(job);
+        log.info("Deleting {} operations of {} in the background", operations.size(), target);
+        executor().execute(() -> {
+            try {
+                run(job, operations, owned, reverseBalances, settleExclusively);
+                log.info("Deleted {} operations of {}", job.getCompletion().join(), target);
+            } finally {
+                running.remove(job);
+            }
+        });
+        return job;
+    }
+
+    private void run(BulkDeleteJob job, List<Operation> operations, OwnedOperations owned, boolean reverseBalances,
+                     boolean settleExclusively) {
+        try {
+            int deleted = 0;
+            // Operations saved concurrently with the owner's removal are picked up by another pass
+            while (true) {
+                for (int from = 0; from < operations.size(); from += chunkSize) {
+                    List<Operation> chunk = operations.subList(from, Math.min(from + chunkSize, operations.size()));
+                    deleted += deleteChunk(chunk, reverseBalances);
+                    job.advance(chunk.size());
+                }
+                operations = owned.find();
+                if (operations.isEmpty() && settleExclusively) {
+                    operations = accountLocks.exclusively(owned::find);
+                }
+                if (operations.isEmpty()) {
+                    break;
+                }
+            }
+            job.complete(deleted);
+        } catch (RuntimeException e) {
+            log.error("Cascade delete of {} failed after {} operations: {}", job.getTarget(), job.getProcessed(),
+                    e.getMessage(), e);
+            job.fail(e);
+        }
+    }
+
+    private int deleteChunk(List<Operation> chunk, boolean reverseBalances) {
+        Set<UUID> accountIds = new LinkedHashSet<>();
+        chunk.forEach(operation -> accountIds.add(operation.getBankAccountId()));
+
+        List<Operation> removed = accountLocks.withLocks(accountIds, () -> {
+            List<Operation> result = new ArrayList<>(chunk.size());
+            Map<UUID, long[]> changes = new HashMap<>();
+            for (Operation operation : chunk) {
+                if (!operationRepository.deleteById(operation.getId())) {
+                    continue;
+                }
+                result.add(operation);
+                if (reverseBalances) {
+                    long[] change = changes.computeIfAbsent(operation.getBankAccountId(), id -> new long[1]);
+                    change[0] = operation.getType() == OperationType.INCOME
+                            ? Money.subtract(change[0], operation.getAmountCents())
+                            : Money.add(change[0], operation.getAmountCents());
+                }
+            }
+            changes.forEach((accountId, change) -> bankAccountRepository.findById(accountId).ifPresent(account -> {
+                account.setBalanceCents(Money.add(account.getBalanceCents(), change[0]));
+                bankAccountRepository.save(account);
+            }));
+            return result;
+        });
+
+        for (Operation operation : removed) {
+            observers.forEach(observer -> observer.onOperationDeleted(operation));
+        }
+        return removed.size();
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cascade-delete");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    @FunctionalInterface
+    private interface OwnedOperations {
+        List<Operation> find();
+    }
+}
@@ -0,0 +1,239 @@
+package com.hse.finance.service.journal;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Binary encoding of journal records.
+ *
+ * Every record is framed as {@code [int payload length][byte type][payload][int CRC32 of type and payload]}.
+ * Ids, enums and dates are fixed-width (two longs, a byte, epoch seconds plus nanos), decimals are
+ * written as scale plus unscaled bytes and strings as length-prefixed UTF-8 (-1 for null).
+ * Records are therefore variable-length; the length prefix and checksum find their boundaries.
+ */
+final class JournalCodec {
+    static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+    static final int TRAILER_SIZE = Integer.BYTES;
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    private JournalCodec() {
+    }
+
+    static byte[] accountSaved(BankAccount account) {
+        return frame(JournalRecordType.ACCOUNT_SAVED, out -> {
+            writeUuid(out, account.getId());
+            writeString(out, account.getName());
+            writeDecimal(out, account.getBalance());
+        });
+    }
+
+    static byte[] categorySaved(Category category) {
+        return frame(JournalRecordType.CATEGORY_SAVED, out -> {
+            writeUuid(out, category.getId());
+            writeString(out, category.getName());
+            writeEnum(out, category.getType());
+        });
+    }
+
+    static byte[] operationSaved(Operation operation) {
+        return frame(JournalRecordType.OPERATION_SAVED, out -> {
+            writeUuid(out, operation.getId());
+            writeEnum(out, operation.getType());
+            writeUuid(out, operation.getBankAccountId());
+            writeUuid(out, operation.getCategoryId());
+            writeDecimal(out, operation.getAmount());
+            writeDate(out, operation.getDate());
+            writeString(out, operation.getDescription());
+        });
+    }
+
+    static byte[] deleted(JournalRecordType type, UUID id) {
+        return frame(type, out -> writeUuid(out, id));
+    }
+
+    static byte[] cleared(JournalRecordType type) {
+        return frame(type, out -> {
+        });
+    }
+
+    /**
+     * Checks the CRC of the record whose payload starts at the buffer position
+     */
+    static boolean verify(ByteBuffer buffer, byte typeCode, int payloadLength, int expectedCrc) {
+        CRC32 crc = new CRC32();
+        crc.update(typeCode);
+        crc.update(buffer.slice(buffer.position(), payloadLength));
+        return (int) crc.getValue() == expectedCrc;
+    }
+
+    /**
+     * Applies a decoded record to the repositories
+     */
+    static void apply(JournalRecordType type, ByteBuffer payload, BankAccountRepository accounts,
+                      CategoryRepository categories, OperationRepository operations) {
+        switch (type) {
+            case ACCOUNT_SAVED:
+                accounts.save(BankAccount.builder()
+                        .id(readUuid(payload))
+                        .name(readString(payload))
+                        .balance(readDecimal(payload))
+                        .build());
+                break;
+            case ACCOUNT_DELETED:
+                accounts.deleteById(readUuid(payload));
+                break;
+            case ACCOUNTS_CLEARED:
+                accounts.clear();
+                break;
+            case CATEGORY_SAVED:
+                categories.save(Category.builder()
+                        .id(readUuid(payload))
+                        .name(readString(payload))
+                        .type(readEnum(payload))
+                        .build());
+                break;
+            case CATEGORY_DELETED:
+                categories.deleteById(readUuid(payload));
+                break;
+            case CATEGORIES_CLEARED:
+                categories.clear();
+                break;
+            case OPERATION_SAVED:
+                operations.save(Operation.builder()
+                        .id(readUuid(payload))
+                        .type(readEnum(payload))
+                        .bankAccountId(readUuid(payload))
+                        .categoryId(readUuid(payload))
+                        .amount(readDecimal(payload))
+                        .date(readDate(payload))
+                        .description(readString(payload))
+                        .build());
+                break;
+            case OPERATION_DELETED:
+                operations.deleteById(readUuid(payload));
+                break;
+            case OPERATIONS_CLEARED:
+                operations.clear();
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record type: " + type);
+        }
+    }
+
+    private static byte[] frame(JournalRecordType type, PayloadWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // payload length, patched below
+            out.writeByte(type.getCode());
+            writer.write(out);
+            out.writeInt(0); // CRC, patched below
+            out.flush();
+
+            byte[] record = bytes.toByteArray();
+            int payloadLength = record.length - HEADER_SIZE - TRAILER_SIZE;
+            CRC32 crc = new CRC32();
+            crc.update(record, Integer.BYTES, payloadLength + Byte.BYTES);
+
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            buffer.putInt(0, payloadLength);
+            buffer.putInt(record.length - TRAILER_SIZE, (int) crc.getValue());
+            return record;
+        } catch (IOException e) {
+            // Writing into a byte array cannot fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void writeEnum(DataOutputStream out, OperationType type) throws IOException {
+        out.writeByte(type == null ? -1 : type.ordinal());
+    }
+
+    private static OperationType readEnum(ByteBuffer in) {
+        byte ordinal = in.get();
+        return ordinal < 0 ? null : OPERATION_TYPES[ordinal];
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(Integer.MIN_VALUE);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int scale = in.getInt();
+        if (scale == Integer.MIN_VALUE) {
+            return null;
+        }
+        byte[] unscaled = new byte[in.get() & 0xFF];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDateTime date) throws IOException {
+        out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(date.getNano());
+    }
+
+    private static LocalDateTime readDate(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
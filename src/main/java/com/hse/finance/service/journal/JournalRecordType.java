@@ -0,0 +1,42 @@
+package com.hse.finance.service.journal;
+
+/**
+ * Kinds of records stored in the journal. The code is the byte written to the record header;
+ * 0 is reserved for the end of the journal.
+ */
+enum JournalRecordType {
+    ACCOUNT_SAVED(1),
+    ACCOUNT_DELETED(2),
+    ACCOUNTS_CLEARED(3),
+    CATEGORY_SAVED(4),
+    CATEGORY_DELETED(5),
+    CATEGORIES_CLEARED(6),
+    OPERATION_SAVED(7),
+    OPERATION_DELETED(8),
+    OPERATIONS_CLEARED(9);
+
+    private static final JournalRecordType[] BY_CODE = new JournalRecordType[16];
+
+    static {
+        for (JournalRecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    JournalRecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    byte getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the type with the given code or null if the code is unknown
+     */
+    static JournalRecordType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
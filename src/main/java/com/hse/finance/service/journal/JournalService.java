@@ -0,0 +1,296 @@
+package com.hse.finance.service.journal;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.repository.RepositoryListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable persistence of the three repositories in a memory-mapped, append-only journal.
+ *
+ * On startup the journal is replayed into the repositories, then every save, delete and clear is
+ * encoded in the writing thread and handed to a background writer. The writer drains everything
+ * queued so far, copies it into the mapping and forces it to disk once per batch (group commit),
+ * so request threads never wait for I/O unless the queue is full. The journal is periodically
+ * compacted into one save record per live entity.
+ *
+ * A failed write stops the journal: appending after a gap would replay to a wrong state, so later
+ * changes are rejected with an {@link IllegalStateException} thrown to the writing thread, records
+ * still queued are discarded, and {@link #flush()} and {@link #stop()} report the failure.
+ *
+ * Enabled with {@code finance.journal.enabled=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "finance.journal.enabled", havingValue = "true")
+public class JournalService {
+    private static final Logger log = LoggerFactory.getLogger(JournalService.class);
+    private static final int MAX_BATCH = 4096;
+    private static final int GROWTH_STEP = 64 * 1024 * 1024;
+    private static final byte[] COMPACTION_REQUEST = new byte[0];
+
+    private final BankAccountRepository bankAccountRepository;
+    private final CategoryRepository categoryRepository;
+    private final OperationRepository operationRepository;
+    private final List<OperationObserver> observers;
+    private final MappedJournalFile file;
+    private final long compactionIntervalMinutes;
+    private final BlockingQueue<byte[]> queue;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object progress = new Object();
+    private long written;
+    private volatile IOException failure;
+
+    private volatile boolean running;
+    private Thread writer;
+    private ScheduledExecutorService compactionScheduler;
+
+    @Autowired
+    public JournalService(BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository,
+                          OperationRepository operationRepository, List<OperationObserver> observers,
+                          @Value("${finance.journal.path:data/finance.journal}") String path,
+                          @Value("${finance.journal.compaction-interval-minutes:60}") long compactionIntervalMinutes,
+                          @Value("${finance.journal.queue-capacity:65536}") int queueCapacity) {
+        this(bankAccountRepository, categoryRepository, operationRepository, observers,
+                new MappedJournalFile(Path.of(path), GROWTH_STEP), compactionIntervalMinutes, queueCapacity);
+    }
+
+    JournalService(BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository,
+                   OperationRepository operationRepository, List<OperationObserver> observers,
+                   MappedJournalFile file, long compactionIntervalMinutes, int queueCapacity) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.categoryRepository = categoryRepository;
+        this.operationRepository = operationRepository;
+        this.observers = observers;
+        this.file = file;
+        this.compactionIntervalMinutes = compactionIntervalMinutes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Replays the journal into the repositories and starts recording changes
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        long started = System.nanoTime();
+        long records = file.open((type, payload) -> JournalCodec.apply(type, payload,
+                bankAccountRepository, categoryRepository, operationRepository));
+        List<Operation> operations = operationRepository.findAll();
+        observers.forEach(observer -> observer.onOperationsReloaded(operations));
+        log.info("Replayed {} journal records in {} ms", records,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        bankAccountRepository.addListener(new JournalListener<>(JournalRecordType.ACCOUNT_DELETED,
+                JournalRecordType.ACCOUNTS_CLEARED) {
+            @Override
+            public void onSaved(BankAccount account) {
+                enqueue(JournalCodec.accountSaved(account));
+            }
+        });
+        categoryRepository.addListener(new JournalListener<>(JournalRecordType.CATEGORY_DELETED,
+                JournalRecordType.CATEGORIES_CLEARED) {
+            @Override
+            public void onSaved(Category category) {
+                enqueue(JournalCodec.categorySaved(category));
+            }
+        });
+        operationRepository.addListener(new JournalListener<>(JournalRecordType.OPERATION_DELETED,
+                JournalRecordType.OPERATIONS_CLEARED) {
+            @Override
+            public void onSaved(Operation operation) {
+                enqueue(JournalCodec.operationSaved(operation));
+            }
+        });
+
+        running = true;
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        if (compactionIntervalMinutes > 0) {
+            compactionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactionScheduler.scheduleAtFixedRate(this::compact,
+                    compactionIntervalMinutes, compactionIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Asks the writer to rewrite the journal from the current repository state
+     */
+    public void compact() {
+        enqueue(COMPACTION_REQUEST);
+    }
+
+    /**
+     * Blocks until everything recorded before the call is durable on disk.
+     * Throws if the journal failed before that, since those records may be lost.
+     */
+    public void flush() throws IOException, InterruptedException {
+        long target = enqueued.get();
+        synchronized (progress) {
+            while (written < target) {
+                rethrowFailure();
+                progress.wait();
+            }
+        }
+    }
+
+    /**
+     * Current size of the journal content in bytes
+     */
+    public long size() {
+        return file.size();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (compactionScheduler != null) {
+            compactionScheduler.shutdownNow();
+        }
+        try {
+            if (writer != null) {
+                try {
+                    flush();
+                } finally {
+                    running = false;
+                    writer.join();
+                }
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    private void enqueue(byte[] record) {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("Journal write failed, the change cannot be recorded", cause);
+        }
+        try {
+            queue.put(record);
+            enqueued.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing to the journal", e);
+        }
+    }
+
+    private void writeLoop() {
+        List<byte[]> batch = new ArrayList<>(MAX_BATCH);
+        List<byte[]> records = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                byte[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                if (failure != null) {
+                    // Discard, the journal already misses earlier records
+                    batch.clear();
+                    continue;
+                }
+
+                for (byte[] record : batch) {
+                    if (record == COMPACTION_REQUEST) {
+                        file.append(records);
+                        records.clear();
+                        rewriteFromRepositories();
+                    } else {
+                        records.add(record);
+                    }
+                }
+                file.append(records);
+                file.force();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to write {} journal records, journal stopped: {}", batch.size(), e.getMessage(), e);
+                failure = e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+            }
+
+            synchronized (progress) {
+                if (failure == null) {
+                    written += batch.size();
+                }
+                progress.notifyAll();
+            }
+            batch.clear();
+            records.clear();
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Journal write failed, recent changes are not durable", cause);
+        }
+    }
+
+    /**
+     * Records queued after the compaction request may already be reflected in the snapshot;
+     * they are appended again, which is harmless because every record is idempotent.
+     */
+    private void rewriteFromRepositories() throws IOException {
+        long sizeBefore = file.size();
+        List<byte[]> snapshot = new ArrayList<>();
+        bankAccountRepository.findAll().forEach(account -> snapshot.add(JournalCodec.accountSaved(account)));
+        categoryRepository.findAll().forEach(category -> snapshot.add(JournalCodec.categorySaved(category)));
+        operationRepository.findAll().forEach(operation -> snapshot.add(JournalCodec.operationSaved(operation)));
+        file.rewrite(snapshot);
+        log.info("Compacted journal from {} to {} bytes", sizeBefore, file.size());
+    }
+
+    /**
+     * Repository listener writing delete and clear records; saves are entity specific
+     */
+    private abstract class JournalListener<T> implements RepositoryListener<T> {
+        private final JournalRecordType deletedType;
+        private final JournalRecordType clearedType;
+
+        JournalListener(JournalRecordType deletedType, JournalRecordType clearedType) {
+            this.deletedType = deletedType;
+            this.clearedType = clearedType;
+        }
+
+        @Override
+        public void onDeleted(UUID id) {
+            enqueue(JournalCodec.deleted(deletedType, id));
+        }
+
+        @Override
+        public void onCleared() {
+            enqueue(JournalCodec.cleared(clearedType));
+        }
+    }
+}
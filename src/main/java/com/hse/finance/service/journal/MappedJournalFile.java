@@ -0,0 +1,143 @@
+package com.hse.finance.service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only journal file accessed through a memory mapping.
+ *
+ * The mapping is grown in steps; the unused tail is zero-filled, so a zero type byte marks the end
+ * of the journal. A record with a bad checksum (e.g. torn by a crash) also ends the journal and is
+ * overwritten by the next append. Not thread-safe, used by a single writer thread.
+ */
+class MappedJournalFile implements Closeable {
+    private final Path path;
+    private final int growthStep;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    MappedJournalFile(Path path, int growthStep) {
+        this.path = path;
+        this.growthStep = growthStep;
+    }
+
+    /**
+     * Opens (creating if necessary) the journal and feeds every valid record to the consumer.
+     * Returns the number of records read.
+     */
+    long open(RecordConsumer consumer) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(Math.max(channel.size(), growthStep));
+
+        long records = 0;
+        boolean torn = false;
+        while (buffer.remaining() >= JournalCodec.HEADER_SIZE + JournalCodec.TRAILER_SIZE) {
+            int start = buffer.position();
+            int payloadLength = buffer.getInt();
+            byte typeCode = buffer.get();
+            if (typeCode == 0 && payloadLength == 0) {
+                buffer.position(start);
+                break;
+            }
+            JournalRecordType type = JournalRecordType.fromCode(typeCode);
+            if (type == null || payloadLength < 0 || payloadLength + JournalCodec.TRAILER_SIZE > buffer.remaining()
+                    || !JournalCodec.verify(buffer, typeCode, payloadLength, buffer.getInt(buffer.position() + payloadLength))) {
+                buffer.position(start);
+                torn = true;
+                break;
+            }
+            consumer.accept(type, buffer.slice(buffer.position(), payloadLength));
+            buffer.position(buffer.position() + payloadLength + JournalCodec.TRAILER_SIZE);
+            records++;
+        }
+
+        if (torn) {
+            // Clear the damaged tail so that it cannot be mistaken for records after later appends
+            for (int i = buffer.position(); i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Copies the framed records into the mapping, growing it when needed
+     */
+    void append(List<byte[]> records) throws IOException {
+        for (byte[] record : records) {
+            if (buffer.remaining() < record.length + 1) {
+                long required = (long) buffer.position() + record.length + 1;
+                map(Math.max(required, (long) buffer.capacity() + growthStep));
+            }
+            buffer.put(record);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Replaces the journal content with the given records through a temporary file and an atomic move
+     */
+    void rewrite(List<byte[]> records) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (byte[] record : records) {
+                ByteBuffer source = ByteBuffer.wrap(record);
+                while (source.hasRemaining()) {
+                    out.write(source);
+                }
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        buffer = null;
+        map(size + growthStep);
+        buffer.position((int) size);
+    }
+
+    long size() {
+        return buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void map(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal exceeds 2 GB, compact it: " + path);
+        }
+        int position = buffer == null ? 0 : buffer.position();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.position(position);
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(JournalRecordType type, ByteBuffer payload);
+    }
+}
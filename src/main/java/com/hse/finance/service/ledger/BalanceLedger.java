@@ -0,0 +1,235 @@
+package com.hse.finance.service.ledger;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.repository.RepositoryListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Event-sourced view of the account balances
+ *
+ * Every operation saved or deleted is recorded as a signed balance change of its account, in the
+ * writing thread (so under the account lock when written through the facades); saving over a stored
+ * operation records the difference to the previous version. An account starts from its opening
+ * balance at checkpoint 0, followed by its stored operations: the balance it had when the ledger
+ * first saw it minus those operations. Every {@code finance.ledger.checkpoint-interval} events the
+ * changes are folded into a checkpoint, so replaying a balance reads the checkpoint and at most
+ * that many events.
+ *
+ * When the repositories are reloaded directly (e.g. from the journal) the stored balances become
+ * the checkpoints and the opening balances are derived from them and the reloaded operations.
+ */
+@Component
+public class BalanceLedger implements OperationObserver {
+    private final BankAccountRepository bankAccountRepository;
+    private final OperationRepository operationRepository;
+    private final int checkpointInterval;
+    private final ConcurrentMap<UUID, AccountLedger> ledgers = new ConcurrentHashMap<>();
+
+    public BalanceLedger(BankAccountRepository bankAccountRepository, OperationRepository operationRepository) {
+        this(bankAccountRepository, operationRepository, 1024);
+    }
+
+    @Autowired
+    public BalanceLedger(BankAccountRepository bankAccountRepository, OperationRepository operationRepository,
+                         @Value("${finance.ledger.checkpoint-interval:1024}") int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.bankAccountRepository = bankAccountRepository;
+        this.operationRepository = operationRepository;
+        this.checkpointInterval = checkpointInterval;
+
+        bankAccountRepository.findAll().forEach(this::open);
+        bankAccountRepository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(BankAccount account) {
+                open(account);
+            }
+
+            @Override
+            public void onDeleted(UUID id) {
+                ledgers.remove(id);
+            }
+
+            @Override
+            public void onCleared() {
+                ledgers.clear();
+            }
+        });
+        operationRepository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Operation operation) {
+                record(operation.getBankAccountId(), signedCents(operation));
+            }
+
+            @Override
+            public void onReplaced(Operation previous, Operation operation) {
+                record(previous.getBankAccountId(), -signedCents(previous));
+                record(operation.getBankAccountId(), signedCents(operation));
+            }
+
+            @Override
+            public void beforeDeleted(Operation operation) {
+                record(operation.getBankAccountId(), -signedCents(operation));
+            }
+
+            @Override
+            public void onDeleted(UUID id) {
+            }
+
+            @Override
+            public void onCleared() {
+                ledgers.values().forEach(AccountLedger::reopen);
+            }
+        });
+    }
+
+    /**
+     * Balance of the account replayed from its last checkpoint, empty for an unknown account
+     */
+    public Optional<BigDecimal> replayBalance(UUID accountId) {
+        AccountLedger ledger = ledgers.get(accountId);
+        return ledger == null ? Optional.empty() : Optional.of(Money.toBigDecimal(ledger.replay()));
+    }
+
+    /**
+     * Recomputes the balances of all accounts from their opening balances and all operations, in
+     * one parallel pass over the operations, and makes them the new checkpoints. The caller must
+     * keep the accounts from changing meanwhile.
+     */
+    public Map<UUID, BigDecimal> rebuildAll() {
+        Map<UUID, Long> changes = operationRepository.findAll().parallelStream()
+                .collect(Collectors.toConcurrentMap(Operation::getBankAccountId, BalanceLedger::signedCents, Money::add));
+
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        ledgers.forEach((accountId, ledger) ->
+                balances.put(accountId, Money.toBigDecimal(ledger.rebuild(changes.getOrDefault(accountId, 0L)))));
+        return balances;
+    }
+
+    /**
+     * Events recorded since the last checkpoint of the account
+     */
+    public int getPendingEvents(UUID accountId) {
+        AccountLedger ledger = ledgers.get(accountId);
+        return ledger == null ? 0 : ledger.pending();
+    }
+
+    @Override
+    public void onOperationCreated(Operation operation) {
+        // Recorded by the repository listener while the account is still locked
+    }
+
+    @Override
+    public void onOperationDeleted(Operation operation) {
+        // Recorded by the repository listener while the account is still locked
+    }
+
+    @Override
+    public void onOperationsReloaded(Collection<Operation> operations) {
+        Map<UUID, Long> changes = operations.parallelStream()
+                .collect(Collectors.toConcurrentMap(Operation::getBankAccountId, BalanceLedger::signedCents, Money::add));
+        ledgers.clear();
+        for (BankAccount account : bankAccountRepository.findAll()) {
+            long balance = account.getBalanceCents();
+            long opening = Money.subtract(balance, changes.getOrDefault(account.getId(), 0L));
+            ledgers.put(account.getId(), new AccountLedger(opening, balance));
+        }
+    }
+
+    /**
+     * Starts the ledger of an account not seen yet from its stored operations
+     */
+    private void open(BankAccount account) {
+        if (ledgers.containsKey(account.getId())) {
+            return;
+        }
+        long stored = 0;
+        for (Operation operation : operationRepository.findByBankAccountId(account.getId())) {
+            stored = Money.add(stored, signedCents(operation));
+        }
+        long opening = Money.subtract(account.getBalanceCents(), stored);
+        AccountLedger ledger = new AccountLedger(opening, opening);
+        if (stored != 0) {
+            ledger.append(stored);
+        }
+        ledgers.putIfAbsent(account.getId(), ledger);
+    }
+
+    private void record(UUID accountId, long change) {
+        AccountLedger ledger = ledgers.get(accountId);
+        if (ledger != null) {
+            ledger.append(change);
+        }
+    }
+
+    private static long signedCents(Operation operation) {
+        return operation.getType() == OperationType.INCOME ? operation.getAmountCents() : -operation.getAmountCents();
+    }
+
+    /**
+     * Opening balance, last checkpoint and the changes recorded after it
+     */
+    private final class AccountLedger {
+        private final long opening;
+        private long checkpoint;
+        private long[] events = new long[Math.min(16, checkpointInterval)];
+        private int pending;
+
+        AccountLedger(long opening, long checkpoint) {
+            this.opening = opening;
+            this.checkpoint = checkpoint;
+        }
+
+        synchronized void append(long change) {
+            if (pending == checkpointInterval) {
+                checkpoint = replay();
+                pending = 0;
+            } else if (pending == events.length) {
+                events = Arrays.copyOf(events, Math.min(checkpointInterval, events.length * 2));
+            }
+            events[pending++] = change;
+        }
+
+        synchronized long replay() {
+            long balance = checkpoint;
+            for (int i = 0; i < pending; i++) {
+                balance = Money.add(balance, events[i]);
+            }
+            return balance;
+        }
+
+        synchronized long rebuild(long change) {
+            checkpoint = Money.add(opening, change);
+            pending = 0;
+            return checkpoint;
+        }
+
+        synchronized void reopen() {
+            rebuild(0);
+        }
+
+        synchronized int pending() {
+            return pending;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hse.finance.service.lock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks guarding account balances
+ *
+ * Every account maps to one of a fixed number of locks, so operations on different accounts
+ * rarely contend while read-modify-write of one balance is serialized. Several accounts are
+ * locked in stripe order, which rules out deadlocks between multi-account updates.
+ *
+ * Balance updates share no lock beyond their stripes. {@link #exclusively} takes every stripe, in
+ * the same order, to capture state while no balance update is half done.
+ */
+@Component
+public class AccountLocks {
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    @Autowired
+    public AccountLocks(@Value("${finance.accounts.lock-stripes:1024}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of lock stripes must be positive");
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs the action holding the lock of the account
+     */
+    public <T> T withLock(UUID accountId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripe(accountId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action holding the locks of all the accounts
+     */
+    public <T> T withLocks(Collection<UUID> accountIds, Supplier<T> action) {
+        // Distinct stripes in ascending order
+        boolean[] needed = new boolean[stripes.length];
+        for (UUID accountId : accountIds) {
+            needed[stripe(accountId)] = true;
+        }
+        return lockInOrder(needed, action);
+    }
+
+    /**
+     * Runs the action while no account lock is held by any other thread; keep the action short,
+     * every balance update waits for it
+     *
+     * @throws IllegalStateException if the calling thread holds some account locks, which could
+     *                               deadlock with a thread waiting for them in stripe order
+     */
+    public <T> T exclusively(Supplier<T> action) {
+        int held = 0;
+        for (ReentrantLock stripe : stripes) {
+            if (stripe.isHeldByCurrentThread()) {
+                held++;
+            }
+        }
+        if (held == stripes.length) {
+            // Already exclusive
+            return action.get();
+        }
+        if (held > 0) {
+            throw new IllegalStateException("Cannot lock all accounts while holding an account lock");
+        }
+        boolean[] all = new boolean[stripes.length];
+        Arrays.fill(all, true);
+        return lockInOrder(all, action);
+    }
+
+    private <T> T lockInOrder(boolean[] needed, Supplier<T> action) {
+        int locked = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                if (needed[locked]) {
+                    stripes[locked].lock();
+                }
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                if (needed[i]) {
+                    stripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    private int stripe(UUID accountId) {
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
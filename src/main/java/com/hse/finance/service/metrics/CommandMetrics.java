@@ -0,0 +1,94 @@
+package com.hse.finance.service.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, outcome counters and in-flight gauge of one command
+ */
+public class CommandMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    CommandMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Marks the start of an execution and returns its start time
+     */
+    public long started() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void succeeded(long startNanos) {
+        finished(startNanos);
+        successes.increment();
+    }
+
+    public void failed(long startNanos) {
+        finished(startNanos);
+        failures.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, successes.sum(), failures.sum(), inFlight.sum(), latency.snapshot());
+    }
+
+    private void finished(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+        inFlight.decrement();
+    }
+
+    /**
+     * Point-in-time view of the metrics of a command
+     */
+    public static class Snapshot {
+        private final String name;
+        private final long successes;
+        private final long failures;
+        private final long inFlight;
+        private final LatencySnapshot latency;
+
+        public Snapshot(String name, long successes, long failures, long inFlight, LatencySnapshot latency) {
+            this.name = name;
+            this.successes = successes;
+            this.failures = failures;
+            this.inFlight = inFlight;
+            this.latency = latency;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getInFlight() {
+            return inFlight;
+        }
+
+        public LatencySnapshot getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": successes=" + successes + ", failures=" + failures
+                    + ", in flight=" + inFlight + ", " + latency;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hse.finance.service.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of command metrics by command name
+ *
+ * The Spring bean is the shared instance returned by {@link #getDefault()}, so decorators created
+ * outside the container record into the same registry.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public CommandMetrics command(String name) {
+        CommandMetrics metrics = commands.get(name);
+        return metrics != null ? metrics : commands.computeIfAbsent(name, CommandMetrics::new);
+    }
+
+    /**
+     * Snapshots of all commands, ordered by name
+     */
+    public List<CommandMetrics.Snapshot> snapshot() {
+        List<CommandMetrics.Snapshot> snapshots = new ArrayList<>();
+        commands.values().forEach(metrics -> snapshots.add(metrics.snapshot()));
+        snapshots.sort(Comparator.comparing(CommandMetrics.Snapshot::getName));
+        return snapshots;
+    }
+}
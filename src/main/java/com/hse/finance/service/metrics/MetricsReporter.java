@@ -0,0 +1,62 @@
+package com.hse.finance.service.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the metrics of every executed command
+ *
+ * The interval is set with {@code finance.metrics.report-interval-seconds}, 0 disables reporting.
+ */
+@Component
+public class MetricsReporter {
+    private static final Logger log = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private final MetricsRegistry registry;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public MetricsReporter(MetricsRegistry registry,
+                           @Value("${finance.metrics.report-interval-seconds:60}") long intervalSeconds) {
+        this.registry = registry;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void report() {
+        for (CommandMetrics.Snapshot snapshot : registry.snapshot()) {
+            if (snapshot.getLatency().getCount() > 0 || snapshot.getInFlight() > 0) {
+                log.info("Command {}", snapshot);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
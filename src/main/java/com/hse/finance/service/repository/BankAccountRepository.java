@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Repository for bank account data
@@ -15,9 +16,18 @@ import java.util.concurrent.ConcurrentHashMap;
 @Repository
 public class BankAccountRepository {
     private final ConcurrentHashMap<UUID, BankAccount> accounts = new ConcurrentHashMap<>();
+    private final List<RepositoryListener<BankAccount>> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+
+    public void addListener(RepositoryListener<BankAccount> listener) {
+        listeners.add(listener);
+    }
 
     public void save(BankAccount account) {
-        accounts.put(account.getId(), account);
+        synchronized (writeLock) {
+            accounts.put(account.getId(), account);
+            listeners.forEach(listener -> listener.onSaved(account));
+        }
     }
 
     public Optional<BankAccount> findById(UUID id) {
@@ -29,10 +39,19 @@ public class BankAccountRepository {
     }
 
     public boolean deleteById(UUID id) {
-        return accounts.remove(id) != null;
+        synchronized (writeLock) {
+            if (accounts.remove(id) == null) {
+                return false;
+            }
+            listeners.forEach(listener -> listener.onDeleted(id));
+            return true;
+        }
     }
 
     public void clear() {
-        accounts.clear();
+        synchronized (writeLock) {
+            accounts.clear();
+            listeners.forEach(RepositoryListener::onCleared);
+        }
     }
 } 
\ No newline at end of file
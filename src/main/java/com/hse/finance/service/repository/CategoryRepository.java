@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -17,9 +18,18 @@ import java.util.stream.Collectors;
 @Repository
 public class CategoryRepository {
     private final ConcurrentHashMap<UUID, Category> categories = new ConcurrentHashMap<>();
+    private final List<RepositoryListener<Category>> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+
+    public void addListener(RepositoryListener<Category> listener) {
+        listeners.add(listener);
+    }
 
     public void save(Category category) {
-        categories.put(category.getId(), category);
+        synchronized (writeLock) {
+            categories.put(category.getId(), category);
+            listeners.forEach(listener -> listener.onSaved(category));
+        }
     }
 
     public Optional<Category> findById(UUID id) {
@@ -37,10 +47,19 @@ public class CategoryRepository {
     }
 
     public boolean deleteById(UUID id) {
-        return categories.remove(id) != null;
+        synchronized (writeLock) {
+            if (categories.remove(id) == null) {
+                return false;
+            }
+            listeners.forEach(listener -> listener.onDeleted(id));
+            return true;
+        }
     }
 
     public void clear() {
-        categories.clear();
+        synchronized (writeLock) {
+            categories.clear();
+            listeners.forEach(RepositoryListener::onCleared);
+        }
     }
 } 
\ No newline at end of file
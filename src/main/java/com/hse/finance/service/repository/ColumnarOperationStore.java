@@ -0,0 +1,628 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Operation store that keeps every field in its own primitive column.
+ *
+ * Amounts are stored as long cents, dates as epoch seconds plus nanos (UTC), types as a byte and
+ * account/category ids as dictionary-encoded ints, so a row costs a few dozen bytes instead of a
+ * graph of heap objects. Operations are materialized only when returned to callers, and the
+ * analytics sums run over the columns directly. Amounts must have at most two decimal places.
+ *
+ * Rows are appended; deletes only mark the row and the columns are compacted once more than half
+ * of the rows are dead. While rows are appended in date order (the usual case, operations are
+ * dated at creation) date range queries binary search the date column. Per account and per
+ * category posting lists of row numbers let lookups and cascade deletes touch only the owner's rows.
+ */
+class ColumnarOperationStore implements OperationStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_ROWS_TO_COMPACT = 1024;
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final UuidDictionary accounts = new UuidDictionary();
+    private final UuidDictionary categories = new UuidDictionary();
+    private final RowIndex rowIndex = new RowIndex();
+    private final RowPostings accountRows = new RowPostings();
+    private final RowPostings categoryRows = new RowPostings();
+    private final BitSet deleted = new BitSet();
+
+    private long[] idMostBits = new long[INITIAL_CAPACITY];
+    private long[] idLeastBits = new long[INITIAL_CAPACITY];
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private int[] nanos = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] accountCodes = new int[INITIAL_CAPACITY];
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+
+    private int rows;
+    private int deletedRows;
+    private boolean dateOrdered = true;
+
+    @Override
+    public void save(Operation operation) {
+        long cents = validate(operation);
+
+        lock.writeLock().lock();
+        try {
+            write(operation, cents);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Operation> batch) {
+        long[] cents = new long[batch.size()];
+        int i = 0;
+        for (Operation operation : batch) {
+            cents[i++] = validate(operation);
+        }
+
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(rows + batch.size());
+            i = 0;
+            for (Operation operation : batch) {
+                write(operation, cents[i++]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks the fields the columns cannot represent and returns the amount in cents
+     */
+    private static long validate(Operation operation) {
+        if (operation.getId() == null) {
+            throw new IllegalArgumentException("Operation id cannot be null");
+        }
+        if (operation.getType() == null || operation.getDate() == null || !operation.hasAmount()
+                || operation.getBankAccountId() == null || operation.getCategoryId() == null) {
+            throw new IllegalArgumentException("Columnar storage requires all operation fields except description");
+        }
+        return operation.getAmountCents();
+    }
+
+    private void write(Operation operation, long cents) {
+        UUID id = operation.getId();
+        int accountCode = accounts.encode(operation.getBankAccountId());
+        int categoryCode = categories.encode(operation.getCategoryId());
+        int row = liveRow(id);
+        if (row < 0) {
+            row = rows;
+            ensureCapacity(row + 1);
+            rows++;
+            idMostBits[row] = id.getMostSignificantBits();
+            idLeastBits[row] = id.getLeastSignificantBits();
+            rowIndex.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), row);
+            accountRows.add(accountCode, row);
+            categoryRows.add(categoryCode, row);
+        } else {
+            accountRows.move(accountCodes[row], accountCode, row);
+            categoryRows.move(categoryCodes[row], categoryCode, row);
+        }
+
+        amountCents[row] = cents;
+        epochSeconds[row] = operation.getDate().toEpochSecond(ZoneOffset.UTC);
+        nanos[row] = operation.getDate().getNano();
+        types[row] = (byte) operation.getType().ordinal();
+        accountCodes[row] = accountCode;
+        categoryCodes[row] = categoryCode;
+        descriptions[row] = operation.getDescription();
+
+        if (dateOrdered && ((row > 0 && compareDate(row - 1, epochSeconds[row], nanos[row]) > 0)
+                || (row + 1 < rows && compareDate(row + 1, epochSeconds[row], nanos[row]) < 0))) {
+            dateOrdered = false;
+        }
+    }
+
+    @Override
+    public Optional<Operation> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            int row = liveRow(id);
+            return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Operation> result = new ArrayList<>(rows - deletedRows);
+            for (int row = 0; row < rows; row++) {
+                if (!deleted.get(row)) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> findByBankAccountId(UUID bankAccountId) {
+        lock.readLock().lock();
+        try {
+            return findByCode(accountRows, accounts.find(bankAccountId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> findByCategoryId(UUID categoryId) {
+        lock.readLock().lock();
+        try {
+            return findByCode(categoryRows, categories.find(categoryId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> findByType(OperationType type) {
+        lock.readLock().lock();
+        try {
+            List<Operation> result = new ArrayList<>();
+            byte code = (byte) type.ordinal();
+            for (int row = 0; row < rows; row++) {
+                if (types[row] == code && !deleted.get(row)) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> findByDateBetween(LocalDateTime start, LocalDateTime end) {
+        List<Operation> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            scanDates(start, end, row -> result.add(materialize(row)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public BigDecimal balanceDifference(LocalDateTime start, LocalDateTime end) {
+        long[] difference = new long[1];
+        byte income = (byte) OperationType.INCOME.ordinal();
+        lock.readLock().lock();
+        try {
+            scanDates(start, end, row -> difference[0] = types[row] == income
+                    ? Money.add(difference[0], amountCents[row])
+                    : Money.subtract(difference[0], amountCents[row]));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Money.toBigDecimal(difference[0]);
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> sumByCategory(LocalDateTime start, LocalDateTime end, OperationType type) {
+        Map<UUID, BigDecimal> result = new HashMap<>();
+        int typeCode = type == null ? -1 : type.ordinal();
+        lock.readLock().lock();
+        try {
+            long[] sums = new long[categories.size()];
+            BitSet seen = new BitSet(sums.length);
+            scanDates(start, end, row -> {
+                if (typeCode < 0 || types[row] == typeCode) {
+                    int category = categoryCodes[row];
+                    sums[category] = Money.add(sums[category], amountCents[row]);
+                    seen.set(category);
+                }
+            });
+            for (int category = seen.nextSetBit(0); category >= 0; category = seen.nextSetBit(category + 1)) {
+                result.put(categories.decode(category), Money.toBigDecimal(sums[category]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        lock.writeLock().lock();
+        try {
+            int row = liveRow(id);
+            if (row < 0) {
+                return false;
+            }
+            markDeleted(row);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> deleteByBankAccountId(UUID bankAccountId) {
+        return deleteByCode(accountRows, accounts, bankAccountId);
+    }
+
+    @Override
+    public List<Operation> deleteByCategoryId(UUID categoryId) {
+        return deleteByCode(categoryRows, categories, categoryId);
+    }
+
+    @Override
+    public boolean isDateSeekable() {
+        lock.readLock().lock();
+        try {
+            return dateOrdered;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(descriptions, 0, rows, null);
+            rows = 0;
+            deletedRows = 0;
+            deleted.clear();
+            dateOrdered = true;
+            rowIndex.clear();
+            accountRows.clear();
+            categoryRows.clear();
+            accounts.clear();
+            categories.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live operations
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return rows - deletedRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Operation> findByCode(RowPostings postings, int code) {
+        List<Operation> result = new ArrayList<>();
+        if (code < 0) {
+            return result;
+        }
+        int[] owned = postings.rows(code);
+        for (int i = 0, size = postings.size(code); i < size; i++) {
+            if (!deleted.get(owned[i])) {
+                result.add(materialize(owned[i]));
+            }
+        }
+        return result;
+    }
+
+    private List<Operation> deleteByCode(RowPostings postings, UuidDictionary dictionary, UUID id) {
+        List<Operation> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            int code = dictionary.find(id);
+            if (code < 0) {
+                return removed;
+            }
+            int[] owned = postings.rows(code);
+            for (int i = 0, size = postings.size(code); i < size; i++) {
+                int row = owned[i];
+                if (!deleted.get(row)) {
+                    removed.add(materialize(row));
+                    markDeleted(row);
+                }
+            }
+            postings.reset(code);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Calls the consumer for every live row dated within [start, end]. Caller holds a lock.
+     */
+    private void scanDates(LocalDateTime start, LocalDateTime end, RowConsumer consumer) {
+        if (start.isAfter(end)) {
+            return;
+        }
+        long startSeconds = start.toEpochSecond(ZoneOffset.UTC);
+        int startNanos = start.getNano();
+        long endSeconds = end.toEpochSecond(ZoneOffset.UTC);
+        int endNanos = end.getNano();
+
+        if (dateOrdered) {
+            for (int row = firstRowNotBefore(startSeconds, startNanos);
+                 row < rows && compareDate(row, endSeconds, endNanos) <= 0; row++) {
+                if (!deleted.get(row)) {
+                    consumer.accept(row);
+                }
+            }
+            return;
+        }
+
+        for (int row = 0; row < rows; row++) {
+            if (compareDate(row, startSeconds, startNanos) >= 0 && compareDate(row, endSeconds, endNanos) <= 0
+                    && !deleted.get(row)) {
+                consumer.accept(row);
+            }
+        }
+    }
+
+    private int firstRowNotBefore(long seconds, int nano) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareDate(mid, seconds, nano) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareDate(int row, long seconds, int nano) {
+        int bySeconds = Long.compare(epochSeconds[row], seconds);
+        return bySeconds != 0 ? bySeconds : Integer.compare(nanos[row], nano);
+    }
+
+    private int liveRow(UUID id) {
+        int row = rowIndex.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return row >= 0 && !deleted.get(row) ? row : -1;
+    }
+
+    private void markDeleted(int row) {
+        deleted.set(row);
+        descriptions[row] = null;
+        deletedRows++;
+    }
+
+    private Operation materialize(int row) {
+        return Operation.builder()
+                .id(new UUID(idMostBits[row], idLeastBits[row]))
+                .type(TYPES[types[row]])
+                .bankAccountId(accounts.decode(accountCodes[row]))
+                .amountCents(amountCents[row])
+                .date(LocalDateTime.ofEpochSecond(epochSeconds[row], nanos[row], ZoneOffset.UTC))
+                .categoryId(categories.decode(categoryCodes[row]))
+                .description(descriptions[row])
+                .build();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= idMostBits.length) {
+            return;
+        }
+        resize(Math.max(capacity, idMostBits.length * 2));
+    }
+
+    private void resize(int capacity) {
+        idMostBits = Arrays.copyOf(idMostBits, capacity);
+        idLeastBits = Arrays.copyOf(idLeastBits, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        nanos = Arrays.copyOf(nanos, capacity);
+        types = Arrays.copyOf(types, capacity);
+        accountCodes = Arrays.copyOf(accountCodes, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    /**
+     * Moves live rows to the front of the columns once more than half of the rows are deleted.
+     * Rechecks the date order, which the removed rows may have been the only ones to break.
+     */
+    private void compactIfNeeded() {
+        if (deletedRows < MIN_ROWS_TO_COMPACT || deletedRows * 2 < rows) {
+            return;
+        }
+
+        rowIndex.clear();
+        accountRows.clear();
+        categoryRows.clear();
+        dateOrdered = true;
+        int target = 0;
+        for (int row = 0; row < rows; row++) {
+            if (deleted.get(row)) {
+                continue;
+            }
+            if (dateOrdered && target > 0 && compareDate(target - 1, epochSeconds[row], nanos[row]) > 0) {
+                dateOrdered = false;
+            }
+            idMostBits[target] = idMostBits[row];
+            idLeastBits[target] = idLeastBits[row];
+            amountCents[target] = amountCents[row];
+            epochSeconds[target] = epochSeconds[row];
+            nanos[target] = nanos[row];
+            types[target] = types[row];
+            accountCodes[target] = accountCodes[row];
+            categoryCodes[target] = categoryCodes[row];
+            descriptions[target] = descriptions[row];
+            rowIndex.put(idMostBits[target], idLeastBits[target], target);
+            accountRows.add(accountCodes[target], target);
+            categoryRows.add(categoryCodes[target], target);
+            target++;
+        }
+        Arrays.fill(descriptions, target, rows, null);
+        rows = target;
+        deletedRows = 0;
+        deleted.clear();
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(int row);
+    }
+
+    /**
+     * Row numbers per dictionary code. Rows of deleted operations stay listed and are skipped
+     * by readers until the columns are compacted, which rebuilds the lists.
+     */
+    private static final class RowPostings {
+        private static final int[] EMPTY = new int[0];
+
+        private int[][] rows = new int[16][];
+        private int[] sizes = new int[16];
+
+        void add(int code, int row) {
+            if (code >= rows.length) {
+                int capacity = Math.max(code + 1, rows.length * 2);
+                rows = Arrays.copyOf(rows, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            int[] owned = rows[code];
+            if (owned == null) {
+                owned = rows[code] = new int[4];
+            } else if (sizes[code] == owned.length) {
+                owned = rows[code] = Arrays.copyOf(owned, owned.length * 2);
+            }
+            owned[sizes[code]++] = row;
+        }
+
+        /**
+         * Moves a rewritten row to another code; rare, so the old list is searched linearly
+         */
+        void move(int from, int to, int row) {
+            if (from == to) {
+                return;
+            }
+            int[] owned = rows[from];
+            int size = sizes[from];
+            for (int i = 0; i < size; i++) {
+                if (owned[i] == row) {
+                    System.arraycopy(owned, i + 1, owned, i, size - i - 1);
+                    sizes[from]--;
+                    break;
+                }
+            }
+            add(to, row);
+        }
+
+        int[] rows(int code) {
+            return code < rows.length && rows[code] != null ? rows[code] : EMPTY;
+        }
+
+        int size(int code) {
+            return code < sizes.length ? sizes[code] : 0;
+        }
+
+        void reset(int code) {
+            if (code < rows.length) {
+                rows[code] = null;
+                sizes[code] = 0;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(rows, null);
+            Arrays.fill(sizes, 0);
+        }
+    }
+
+    /**
+     * Open-addressing hash map from a 128-bit id to its row, without boxing.
+     * Entries of deleted rows are left in place and dropped when the columns are compacted.
+     */
+    private static final class RowIndex {
+        private long[] mostBits = new long[INITIAL_CAPACITY * 2];
+        private long[] leastBits = new long[INITIAL_CAPACITY * 2];
+        // row + 1, so that 0 marks an empty slot
+        private int[] slots = new int[INITIAL_CAPACITY * 2];
+        private int size;
+
+        int get(long most, long least) {
+            int mask = slots.length - 1;
+            for (int slot = hash(most, least) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (mostBits[slot] == most && leastBits[slot] == least) {
+                    return slots[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long most, long least, int row) {
+            if ((size + 1) * 2 > slots.length) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            int slot = hash(most, least) & mask;
+            while (slots[slot] != 0) {
+                if (mostBits[slot] == most && leastBits[slot] == least) {
+                    slots[slot] = row + 1;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            mostBits[slot] = most;
+            leastBits[slot] = least;
+            slots[slot] = row + 1;
+            size++;
+        }
+
+        void clear() {
+            Arrays.fill(slots, 0);
+            size = 0;
+        }
+
+        private void grow() {
+            long[] oldMost = mostBits;
+            long[] oldLeast = leastBits;
+            int[] oldSlots = slots;
+            mostBits = new long[oldSlots.length * 2];
+            leastBits = new long[oldSlots.length * 2];
+            slots = new int[oldSlots.length * 2];
+            size = 0;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != 0) {
+                    put(oldMost[i], oldLeast[i], oldSlots[i] - 1);
+                }
+            }
+        }
+
+        private static int hash(long most, long least) {
+            long h = most * 0x9E3779B97F4A7C15L ^ least;
+            h ^= h >>> 32;
+            return (int) (h ^ (h >>> 16));
+        }
+    }
+}
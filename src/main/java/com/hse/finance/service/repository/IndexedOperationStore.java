@@ -0,0 +1,203 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap-backed operation store with secondary indexes.
+ *
+ * Besides the primary map the store maintains posting lists by bank account, category and type
+ * plus a date index, so lookups cost O(result size) (O(log N + k) for date ranges) instead of a
+ * full scan. Writes are serialized so the indexes always agree with the primary map; reads are lock-free.
+ */
+class IndexedOperationStore implements OperationStore {
+    private final ConcurrentHashMap<UUID, Operation> operations = new ConcurrentHashMap<>();
+
+    // Index keys captured at save time, so a mutated operation can still be unindexed correctly
+    private final ConcurrentHashMap<UUID, IndexKey> indexKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Map<UUID, Operation>> accountIndex = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Map<UUID, Operation>> categoryIndex = new ConcurrentHashMap<>();
+    private final Map<OperationType, Map<UUID, Operation>> typeIndex = new EnumMap<>(OperationType.class);
+    private final OperationDateIndex dateIndex;
+
+    private final Object writeLock = new Object();
+
+    IndexedOperationStore(OperationDateIndex dateIndex) {
+        this.dateIndex = dateIndex;
+        for (OperationType type : OperationType.values()) {
+            typeIndex.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void save(Operation operation) {
+        synchronized (writeLock) {
+            write(operation);
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Operation> batch) {
+        synchronized (writeLock) {
+            batch.forEach(this::write);
+        }
+    }
+
+    private void write(Operation operation) {
+        Operation previous = operations.put(operation.getId(), operation);
+        if (previous != null) {
+            unindex(operation.getId());
+        }
+        index(operation);
+    }
+
+    @Override
+    public Optional<Operation> findById(UUID id) {
+        return Optional.ofNullable(operations.get(id));
+    }
+
+    @Override
+    public List<Operation> findAll() {
+        return new ArrayList<>(operations.values());
+    }
+
+    @Override
+    public List<Operation> findByBankAccountId(UUID bankAccountId) {
+        return postingList(accountIndex.get(bankAccountId));
+    }
+
+    @Override
+    public List<Operation> findByCategoryId(UUID categoryId) {
+        return postingList(categoryIndex.get(categoryId));
+    }
+
+    @Override
+    public List<Operation> findByType(OperationType type) {
+        return postingList(typeIndex.get(type));
+    }
+
+    @Override
+    public List<Operation> findByDateBetween(LocalDateTime start, LocalDateTime end) {
+        return dateIndex.findBetween(start, end);
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        synchronized (writeLock) {
+            if (operations.remove(id) == null) {
+                return false;
+            }
+            unindex(id);
+            return true;
+        }
+    }
+
+    @Override
+    public List<Operation> deleteByBankAccountId(UUID bankAccountId) {
+        synchronized (writeLock) {
+            return deleteAll(accountIndex.get(bankAccountId));
+        }
+    }
+
+    @Override
+    public List<Operation> deleteByCategoryId(UUID categoryId) {
+        synchronized (writeLock) {
+            return deleteAll(categoryIndex.get(categoryId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            operations.clear();
+            indexKeys.clear();
+            accountIndex.clear();
+            categoryIndex.clear();
+            typeIndex.values().forEach(Map::clear);
+            dateIndex.clear();
+        }
+    }
+
+    private List<Operation> deleteAll(Map<UUID, Operation> postings) {
+        if (postings == null) {
+            return new ArrayList<>();
+        }
+        // Copy first: unindexing mutates the posting list we are iterating
+        List<Operation> removed = new ArrayList<>(postings.values());
+        for (Operation operation : removed) {
+            operations.remove(operation.getId());
+            unindex(operation.getId());
+        }
+        return removed;
+    }
+
+    private void index(Operation operation) {
+        IndexKey key = new IndexKey(operation.getBankAccountId(), operation.getCategoryId(),
+                operation.getType(), operation.getDate());
+        indexKeys.put(operation.getId(), key);
+
+        addPosting(accountIndex, key.bankAccountId(), operation);
+        addPosting(categoryIndex, key.categoryId(), operation);
+        if (key.type() != null) {
+            typeIndex.get(key.type()).put(operation.getId(), operation);
+        }
+        if (key.date() != null) {
+            dateIndex.add(operation, key.date());
+        }
+    }
+
+    private void unindex(UUID id) {
+        IndexKey key = indexKeys.remove(id);
+        if (key == null) {
+            return;
+        }
+
+        removePosting(accountIndex, key.bankAccountId(), id);
+        removePosting(categoryIndex, key.categoryId(), id);
+        if (key.type() != null) {
+            typeIndex.get(key.type()).remove(id);
+        }
+        if (key.date() != null) {
+            dateIndex.remove(id, key.date());
+        }
+    }
+
+    private static <K> void addPosting(Map<K, Map<UUID, Operation>> index, K key, Operation operation) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(operation.getId(), operation);
+        }
+    }
+
+    private static <K> void removePosting(Map<K, Map<UUID, Operation>> index, K key, UUID id) {
+        if (key == null) {
+            return;
+        }
+        Map<UUID, Operation> postings = index.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static List<Operation> postingList(Map<UUID, Operation> postings) {
+        return postings == null ? new ArrayList<>() : new ArrayList<>(postings.values());
+    }
+
+    /**
+     * Snapshot of the indexed fields of an operation at the moment it was saved
+     */
+    private record IndexKey(UUID bankAccountId, UUID categoryId, OperationType type, LocalDateTime date) {
+    }
+}
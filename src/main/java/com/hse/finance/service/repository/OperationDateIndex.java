@@ -0,0 +1,24 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Date index used by OperationRepository to answer date range queries.
+ * Implementations are mutated only under the repository write lock, but must tolerate concurrent readers.
+ */
+interface OperationDateIndex {
+    void add(Operation operation, LocalDateTime date);
+
+    void remove(UUID operationId, LocalDateTime date);
+
+    /**
+     * Returns operations whose indexed date lies within [start, end], both inclusive
+     */
+    List<Operation> findBetween(LocalDateTime start, LocalDateTime end);
+
+    void clear();
+}
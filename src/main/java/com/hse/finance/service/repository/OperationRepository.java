@@ -2,72 +2,218 @@ package com.hse.finance.service.repository;
 
 import com.hse.finance.model.Operation;
 import com.hse.finance.model.OperationType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Repository for operation data
+ *
+ * The storage backend is selected with {@code finance.operations.storage}:
+ * <ul>
+ *     <li>{@code indexed} (default) - heap objects with secondary indexes and a skip-list date index</li>
+ *     <li>{@code partitioned} - same indexes, but the date index is split into time buckets of
+ *     {@code finance.operations.partition-unit} (DAYS, WEEKS, MONTHS or YEARS) and old buckets are sealed</li>
+ *     <li>{@code columnar} - primitive column arrays, operations are materialized on demand</li>
+ * </ul>
+ *
+ * Writes and their listener notifications run under one write lock, so listeners see the changes
+ * in the order the store applied them. Reads do not take it. Saving over a stored id is reported
+ * to the listeners as {@link RepositoryListener#onReplaced} with the stored version.
  */
 @Repository
 public class OperationRepository {
-    private final ConcurrentHashMap<UUID, Operation> operations = new ConcurrentHashMap<>();
+    private final OperationStore store;
+    private final List<RepositoryListener<Operation>> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+
+    public OperationRepository() {
+        this(new IndexedOperationStore(new SkipListOperationDateIndex()));
+    }
+
+    @Autowired
+    public OperationRepository(@Value("${finance.operations.storage:indexed}") String storage,
+                               @Value("${finance.operations.partition-unit:MONTHS}") ChronoUnit partitionUnit) {
+        this(createStore(storage, partitionUnit));
+    }
+
+    public OperationRepository(OperationStore store) {
+        this.store = store;
+    }
+
+    public void addListener(RepositoryListener<Operation> listener) {
+        listeners.add(listener);
+    }
 
     public void save(Operation operation) {
-        operations.put(operation.getId(), operation);
+        synchronized (writeLock) {
+            listeners.forEach(listener -> listener.beforeSaved(operation));
+            Operation previous = listeners.isEmpty() ? null : previousVersion(operation);
+            store.save(operation);
+            notifySaved(previous, operation);
+        }
+    }
+
+    /**
+     * Saves a batch of operations in one store write
+     */
+    public void saveAll(Collection<Operation> operations) {
+        synchronized (writeLock) {
+            if (listeners.isEmpty()) {
+                store.saveAll(operations);
+                return;
+            }
+            Operation[] previous = new Operation[operations.size()];
+            int i = 0;
+            for (Operation operation : operations) {
+                listeners.forEach(listener -> listener.beforeSaved(operation));
+                previous[i++] = previousVersion(operation);
+            }
+            store.saveAll(operations);
+            i = 0;
+            for (Operation operation : operations) {
+                notifySaved(previous[i++], operation);
+            }
+        }
     }
 
     public Optional<Operation> findById(UUID id) {
-        return Optional.ofNullable(operations.get(id));
+        return store.findById(id);
     }
 
     public List<Operation> findAll() {
-        return new ArrayList<>(operations.values());
+        return store.findAll();
     }
 
     public List<Operation> findByBankAccountId(UUID bankAccountId) {
-        return operations.values().stream()
-                .filter(operation -> operation.getBankAccountId().equals(bankAccountId))
-                .collect(Collectors.toList());
+        return store.findByBankAccountId(bankAccountId);
     }
 
     public List<Operation> findByCategoryId(UUID categoryId) {
-        return operations.values().stream()
-                .filter(operation -> operation.getCategoryId().equals(categoryId))
-                .collect(Collectors.toList());
+        return store.findByCategoryId(categoryId);
     }
 
     public List<Operation> findByType(OperationType type) {
-        return operations.values().stream()
-                .filter(operation -> operation.getType() == type)
-                .collect(Collectors.toList());
+        return store.findByType(type);
     }
 
     public List<Operation> findByDateBetween(LocalDateTime start, LocalDateTime end) {
-        return operations.values().stream()
-                .filter(operation -> !operation.getDate().isBefore(start) && !operation.getDate().isAfter(end))
-                .collect(Collectors.toList());
+        return store.findByDateBetween(start, end);
+    }
+
+    /**
+     * Income minus expenses of the operations dated within [start, end]
+     */
+    public BigDecimal balanceDifference(LocalDateTime start, LocalDateTime end) {
+        return store.balanceDifference(start, end);
+    }
+
+    /**
+     * Sum of amounts per category of the operations dated within [start, end], optionally of one type only
+     */
+    public Map<UUID, BigDecimal> sumByCategory(LocalDateTime start, LocalDateTime end, OperationType type) {
+        return store.sumByCategory(start, end, type);
+    }
+
+    /**
+     * Whether date range queries touch only the matching operations, see {@link OperationStore#isDateSeekable()}
+     */
+    public boolean isDateSeekable() {
+        return store.isDateSeekable();
     }
 
     public boolean deleteById(UUID id) {
-        return operations.remove(id) != null;
+        synchronized (writeLock) {
+            if (!listeners.isEmpty()) {
+                store.findById(id).ifPresent(this::beforeDeleted);
+            }
+            if (!store.deleteById(id)) {
+                return false;
+            }
+            listeners.forEach(listener -> listener.onDeleted(id));
+            return true;
+        }
     }
 
-    public void deleteByBankAccountId(UUID bankAccountId) {
-        operations.values().removeIf(operation -> operation.getBankAccountId().equals(bankAccountId));
+    /**
+     * Deletes all operations of the account and returns them
+     */
+    public List<Operation> deleteByBankAccountId(UUID bankAccountId) {
+        synchronized (writeLock) {
+            if (!listeners.isEmpty()) {
+                store.findByBankAccountId(bankAccountId).forEach(this::beforeDeleted);
+            }
+            return notifyDeleted(store.deleteByBankAccountId(bankAccountId));
+        }
     }
 
-    public void deleteByCategoryId(UUID categoryId) {
-        operations.values().removeIf(operation -> operation.getCategoryId().equals(categoryId));
+    /**
+     * Deletes all operations of the category and returns them
+     */
+    public List<Operation> deleteByCategoryId(UUID categoryId) {
+        synchronized (writeLock) {
+            if (!listeners.isEmpty()) {
+                store.findByCategoryId(categoryId).forEach(this::beforeDeleted);
+            }
+            return notifyDeleted(store.deleteByCategoryId(categoryId));
+        }
     }
 
     public void clear() {
-        operations.clear();
+        synchronized (writeLock) {
+            store.clear();
+            listeners.forEach(RepositoryListener::onCleared);
+        }
+    }
+
+    /**
+     * The stored operation the given one replaces, null for a new id
+     */
+    private Operation previousVersion(Operation operation) {
+        return operation.getId() == null ? null : store.findById(operation.getId()).orElse(null);
+    }
+
+    private void notifySaved(Operation previous, Operation operation) {
+        if (previous == null) {
+            listeners.forEach(listener -> listener.onSaved(operation));
+        } else {
+            listeners.forEach(listener -> listener.onReplaced(previous, operation));
+        }
+    }
+
+    private void beforeDeleted(Operation operation) {
+        listeners.forEach(listener -> listener.beforeDeleted(operation));
+    }
+
+    private List<Operation> notifyDeleted(List<Operation> removed) {
+        if (!listeners.isEmpty()) {
+            for (Operation operation : removed) {
+                listeners.forEach(listener -> listener.onDeleted(operation.getId()));
+            }
+        }
+        return removed;
+    }
+
+    private static OperationStore createStore(String storage, ChronoUnit partitionUnit) {
+        switch (storage) {
+            case "indexed":
+                return new IndexedOperationStore(new SkipListOperationDateIndex());
+            case "partitioned":
+                return new IndexedOperationStore(new PartitionedOperationDateIndex(partitionUnit));
+            case "columnar":
+                return new ColumnarOperationStore();
+            default:
+                throw new IllegalArgumentException("Unknown operation storage: " + storage);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage backend behind OperationRepository
+ */
+public interface OperationStore {
+    void save(Operation operation);
+
+    /**
+     * Saves several operations; backends override it to take their write lock once
+     */
+    default void saveAll(Collection<Operation> operations) {
+        operations.forEach(this::save);
+    }
+
+    Optional<Operation> findById(UUID id);
+
+    List<Operation> findAll();
+
+    List<Operation> findByBankAccountId(UUID bankAccountId);
+
+    List<Operation> findByCategoryId(UUID categoryId);
+
+    List<Operation> findByType(OperationType type);
+
+    List<Operation> findByDateBetween(LocalDateTime start, LocalDateTime end);
+
+    boolean deleteById(UUID id);
+
+    /**
+     * Deletes all operations of the account and returns them
+     */
+    List<Operation> deleteByBankAccountId(UUID bankAccountId);
+
+    /**
+     * Deletes all operations of the category and returns them
+     */
+    List<Operation> deleteByCategoryId(UUID categoryId);
+
+    void clear();
+
+    /**
+     * Whether a date range query costs about as much as the operations it matches. False when every
+     * query scans all rows, so splitting a period into several queries only multiplies the work.
+     */
+    default boolean isDateSeekable() {
+        return true;
+    }
+
+    /**
+     * Income minus expenses of the operations dated within [start, end], summed in cents.
+     * Backends with a more compact layout can override the default scan.
+     */
+    default BigDecimal balanceDifference(LocalDateTime start, LocalDateTime end) {
+        long difference = 0;
+        for (Operation operation : findByDateBetween(start, end)) {
+            difference = operation.getType() == OperationType.INCOME
+                    ? Money.add(difference, operation.getAmountCents())
+                    : Money.subtract(difference, operation.getAmountCents());
+        }
+        return Money.toBigDecimal(difference);
+    }
+
+    /**
+     * Sum of amounts per category of the operations dated within [start, end], summed in cents.
+     * When {@code type} is null operations of both types are summed.
+     */
+    default Map<UUID, BigDecimal> sumByCategory(LocalDateTime start, LocalDateTime end, OperationType type) {
+        Map<UUID, long[]> sums = new HashMap<>();
+        for (Operation operation : findByDateBetween(start, end)) {
+            if (type == null || operation.getType() == type) {
+                long[] sum = sums.computeIfAbsent(operation.getCategoryId(), categoryId -> new long[1]);
+                sum[0] = Money.add(sum[0], operation.getAmountCents());
+            }
+        }
+        Map<UUID, BigDecimal> result = new HashMap<>(sums.size() * 2);
+        sums.forEach((categoryId, sum) -> result.put(categoryId, Money.toBigDecimal(sum[0])));
+        return result;
+    }
+}
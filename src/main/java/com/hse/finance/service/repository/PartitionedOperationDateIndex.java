@@ -0,0 +1,247 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Date index that splits operations into time buckets (day, week, month or year).
+ *
+ * A range query only visits the buckets overlapping the range. When the clock rolls over into a
+ * new bucket, the writing thread seals the older buckets into immutable arrays sorted by date, so
+ * analytics over past periods scan plain arrays and binary search the boundaries; queries never
+ * seal and never lock. Late writes to a sealed bucket go to a small delta next to the array, which
+ * is folded into a new array once it outgrows a fraction of it, so each write costs amortized
+ * O(log n) instead of copying the bucket.
+ */
+class PartitionedOperationDateIndex implements OperationDateIndex {
+    private static final Comparator<Operation> BY_DATE = Comparator.comparing(Operation::getDate);
+    private static final Operation[] EMPTY = new Operation[0];
+    /** A past bucket is resealed once its delta exceeds max(MIN_DELTA, sealed size / DELTA_DIVISOR) */
+    private static final int MIN_DELTA = 256;
+    private static final int DELTA_DIVISOR = 4;
+
+    private final ChronoUnit unit;
+    private final Clock clock;
+    private final ConcurrentSkipListMap<LocalDateTime, Partition> partitions = new ConcurrentSkipListMap<>();
+    private volatile LocalDateTime currentStart;
+
+    PartitionedOperationDateIndex(ChronoUnit unit) {
+        this(unit, Clock.systemDefaultZone());
+    }
+
+    PartitionedOperationDateIndex(ChronoUnit unit, Clock clock) {
+        if (unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS
+                && unit != ChronoUnit.MONTHS && unit != ChronoUnit.YEARS) {
+            throw new IllegalArgumentException("Unsupported partition unit: " + unit);
+        }
+        this.unit = unit;
+        this.clock = clock;
+    }
+
+    @Override
+    public void add(Operation operation, LocalDateTime date) {
+        LocalDateTime current = rollOver();
+        LocalDateTime start = partitionStart(date);
+        partitions.computeIfAbsent(start, Partition::new).add(operation, start.isBefore(current));
+    }
+
+    @Override
+    public void remove(UUID operationId, LocalDateTime date) {
+        Partition partition = partitions.get(partitionStart(date));
+        if (partition != null && partition.remove(operationId) == 0) {
+            partitions.remove(partition.start, partition);
+        }
+    }
+
+    @Override
+    public List<Operation> findBetween(LocalDateTime start, LocalDateTime end) {
+        List<Operation> result = new ArrayList<>();
+        if (start.isAfter(end)) {
+            return result;
+        }
+        for (Partition partition : partitions.subMap(partitionStart(start), true, end, true).values()) {
+            partition.collect(start, end, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        partitions.clear();
+    }
+
+    /**
+     * Seals every bucket that ends before the given moment. Buckets are sealed when the clock moves
+     * into a new bucket; this is useful right after a bulk load of historical data.
+     */
+    void sealPartitionsBefore(LocalDateTime moment) {
+        for (Partition partition : partitions.headMap(partitionStart(moment), false).values()) {
+            partition.seal();
+        }
+    }
+
+    int partitionCount() {
+        return partitions.size();
+    }
+
+    LocalDateTime partitionStart(LocalDateTime date) {
+        LocalDateTime day = date.truncatedTo(ChronoUnit.DAYS);
+        switch (unit) {
+            case DAYS:
+                return day;
+            case WEEKS:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHS:
+                return day.withDayOfMonth(1);
+            default:
+                return day.withDayOfYear(1);
+        }
+    }
+
+    /**
+     * Start of the current bucket; the first write after the clock enters a new bucket seals the older ones
+     */
+    private LocalDateTime rollOver() {
+        LocalDateTime current = partitionStart(LocalDateTime.now(clock));
+        LocalDateTime previous = currentStart;
+        if (!current.equals(previous)) {
+            synchronized (this) {
+                if (!current.equals(currentStart)) {
+                    currentStart = current;
+                    sealPartitionsBefore(current);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Contents of a bucket: a date-sorted array plus the changes made since it was sealed.
+     * The array never changes; the delta and the removed ids only change under the partition monitor.
+     */
+    private record State(Operation[] sealed, Map<UUID, Operation> delta, Set<UUID> removed) {
+        static State of(Operation[] sealed) {
+            return new State(sealed, new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * A single time bucket. Mutations are guarded by the partition monitor, reads are lock-free.
+     * A bucket that has never been sealed keeps everything in the delta.
+     */
+    private final class Partition {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private volatile State state = State.of(EMPTY);
+
+        private Partition(LocalDateTime start) {
+            this.start = start;
+            this.end = start.plus(1, unit);
+        }
+
+        synchronized void add(Operation operation, boolean past) {
+            State current = state;
+            current.delta.put(operation.getId(), operation);
+            if (past && current.delta.size() + current.removed.size() > deltaLimit(current)) {
+                seal();
+            }
+        }
+
+        synchronized int remove(UUID operationId) {
+            State current = state;
+            if (current.delta.remove(operationId) == null && current.sealed.length > 0) {
+                current.removed.add(operationId);
+            }
+            int size = current.sealed.length - current.removed.size() + current.delta.size();
+            if (size > 0 && current.removed.size() > deltaLimit(current)) {
+                seal();
+            }
+            return size;
+        }
+
+        /**
+         * Folds the delta and the removed ids into a new sorted array
+         */
+        synchronized void seal() {
+            State current = state;
+            if (current.delta.isEmpty() && current.removed.isEmpty()) {
+                return;
+            }
+            List<Operation> operations = new ArrayList<>(current.sealed.length + current.delta.size());
+            for (Operation operation : current.sealed) {
+                if (!current.removed.contains(operation.getId())) {
+                    operations.add(operation);
+                }
+            }
+            operations.addAll(current.delta.values());
+            Operation[] sorted = operations.toArray(EMPTY);
+            Arrays.sort(sorted, BY_DATE);
+            // Readers holding the old state keep seeing a consistent bucket
+            state = State.of(sorted);
+        }
+
+        private int deltaLimit(State current) {
+            return Math.max(MIN_DELTA, current.sealed.length / DELTA_DIVISOR);
+        }
+
+        void collect(LocalDateTime from, LocalDateTime to, List<Operation> result) {
+            State current = state;
+            boolean covered = !from.isAfter(start) && !to.isBefore(end.minusNanos(1));
+
+            List<Operation> late = new ArrayList<>();
+            for (Operation operation : current.delta.values()) {
+                if (covered || (!operation.getDate().isBefore(from) && !operation.getDate().isAfter(to))) {
+                    late.add(operation);
+                }
+            }
+            Operation[] array = current.sealed;
+            if (array.length == 0) {
+                result.addAll(late);
+                return;
+            }
+
+            // Merge the sorted array slice with the few late writes, keeping date order
+            late.sort(BY_DATE);
+            int next = 0;
+            for (int i = covered ? 0 : firstNotBefore(array, from);
+                 i < array.length && !array[i].getDate().isAfter(to); i++) {
+                if (!current.removed.isEmpty() && current.removed.contains(array[i].getId())) {
+                    continue;
+                }
+                while (next < late.size() && late.get(next).getDate().isBefore(array[i].getDate())) {
+                    result.add(late.get(next++));
+                }
+                result.add(array[i]);
+            }
+            result.addAll(late.subList(next, late.size()));
+        }
+
+        private int firstNotBefore(Operation[] array, LocalDateTime from) {
+            int low = 0;
+            int high = array.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (array[mid].getDate().isBefore(from)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
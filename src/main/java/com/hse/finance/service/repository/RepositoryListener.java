@@ -0,0 +1,39 @@
+package com.hse.finance.service.repository;
+
+import java.util.UUID;
+
+/**
+ * Listener notified synchronously, in the writing thread, after a repository has been changed
+ *
+ * Notifications run under the repository's write lock, so they arrive in the order the changes
+ * were applied; listeners must be quick and must not write to the repository they listen to.
+ *
+ * @param <T> The entity type of the repository
+ */
+public interface RepositoryListener<T> {
+    void onSaved(T entity);
+
+    void onDeleted(UUID id);
+
+    void onCleared();
+
+    /**
+     * Called before the entity is stored; only repositories that support it call the before hooks
+     */
+    default void beforeSaved(T entity) {
+    }
+
+    /**
+     * Called before the entity is removed
+     */
+    default void beforeDeleted(T entity) {
+    }
+
+    /**
+     * Called instead of {@link #onSaved} when the entity replaced a stored one with the same id;
+     * only repositories that support it call it
+     */
+    default void onReplaced(T previous, T entity) {
+        onSaved(entity);
+    }
+}
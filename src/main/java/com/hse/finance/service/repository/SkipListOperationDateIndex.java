@@ -0,0 +1,51 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Date index backed by a single skip list keyed by operation date
+ */
+class SkipListOperationDateIndex implements OperationDateIndex {
+    private final ConcurrentSkipListMap<LocalDateTime, Map<UUID, Operation>> index = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void add(Operation operation, LocalDateTime date) {
+        index.computeIfAbsent(date, d -> new ConcurrentHashMap<>()).put(operation.getId(), operation);
+    }
+
+    @Override
+    public void remove(UUID operationId, LocalDateTime date) {
+        Map<UUID, Operation> sameDate = index.get(date);
+        if (sameDate != null) {
+            sameDate.remove(operationId);
+            if (sameDate.isEmpty()) {
+                index.remove(date);
+            }
+        }
+    }
+
+    @Override
+    public List<Operation> findBetween(LocalDateTime start, LocalDateTime end) {
+        List<Operation> result = new ArrayList<>();
+        if (start.isAfter(end)) {
+            return result;
+        }
+        for (Map<UUID, Operation> sameDate : index.subMap(start, true, end, true).values()) {
+            result.addAll(sameDate.values());
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+}
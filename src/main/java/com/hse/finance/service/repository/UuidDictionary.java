@@ -0,0 +1,49 @@
+package com.hse.finance.service.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dictionary encoding of UUIDs into dense int codes. Not thread-safe, callers synchronize.
+ */
+class UuidDictionary {
+    private final Map<UUID, Integer> codes = new HashMap<>();
+    private final List<UUID> values = new ArrayList<>();
+
+    /**
+     * Returns the code of the id, assigning the next free one if the id is new
+     */
+    int encode(UUID id) {
+        Integer code = codes.get(id);
+        if (code == null) {
+            code = values.size();
+            codes.put(id, code);
+            values.add(id);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the code of the id or -1 if the id has never been encoded
+     */
+    int find(UUID id) {
+        Integer code = codes.get(id);
+        return code == null ? -1 : code;
+    }
+
+    UUID decode(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    void clear() {
+        codes.clear();
+        values.clear();
+    }
+}
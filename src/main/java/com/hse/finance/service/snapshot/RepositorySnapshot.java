@@ -0,0 +1,184 @@
+package com.hse.finance.service.snapshot;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.OperationRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Point-in-time view of the repositories, opened by {@link SnapshotManager}
+ *
+ * Accounts and categories are copied when the snapshot is opened. Operations are read live and
+ * corrected with an undo log: operations saved after the snapshot are hidden and operations
+ * deleted after it are added back. The log entries are recorded before the repository changes,
+ * so an operation is never missed between the live read and the log check. Close the snapshot
+ * to stop recording.
+ */
+public class RepositorySnapshot implements AutoCloseable {
+    private final long version;
+    private final Map<UUID, BankAccount> bankAccounts;
+    private final Map<UUID, Category> categories;
+    private final OperationRepository operationRepository;
+    private final Consumer<RepositorySnapshot> onClose;
+
+    private final Set<UUID> createdAfter = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Operation> deletedAfter = new ConcurrentHashMap<>();
+    private volatile boolean valid = true;
+
+    RepositorySnapshot(long version, List<BankAccount> bankAccounts, List<Category> categories,
+                       OperationRepository operationRepository, Consumer<RepositorySnapshot> onClose) {
+        this.version = version;
+        this.bankAccounts = index(bankAccounts, BankAccount::getId);
+        this.categories = index(categories, Category::getId);
+        this.operationRepository = operationRepository;
+        this.onClose = onClose;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<BankAccount> getBankAccounts() {
+        checkValid();
+        return new ArrayList<>(bankAccounts.values());
+    }
+
+    public Optional<BankAccount> findBankAccount(UUID id) {
+        checkValid();
+        return Optional.ofNullable(bankAccounts.get(id));
+    }
+
+    public List<Category> getCategories() {
+        checkValid();
+        return new ArrayList<>(categories.values());
+    }
+
+    public Optional<Category> findCategory(UUID id) {
+        checkValid();
+        return Optional.ofNullable(categories.get(id));
+    }
+
+    public List<Operation> getOperations() {
+        return view(operationRepository.findAll(), operation -> true);
+    }
+
+    public List<Operation> getOperationsOfAccount(UUID bankAccountId) {
+        return view(operationRepository.findByBankAccountId(bankAccountId),
+                operation -> bankAccountId.equals(operation.getBankAccountId()));
+    }
+
+    public List<Operation> getOperationsBetween(LocalDateTime start, LocalDateTime end) {
+        return view(operationRepository.findByDateBetween(start, end),
+                operation -> !operation.getDate().isBefore(start) && !operation.getDate().isAfter(end));
+    }
+
+    /**
+     * Income minus expenses of the operations dated within [start, end]
+     */
+    public BigDecimal balanceDifference(LocalDateTime start, LocalDateTime end) {
+        long difference = 0;
+        for (Operation operation : getOperationsBetween(start, end)) {
+            difference = operation.getType() == OperationType.INCOME
+                    ? Money.add(difference, operation.getAmountCents())
+                    : Money.subtract(difference, operation.getAmountCents());
+        }
+        return Money.toBigDecimal(difference);
+    }
+
+    /**
+     * Sum of amounts per category of the operations dated within [start, end], optionally of one type only
+     */
+    public Map<UUID, BigDecimal> sumByCategory(LocalDateTime start, LocalDateTime end, OperationType type) {
+        Map<UUID, long[]> sums = new HashMap<>();
+        for (Operation operation : getOperationsBetween(start, end)) {
+            if (type == null || operation.getType() == type) {
+                long[] sum = sums.computeIfAbsent(operation.getCategoryId(), id -> new long[1]);
+                sum[0] = Money.add(sum[0], operation.getAmountCents());
+            }
+        }
+        Map<UUID, BigDecimal> result = new HashMap<>();
+        sums.forEach((categoryId, sum) -> result.put(categoryId, Money.toBigDecimal(sum[0])));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (valid) {
+            valid = false;
+            onClose.accept(this);
+        }
+    }
+
+    void recordCreated(Operation operation) {
+        createdAfter.add(operation.getId());
+    }
+
+    void recordDeleted(Operation operation) {
+        // Operations created after the snapshot were never part of it
+        if (!createdAfter.contains(operation.getId())) {
+            deletedAfter.putIfAbsent(operation.getId(), operation);
+        }
+    }
+
+    /**
+     * The repository was cleared, the undo log can no longer restore the snapshot
+     */
+    void invalidate() {
+        close();
+    }
+
+    private List<Operation> view(List<Operation> live, Predicate<Operation> inRange) {
+        checkValid();
+        List<Operation> result = new ArrayList<>(live.size());
+        Set<UUID> restoredLive = deletedAfter.isEmpty() ? Collections.emptySet() : new HashSet<>();
+        for (Operation operation : live) {
+            if (!createdAfter.isEmpty() && createdAfter.contains(operation.getId())) {
+                continue;
+            }
+            if (deletedAfter.containsKey(operation.getId())) {
+                // The deletion was recorded but has not happened yet
+                restoredLive.add(operation.getId());
+            }
+            result.add(operation);
+        }
+        for (Operation operation : deletedAfter.values()) {
+            if (inRange.test(operation) && !restoredLive.contains(operation.getId())) {
+                result.add(operation);
+            }
+        }
+        checkValid();
+        return result;
+    }
+
+    private void checkValid() {
+        if (!valid) {
+            throw new IllegalStateException("Snapshot " + version + " is closed");
+        }
+    }
+
+    private static <T> Map<UUID, T> index(List<T> entities, Function<T, UUID> id) {
+        Map<UUID, T> result = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            result.put(id.apply(entity), entity);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hse.finance.service.snapshot;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.service.repository.RepositoryListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens consistent point-in-time views of the three repositories
+ *
+ * A snapshot is captured while {@link AccountLocks} is held exclusively, so no balance update is
+ * half applied in it. Capturing copies only accounts and categories and takes a moment; after
+ * that writers run unhindered and only record the operations they save or delete into the undo
+ * logs of the open snapshots. Writes bypassing the account locks are not ordered against the capture.
+ */
+@Component
+public class SnapshotManager {
+    private final BankAccountRepository bankAccountRepository;
+    private final CategoryRepository categoryRepository;
+    private final OperationRepository operationRepository;
+    private final AccountLocks accountLocks;
+
+    private final Set<RepositorySnapshot> open = ConcurrentHashMap.newKeySet();
+    private final AtomicLong versions = new AtomicLong();
+
+    @Autowired
+    public SnapshotManager(BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository,
+                           OperationRepository operationRepository, AccountLocks accountLocks) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.categoryRepository = categoryRepository;
+        this.operationRepository = operationRepository;
+        this.accountLocks = accountLocks;
+        operationRepository.addListener(new UndoLogListener());
+    }
+
+    /**
+     * Captures a snapshot; it must be closed, preferably with try-with-resources
+     */
+    public RepositorySnapshot open() {
+        return accountLocks.exclusively(() -> {
+            List<BankAccount> accounts = new ArrayList<>();
+            for (BankAccount account : bankAccountRepository.findAll()) {
+                BankAccount copy = BankAccount.builder()
+                        .id(account.getId())
+                        .name(account.getName())
+                        .build();
+                copy.setBalanceCents(account.getBalanceCents());
+                accounts.add(copy);
+            }
+            List<Category> categories = new ArrayList<>();
+            for (Category category : categoryRepository.findAll()) {
+                categories.add(new Category(category.getId(), category.getName(), category.getType()));
+            }
+            RepositorySnapshot snapshot = new RepositorySnapshot(versions.incrementAndGet(), accounts, categories,
+                    operationRepository, open::remove);
+            open.add(snapshot);
+            return snapshot;
+        });
+    }
+
+    /**
+     * Number of snapshots not closed yet
+     */
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    private class UndoLogListener implements RepositoryListener<Operation> {
+        @Override
+        public void beforeSaved(Operation operation) {
+            if (open.isEmpty()) {
+                return;
+            }
+            // Saving over an existing id replaces it, the snapshots keep the old version
+            operationRepository.findById(operation.getId()).ifPresent(this::beforeDeleted);
+            open.forEach(snapshot -> snapshot.recordCreated(operation));
+        }
+
+        @Override
+        public void beforeDeleted(Operation operation) {
+            open.forEach(snapshot -> snapshot.recordDeleted(operation));
+        }
+
+        @Override
+        public void onSaved(Operation operation) {
+        }
+
+        @Override
+        public void onDeleted(UUID id) {
+        }
+
+        @Override
+        public void onCleared() {
+            open.forEach(RepositorySnapshot::invalidate);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hse.finance.util.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streaming compression format used for export and import files
+ *
+ * Implementations registered as Spring beans are picked up by {@link CompressionCodecs}
+ * and selected by the file extension.
+ */
+public interface CompressionCodec {
+    /**
+     * Short name used to select the codec explicitly, e.g. {@code gzip}
+     */
+    String getName();
+
+    /**
+     * File extension including the dot, e.g. {@code .gz}
+     */
+    String getExtension();
+
+    /**
+     * Wraps the stream so that everything written to it is compressed; closing the result closes the target
+     */
+    OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * Wraps the stream so that reading it yields the decompressed data; closing the result closes the source
+     */
+    InputStream decompress(InputStream in) throws IOException;
+}
@@ -0,0 +1,92 @@
+package com.hse.finance.util.compression;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Registry of the available compression codecs
+ *
+ * A file is compressed with the codec whose extension it ends with (case-insensitive);
+ * files without a known extension are read and written as is.
+ */
+@Component
+public class CompressionCodecs {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<CompressionCodec> codecs;
+
+    public CompressionCodecs(List<CompressionCodec> codecs) {
+        this.codecs = List.copyOf(codecs);
+    }
+
+    /**
+     * Registry with the codecs shipped with the application, for use outside of Spring
+     */
+    public static CompressionCodecs defaults() {
+        return new CompressionCodecs(List.of(new GzipCompressionCodec()));
+    }
+
+    public List<CompressionCodec> getCodecs() {
+        return codecs;
+    }
+
+    /**
+     * Codec selected by the extension of the path
+     */
+    public Optional<CompressionCodec> forPath(String path) {
+        String lowerCase = path.toLowerCase(Locale.ROOT);
+        return codecs.stream()
+                .filter(codec -> lowerCase.endsWith(codec.getExtension().toLowerCase(Locale.ROOT)))
+                .findFirst();
+    }
+
+    /**
+     * Codec with the given name
+     */
+    public CompressionCodec byName(String name) {
+        return codecs.stream()
+                .filter(codec -> codec.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown compression codec: " + name));
+    }
+
+    /**
+     * The file itself if it exists, otherwise the first existing compressed variant of it
+     * (e.g. {@code accounts.csv.gz} for {@code accounts.csv}), otherwise the file itself
+     */
+    public File resolve(File file) {
+        if (file.exists()) {
+            return file;
+        }
+        return codecs.stream()
+                .map(codec -> new File(file.getPath() + codec.getExtension()))
+                .filter(File::exists)
+                .findFirst()
+                .orElse(file);
+    }
+
+    /**
+     * Opens the file for reading, decompressing it when its extension names a codec
+     */
+    public InputStream openInput(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        Optional<CompressionCodec> codec = forPath(file.getName());
+        if (codec.isEmpty()) {
+            return in;
+        }
+        try {
+            return new BufferedInputStream(codec.get().decompress(in), BUFFER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
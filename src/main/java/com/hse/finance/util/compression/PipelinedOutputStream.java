@@ -0,0 +1,167 @@
+package com.hse.finance.util.compression;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output stream that writes to the target on a dedicated thread
+ *
+ * The writing thread fills fixed-size blocks and hands them over through a bounded queue, so
+ * producing the data (e.g. serialization) and consuming it (e.g. compression) run concurrently.
+ * At most {@code depth} blocks are in flight; blocks are recycled once written.
+ * {@link #flush()} only hands the current block over, the target is flushed and closed by
+ * {@link #close()}, which waits for the stage and rethrows its failure. Not thread-safe.
+ */
+public final class PipelinedOutputStream extends OutputStream {
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+    private static final long POLL_MILLIS = 100;
+
+    private final OutputStream target;
+    private final int blockSize;
+    private final BlockingQueue<ByteBuffer> queue;
+    private final BlockingQueue<byte[]> free;
+    private final Thread stage;
+
+    private volatile Throwable failure;
+    private byte[] block;
+    private int count;
+    private boolean closed;
+
+    public PipelinedOutputStream(OutputStream target, int blockSize, int depth, String threadName) {
+        if (blockSize <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Block size and depth must be positive");
+        }
+        this.target = target;
+        this.blockSize = blockSize;
+        this.queue = new ArrayBlockingQueue<>(depth + 1);
+        this.free = new ArrayBlockingQueue<>(depth + 1);
+        this.block = new byte[blockSize];
+        this.stage = new Thread(this::drain, threadName);
+        stage.setDaemon(true);
+        stage.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == blockSize) {
+            handOver();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (count == blockSize) {
+                handOver();
+            }
+            int chunk = Math.min(length, blockSize - count);
+            System.arraycopy(bytes, offset, block, count, chunk);
+            count += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0) {
+            handOver();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0) {
+                handOver();
+            }
+            put(END);
+            stage.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the pipeline to finish");
+        } finally {
+            if (stage.isAlive()) {
+                // The stage failed or was abandoned and still owns the target
+                stage.interrupt();
+            }
+        }
+        rethrowFailure();
+    }
+
+    private void handOver() throws IOException {
+        try {
+            put(ByteBuffer.wrap(block, 0, count));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to the pipeline");
+        }
+        byte[] recycled = free.poll();
+        block = recycled != null ? recycled : new byte[blockSize];
+        count = 0;
+    }
+
+    /**
+     * Waits for room in the queue, giving up as soon as the stage fails
+     */
+    private void put(ByteBuffer buffer) throws IOException, InterruptedException {
+        while (!queue.offer(buffer, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            rethrowFailure();
+        }
+    }
+
+    private void drain() {
+        try (OutputStream out = target) {
+            while (true) {
+                ByteBuffer buffer = queue.take();
+                if (buffer == END) {
+                    break;
+                }
+                out.write(buffer.array(), 0, buffer.limit());
+                free.offer(buffer.array());
+            }
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Pipeline stage interrupted");
+        } catch (Throwable e) {
+            failure = e;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        rethrowFailure();
+    }
+
+    private void rethrowFailure() throws IOException {
+        Throwable cause = failure;
+        if (cause == null) {
+            return;
+        }
+        if (cause instanceof IOException) {
+            throw new IOException(cause.getMessage(), cause);
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException(cause);
+    }
+}
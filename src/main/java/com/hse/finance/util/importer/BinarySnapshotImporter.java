@@ -0,0 +1,235 @@
+package com.hse.finance.util.importer;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Money;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.util.compression.CompressionCodecs;
+import com.hse.finance.visitor.BinarySnapshotFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.hse.finance.visitor.BinarySnapshotFormat.*;
+
+/**
+ * Restores a snapshot written by {@code BinaryExportVisitor}
+ *
+ * Unlike the DataImporter formats, the snapshot replaces the current data: the repositories are
+ * cleared and the entities are saved with their ids and stored balances, without validation or
+ * replaying operations through the facades, so balances stay consistent with the operations.
+ * Balance updates wait until the snapshot is saved and the observers have rebuilt their state.
+ */
+@Component
+public class BinarySnapshotImporter {
+    private static final Logger log = LoggerFactory.getLogger(BinarySnapshotImporter.class);
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final BankAccountRepository bankAccountRepository;
+    private final CategoryRepository categoryRepository;
+    private final OperationRepository operationRepository;
+    private final List<OperationObserver> observers;
+    private final AccountLocks accountLocks;
+    private final CompressionCodecs compressionCodecs;
+
+    public BinarySnapshotImporter(BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository,
+                                  OperationRepository operationRepository, List<OperationObserver> observers,
+                                  AccountLocks accountLocks) {
+        this(bankAccountRepository, categoryRepository, operationRepository, observers, accountLocks,
+                CompressionCodecs.defaults());
+    }
+
+    @Autowired
+    public BinarySnapshotImporter(BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository,
+                                  OperationRepository operationRepository, List<OperationObserver> observers,
+                                  AccountLocks accountLocks, CompressionCodecs compressionCodecs) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.categoryRepository = categoryRepository;
+        this.operationRepository = operationRepository;
+        this.observers = observers;
+        this.accountLocks = accountLocks;
+        this.compressionCodecs = compressionCodecs;
+    }
+
+    public ImportStatistics importData(File file) throws IOException {
+        if (!file.exists() || !file.canRead()) {
+            throw new IOException("Cannot read file: " + file.getAbsolutePath());
+        }
+
+        long started = System.nanoTime();
+        Snapshot snapshot = new Snapshot();
+        try (InputStream in = compressionCodecs.openInput(file)) {
+            read(in, snapshot);
+        }
+
+        // The date indexes and aggregates insert much faster in date order
+        snapshot.operations.sort(Comparator.comparing(Operation::getDate));
+        accountLocks.exclusively(() -> {
+            operationRepository.clear();
+            categoryRepository.clear();
+            bankAccountRepository.clear();
+            snapshot.accounts.forEach(bankAccountRepository::save);
+            snapshot.categories.forEach(categoryRepository::save);
+            operationRepository.saveAll(snapshot.operations);
+            // Still exclusive, so no operation created meanwhile can be counted twice
+            List<Operation> operations = operationRepository.findAll();
+            observers.forEach(observer -> observer.onOperationsReloaded(operations));
+            return null;
+        });
+
+        ImportStatistics statistics = new ImportStatistics(snapshot.accounts.size(), snapshot.categories.size(),
+                snapshot.operations.size(), 0, System.nanoTime() - started);
+        log.info("Restored {}: {}", file.getName(), statistics);
+        return statistics;
+    }
+
+    private void read(InputStream stream, Snapshot snapshot) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary finance snapshot");
+        }
+        long version = BinarySnapshotFormat.readVarLong(in);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+
+        while (true) {
+            int tag = in.read();
+            if (tag < 0) {
+                throw new IOException("Truncated snapshot");
+            }
+            if (tag == END) {
+                return;
+            }
+            long length = BinarySnapshotFormat.readVarLong(in);
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Malformed snapshot section length: " + length);
+            }
+            byte[] payload = in.readNBytes((int) length);
+            if (payload.length != length) {
+                throw new IOException("Truncated snapshot");
+            }
+            try {
+                readSection((byte) tag, ByteBuffer.wrap(payload), snapshot);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                     | IllegalStateException e) {
+                throw new IOException("Malformed snapshot section " + tag + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void readSection(byte tag, ByteBuffer in, Snapshot snapshot) {
+        String[] strings = new String[readLength(in) + 1];
+        for (int i = 1; i < strings.length; i++) {
+            byte[] bytes = new byte[readLength(in)];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int records = readLength(in);
+
+        switch (tag) {
+            case ACCOUNTS:
+                for (int i = 0; i < records; i++) {
+                    UUID id = readUuid(in);
+                    String name = strings[(int) readVarLong(in)];
+                    int scale = (int) readZigZag(in);
+                    byte[] unscaled = new byte[readLength(in)];
+                    in.get(unscaled);
+                    snapshot.accounts.add(BankAccount.builder()
+                            .id(id)
+                            .name(name)
+                            .balance(new BigDecimal(new BigInteger(unscaled), scale))
+                            .build());
+                }
+                break;
+            case CATEGORIES:
+                for (int i = 0; i < records; i++) {
+                    UUID id = readUuid(in);
+                    String name = strings[(int) readVarLong(in)];
+                    byte type = in.get();
+                    snapshot.categories.add(new Category(id, name, type < 0 ? null : TYPES[type]));
+                }
+                break;
+            case OPERATIONS:
+                long idBits = 0;
+                long second = 0;
+                for (int i = 0; i < records; i++) {
+                    idBits += readZigZag(in);
+                    UUID id = new UUID(idBits, in.getLong());
+                    OperationType type = TYPES[in.get()];
+                    UUID accountId = readReference(in, snapshot.accounts, BankAccount::getId);
+                    UUID categoryId = readReference(in, snapshot.categories, Category::getId);
+                    long cents = readZigZag(in);
+                    second += readZigZag(in);
+                    int nanos = (int) readVarLong(in);
+                    snapshot.operations.add(Operation.builder()
+                            .id(id)
+                            .type(type)
+                            .bankAccountId(accountId)
+                            .categoryId(categoryId)
+                            .amount(Money.toBigDecimal(cents))
+                            .date(LocalDateTime.ofEpochSecond(second, nanos, ZoneOffset.UTC))
+                            .description(strings[(int) readVarLong(in)])
+                            .build());
+                }
+                break;
+            default:
+                // Section of a newer minor revision, skipped as a whole
+                log.debug("Skipping unknown snapshot section {}", tag);
+        }
+    }
+
+    /**
+     * Reads a byte or element count; every byte or element takes at least one byte of the section,
+     * so a count beyond the remaining bytes can only come from a corrupt file
+     */
+    private static int readLength(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("invalid length " + length);
+        }
+        return (int) length;
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static <T> UUID readReference(ByteBuffer in, List<T> entities, Function<T, UUID> id) {
+        int ref = (int) readVarLong(in);
+        return ref == 0 ? readUuid(in) : id.apply(entities.get(ref - 1));
+    }
+
+    /**
+     * Entities read from the file, saved only once the whole file has been read
+     */
+    private static final class Snapshot {
+        private final List<BankAccount> accounts = new ArrayList<>();
+        private final List<Category> categories = new ArrayList<>();
+        private final List<Operation> operations = new ArrayList<>();
+    }
+}
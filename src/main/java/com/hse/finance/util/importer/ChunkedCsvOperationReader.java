@@ -0,0 +1,168 @@
+package com.hse.finance.util.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.hse.finance.model.Operation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads an operations CSV stream as a pipeline:
+ * <ol>
+ *     <li>the calling thread reads the stream in blocks and cuts them into chunks at record boundaries
+ *     (newlines outside quoted fields)</li>
+ *     <li>worker threads parse the chunks into operations in parallel</li>
+ *     <li>the calling thread applies the parsed chunks strictly in file order, one batch per chunk,
+ *     so balances evolve exactly as in a sequential import</li>
+ * </ol>
+ * At most two chunks per worker are in flight, which bounds memory regardless of the file size.
+ */
+final class ChunkedCsvOperationReader {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CsvMapper csvMapper;
+    private final int chunkSize;
+    private final int parallelism;
+
+    ChunkedCsvOperationReader(CsvMapper csvMapper, int chunkSize, int parallelism) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.csvMapper = csvMapper;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Reads the stream to the end; the caller closes it
+     */
+    void read(InputStream in, DataImporter.RecordSink sink) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, new WorkerThreadFactory());
+        Deque<Future<List<Operation>>> inFlight = new ArrayDeque<>();
+        try {
+            RecordSplitter splitter = new RecordSplitter();
+            byte[] block;
+            do {
+                block = in.readNBytes(chunkSize);
+                boolean last = block.length < chunkSize;
+                byte[] chunk = splitter.next(block, last);
+                if (chunk.length > 0) {
+                    byte[] header = splitter.header;
+                    inFlight.add(workers.submit(() -> parse(header, chunk, sink)));
+                }
+                while (inFlight.size() >= parallelism * 2 || (last && !inFlight.isEmpty())) {
+                    apply(inFlight.poll(), sink);
+                }
+            } while (block.length == chunkSize);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private List<Operation> parse(byte[] header, byte[] chunk, DataImporter.RecordSink sink) throws IOException {
+        List<Operation> operations = new ArrayList<>();
+        InputStream records = new SequenceInputStream(new ByteArrayInputStream(header), new ByteArrayInputStream(chunk));
+        try (MappingIterator<Map<String, Object>> iterator = csvMapper.readerFor(Map.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(records)) {
+            while (iterator.hasNextValue()) {
+                Operation operation = sink.parseOperation(iterator.nextValue());
+                if (operation != null) {
+                    operations.add(operation);
+                }
+            }
+        }
+        return operations;
+    }
+
+    private void apply(Future<List<Operation>> chunk, DataImporter.RecordSink sink) throws IOException {
+        try {
+            sink.applyOperations(chunk.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing operations", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to parse operations", cause);
+        }
+    }
+
+    /**
+     * Cuts consecutive blocks of the file at record boundaries, carrying incomplete records
+     * over to the next block. The first record is kept apart as the header.
+     */
+    private static final class RecordSplitter {
+        private byte[] pending = EMPTY;
+        private boolean inQuotes;
+        private byte[] header;
+
+        byte[] next(byte[] block, boolean last) {
+            byte[] data = pending.length == 0 ? block : concat(pending, block);
+            int boundary = 0;
+            for (int i = pending.length; i < data.length; i++) {
+                byte b = data[i];
+                if (b == '"') {
+                    // An escaped quote ("") toggles twice and leaves the state unchanged
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    boundary = i + 1;
+                    if (header == null) {
+                        header = Arrays.copyOf(data, boundary);
+                        data = Arrays.copyOfRange(data, boundary, data.length);
+                        i = -1;
+                        boundary = 0;
+                    }
+                }
+            }
+            if (last) {
+                boundary = data.length;
+                if (header == null) {
+                    // Header only, without a trailing newline
+                    header = data;
+                    boundary = 0;
+                }
+            }
+            pending = Arrays.copyOfRange(data, boundary, data.length);
+            return boundary == data.length ? data : Arrays.copyOf(data, boundary);
+        }
+
+        private static byte[] concat(byte[] first, byte[] second) {
+            byte[] result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "csv-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
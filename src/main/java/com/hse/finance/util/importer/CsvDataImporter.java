@@ -6,58 +6,91 @@ import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.hse.finance.facade.BankAccountFacade;
 import com.hse.finance.facade.CategoryFacade;
 import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.util.compression.CompressionCodecs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Implementation of DataImporter for CSV files
+ *
+ * Each of accounts.csv, categories.csv and operations.csv may also be present compressed,
+ * e.g. as operations.csv.gz.
  */
 @Component
 public class CsvDataImporter extends DataImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    
     private final CsvMapper csvMapper;
+    private final ChunkedCsvOperationReader operationReader;
     
     public CsvDataImporter(BankAccountFacade bankAccountFacade, 
                           CategoryFacade categoryFacade, 
                           OperationFacade operationFacade) {
-        super(bankAccountFacade, categoryFacade, operationFacade);
+        this(bankAccountFacade, categoryFacade, operationFacade, DEFAULT_CHUNK_SIZE, 0);
+    }
+    
+    public CsvDataImporter(BankAccountFacade bankAccountFacade, 
+                          CategoryFacade categoryFacade, 
+                          OperationFacade operationFacade,
+                          int chunkSize,
+                          int parallelism) {
+        this(bankAccountFacade, categoryFacade, operationFacade, CompressionCodecs.defaults(), chunkSize, parallelism);
+    }
+    
+    /**
+     * Operations are parsed in chunks of {@code chunkSize} bytes by {@code parallelism} workers
+     * (0 means one per available processor)
+     */
+    @Autowired
+    public CsvDataImporter(BankAccountFacade bankAccountFacade, 
+                          CategoryFacade categoryFacade, 
+                          OperationFacade operationFacade,
+                          CompressionCodecs compressionCodecs,
+                          @Value("${finance.import.csv.chunk-size:8388608}") int chunkSize,
+                          @Value("${finance.import.csv.parallelism:0}") int parallelism) {
+        super(bankAccountFacade, categoryFacade, operationFacade, compressionCodecs);
         this.csvMapper = new CsvMapper();
+        this.operationReader = new ChunkedCsvOperationReader(csvMapper, chunkSize, parallelism);
     }
     
     @Override
-    protected Map<String, Object> parseFile(File file) throws IOException {
-        Map<String, Object> result = new HashMap<>();
-        
+    protected void readRecords(File file, RecordSink sink) throws IOException {
         // Read accounts from accounts.csv
-        File accountsFile = new File(file.getParentFile(), "accounts.csv");
+        File accountsFile = compressionCodecs.resolve(new File(file.getParentFile(), "accounts.csv"));
         if (accountsFile.exists()) {
-            result.put("accounts", readCsvFile(accountsFile));
+            readCsvFile(accountsFile, sink::account);
         }
         
         // Read categories from categories.csv
-        File categoriesFile = new File(file.getParentFile(), "categories.csv");
+        File categoriesFile = compressionCodecs.resolve(new File(file.getParentFile(), "categories.csv"));
         if (categoriesFile.exists()) {
-            result.put("categories", readCsvFile(categoriesFile));
+            readCsvFile(categoriesFile, sink::category);
         }
         
-        // Read operations from operations.csv
-        File operationsFile = new File(file.getParentFile(), "operations.csv");
+        // Read operations from operations.csv, parsing chunks of it in parallel
+        File operationsFile = compressionCodecs.resolve(new File(file.getParentFile(), "operations.csv"));
         if (operationsFile.exists()) {
-            result.put("operations", readCsvFile(operationsFile));
+            try (InputStream in = compressionCodecs.openInput(operationsFile)) {
+                operationReader.read(in, sink);
+            }
         }
-        
-        return result;
     }
     
-    private List<Map<String, Object>> readCsvFile(File file) throws IOException {
+    private void readCsvFile(File file, Consumer<Map<String, Object>> handler) throws IOException {
         CsvSchema schema = CsvSchema.emptySchema().withHeader();
-        MappingIterator<Map<String, Object>> iterator = csvMapper.readerFor(Map.class)
+        try (MappingIterator<Map<String, Object>> iterator = csvMapper.readerFor(Map.class)
                 .with(schema)
-                .readValues(file);
-        return iterator.readAll();
+                .readValues(compressionCodecs.openInput(file))) {
+            while (iterator.hasNextValue()) {
+                handler.accept(iterator.nextValue());
+            }
+        }
     }
 } 
\ No newline at end of file
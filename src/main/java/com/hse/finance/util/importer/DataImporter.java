@@ -5,28 +5,41 @@ import com.hse.finance.facade.CategoryFacade;
 import com.hse.finance.facade.OperationFacade;
 import com.hse.finance.model.BankAccount;
 import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
 import com.hse.finance.model.OperationType;
+import com.hse.finance.util.compression.CompressionCodecs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Abstract class for importing data from different file formats
  * Uses Template Method pattern
  */
 public abstract class DataImporter {
+    private static final Logger log = LoggerFactory.getLogger(DataImporter.class);
+    private static final int BATCH_SIZE = 1000;
+    
     protected BankAccountFacade bankAccountFacade;
     protected CategoryFacade categoryFacade;
     protected OperationFacade operationFacade;
+    protected CompressionCodecs compressionCodecs;
     
     /**
      * Default constructor
      */
     public DataImporter() {
+        this.compressionCodecs = CompressionCodecs.defaults();
     }
     
     /**
@@ -34,114 +47,197 @@ public abstract class DataImporter {
      */
     public DataImporter(BankAccountFacade bankAccountFacade, CategoryFacade categoryFacade, 
                        OperationFacade operationFacade) {
+        this(bankAccountFacade, categoryFacade, operationFacade, CompressionCodecs.defaults());
+    }
+    
+    /**
+     * Files whose extension names one of the codecs are decompressed while they are read
+     */
+    public DataImporter(BankAccountFacade bankAccountFacade, CategoryFacade categoryFacade, 
+                       OperationFacade operationFacade, CompressionCodecs compressionCodecs) {
         this.bankAccountFacade = bankAccountFacade;
         this.categoryFacade = categoryFacade;
         this.operationFacade = operationFacade;
+        this.compressionCodecs = compressionCodecs;
     }
     
     /**
      * Template method defining the algorithm for data import
      */
-    public final void importData(File file) throws IOException {
+    public final ImportStatistics importData(File file) throws IOException {
         // Check if file exists and is readable
         if (!file.exists() || !file.canRead()) {
             throw new IOException("Cannot read file: " + file.getAbsolutePath());
         }
         
-        // Parse the file and get data maps
-        Map<String, Object> data = parseFile(file);
-        
-        // Process bank accounts
-        processAccounts(data);
-        
-        // Process categories
-        processCategories(data);
+        // Read the file record by record, each record is processed as soon as it is read
+        ImportSession session = new ImportSession();
+        readRecords(file, session);
+        session.flush();
         
-        // Process operations
-        processOperations(data);
+        ImportStatistics statistics = session.statistics();
+        log.info("Imported {}: {}", file.getName(), statistics);
+        return statistics;
     }
     
     /**
-     * Parse the import file and return a map of data
-     * This method will be implemented by subclasses for different file formats
+     * Read the import file and pass every record to the sink
+     * This method will be implemented by subclasses for different file formats.
+     * All accounts and categories must be passed before the first operation.
      */
-    protected abstract Map<String, Object> parseFile(File file) throws IOException;
+    protected abstract void readRecords(File file, RecordSink sink) throws IOException;
     
     /**
-     * Process bank account data
+     * Receiver of the records read from an import file
      */
-    private void processAccounts(Map<String, Object> data) {
-        if (data.containsKey("accounts")) {
-            List<Map<String, Object>> accounts = (List<Map<String, Object>>) data.get("accounts");
-            
-            for (Map<String, Object> accountData : accounts) {
-                String name = (String) accountData.get("name");
-                BigDecimal balance = new BigDecimal(accountData.get("balance").toString());
-                
-                bankAccountFacade.createBankAccount(name, balance);
-            }
-        }
+    protected interface RecordSink {
+        void account(Map<String, Object> accountData);
+
+        void category(Map<String, Object> categoryData);
+
+        void operation(Map<String, Object> operationData);
+
+        /**
+         * Converts operation data into an unsaved operation, or null if its account or category is unknown.
+         * Safe to call from several threads once all accounts and categories have been passed.
+         */
+        Operation parseOperation(Map<String, Object> operationData);
+
+        /**
+         * Saves operations returned by {@link #parseOperation} and applies them to the account balances.
+         * If the batch is rejected, the operations before the first failing one are still imported
+         * and the failure is rethrown, as when every operation is applied on its own.
+         */
+        void applyOperations(List<Operation> operations);
     }
     
     /**
-     * Process category data
+     * Processes the records of one import
      */
-    private void processCategories(Map<String, Object> data) {
-        if (data.containsKey("categories")) {
-            List<Map<String, Object>> categories = (List<Map<String, Object>>) data.get("categories");
+    private class ImportSession implements RecordSink {
+        private final long started = System.nanoTime();
+        private final List<Operation> pending = new ArrayList<>(BATCH_SIZE);
+        private volatile Map<String, UUID> accountIds;
+        private volatile Map<CategoryKey, UUID> categoryIds;
+        private long accounts;
+        private long categories;
+        private long operations;
+        private final LongAdder skippedOperations = new LongAdder();
+        
+        /**
+         * Process bank account data
+         */
+        @Override
+        public void account(Map<String, Object> accountData) {
+            String name = (String) accountData.get("name");
+            BigDecimal balance = new BigDecimal(accountData.get("balance").toString());
+            
+            bankAccountFacade.createBankAccount(name, balance);
+            accounts++;
+        }
+        
+        /**
+         * Process category data
+         */
+        @Override
+        public void category(Map<String, Object> categoryData) {
+            String name = (String) categoryData.get("name");
+            OperationType type = OperationType.valueOf((String) categoryData.get("type"));
             
-            for (Map<String, Object> categoryData : categories) {
-                String name = (String) categoryData.get("name");
-                OperationType type = OperationType.valueOf((String) categoryData.get("type"));
-                
-                categoryFacade.createCategory(name, type);
+            categoryFacade.createCategory(name, type);
+            categories++;
+        }
+        
+        /**
+         * Process operation data
+         */
+        @Override
+        public void operation(Map<String, Object> operationData) {
+            Operation operation = parseOperation(operationData);
+            if (operation != null) {
+                pending.add(operation);
+                if (pending.size() == BATCH_SIZE) {
+                    flush();
+                }
             }
         }
-    }
-    
-    /**
-     * Process operation data
-     */
-    private void processOperations(Map<String, Object> data) {
-        if (data.containsKey("operations")) {
-            List<Map<String, Object>> operations = (List<Map<String, Object>>) data.get("operations");
+        
+        @Override
+        public Operation parseOperation(Map<String, Object> operationData) {
+            if (categoryIds == null) {
+                buildLookups();
+            }
             
-            // Get all accounts and categories for lookup
-            List<BankAccount> accounts = bankAccountFacade.getAllBankAccounts();
-            List<Category> categories = categoryFacade.getAllCategories();
+            OperationType type = OperationType.valueOf((String) operationData.get("type"));
+            BigDecimal amount = new BigDecimal(operationData.get("amount").toString());
+            String description = (String) operationData.get("description");
             
-            for (Map<String, Object> operationData : operations) {
-                OperationType type = OperationType.valueOf((String) operationData.get("type"));
-                BigDecimal amount = new BigDecimal(operationData.get("amount").toString());
-                String description = (String) operationData.get("description");
-                
-                // Find account by name
-                String accountName = (String) operationData.get("account_name");
-                UUID accountId = accounts.stream()
-                        .filter(a -> a.getName().equals(accountName))
-                        .findFirst()
-                        .map(BankAccount::getId)
-                        .orElse(null);
-                
-                if (accountId == null) {
-                    continue; // Skip if account not found
-                }
-                
-                // Find category by name and type
-                String categoryName = (String) operationData.get("category_name");
-                UUID categoryId = categories.stream()
-                        .filter(c -> c.getName().equals(categoryName) && c.getType() == type)
-                        .findFirst()
-                        .map(Category::getId)
-                        .orElse(null);
-                
-                if (categoryId == null) {
-                    continue; // Skip if category not found
+            // Resolve account by name and category by name and type
+            UUID accountId = accountIds.get((String) operationData.get("account_name"));
+            UUID categoryId = categoryIds.get(new CategoryKey((String) operationData.get("category_name"), type));
+            if (accountId == null || categoryId == null) {
+                skippedOperations.increment();
+                return null; // Skip if account or category not found
+            }
+            
+            return operationFacade.prepareOperation(type, accountId, amount, categoryId, description);
+        }
+        
+        @Override
+        public void applyOperations(List<Operation> batch) {
+            flush();
+            apply(batch);
+        }
+        
+        /**
+         * Applies the operations buffered by {@link #operation}
+         */
+        void flush() {
+            if (!pending.isEmpty()) {
+                apply(pending);
+                pending.clear();
+            }
+        }
+        
+        private void apply(List<Operation> batch) {
+            try {
+                operationFacade.applyOperations(batch);
+                operations += batch.size();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // The batch is all or nothing; replay it one operation at a time so that the import
+                // keeps every operation before the failing one and stops there
+                for (Operation operation : batch) {
+                    operationFacade.applyOperation(operation);
+                    operations++;
                 }
-                
-                // Create operation
-                operationFacade.createOperation(type, accountId, amount, categoryId, description);
             }
         }
+        
+        /**
+         * Builds the name lookups once all accounts and categories are imported
+         */
+        private synchronized void buildLookups() {
+            if (categoryIds != null) {
+                return;
+            }
+            Map<String, UUID> accountLookup = new HashMap<>();
+            for (BankAccount account : bankAccountFacade.getAllBankAccounts()) {
+                accountLookup.putIfAbsent(account.getName(), account.getId());
+            }
+            Map<CategoryKey, UUID> categoryLookup = new HashMap<>();
+            for (Category category : categoryFacade.getAllCategories()) {
+                categoryLookup.putIfAbsent(new CategoryKey(category.getName(), category.getType()), category.getId());
+            }
+            // Published last, readers check categoryIds
+            accountIds = accountLookup;
+            categoryIds = categoryLookup;
+        }
+        
+        ImportStatistics statistics() {
+            return new ImportStatistics(accounts, categories, operations, skippedOperations.sum(), System.nanoTime() - started);
+        }
+    }
+    
+    private record CategoryKey(String name, OperationType type) {
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.hse.finance.util.importer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters of a finished import
+ */
+public class ImportStatistics {
+    private final long accounts;
+    private final long categories;
+    private final long operations;
+    private final long skippedOperations;
+    private final long elapsedNanos;
+
+    public ImportStatistics(long accounts, long categories, long operations, long skippedOperations, long elapsedNanos) {
+        this.accounts = accounts;
+        this.categories = categories;
+        this.operations = operations;
+        this.skippedOperations = skippedOperations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public long getCategories() {
+        return categories;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * Operations not imported because their account or category could not be resolved
+     */
+    public long getSkippedOperations() {
+        return skippedOperations;
+    }
+
+    /**
+     * All rows read, including the skipped ones
+     */
+    public long getRows() {
+        return accounts + categories + operations + skippedOperations;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getRows() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows in %d ms (%.0f rows/s): %d accounts, %d categories, %d operations, %d skipped",
+                getRows(), getElapsedMillis(), getRowsPerSecond(), accounts, categories, operations, skippedOperations);
+    }
+}
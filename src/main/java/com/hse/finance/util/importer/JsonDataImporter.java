@@ -4,28 +4,37 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hse.finance.facade.BankAccountFacade;
 import com.hse.finance.facade.CategoryFacade;
 import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.util.compression.CompressionCodecs;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Map;
 
 /**
  * Importer for JSON format files
  */
 @Component
 public class JsonDataImporter extends DataImporter {
-    private final ObjectMapper objectMapper;
+    private final StreamingDocumentReader reader;
     
     public JsonDataImporter(BankAccountFacade bankAccountFacade, 
                            CategoryFacade categoryFacade, 
                            OperationFacade operationFacade) {
-        super(bankAccountFacade, categoryFacade, operationFacade);
-        this.objectMapper = new ObjectMapper();
+        this(bankAccountFacade, categoryFacade, operationFacade, CompressionCodecs.defaults());
+    }
+    
+    @Autowired
+    public JsonDataImporter(BankAccountFacade bankAccountFacade, 
+                           CategoryFacade categoryFacade, 
+                           OperationFacade operationFacade, 
+                           CompressionCodecs compressionCodecs) {
+        super(bankAccountFacade, categoryFacade, operationFacade, compressionCodecs);
+        this.reader = new StreamingDocumentReader(new ObjectMapper(), compressionCodecs);
     }
     
     @Override
-    protected Map<String, Object> parseFile(File file) throws IOException {
-        return objectMapper.readValue(file, Map.class);
+    protected void readRecords(File file, RecordSink sink) throws IOException {
+        reader.read(file, sink);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.hse.finance.util.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hse.finance.util.compression.CompressionCodecs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads an import document of the form {@code {"accounts": [...], "categories": [...], "operations": [...]}}
+ * with a streaming parser, so only one record is held in memory at a time.
+ *
+ * The file is read twice: accounts and categories first, then operations, because operations
+ * reference the others by name and the sections may appear in any order. Compressed files are
+ * decompressed on both passes.
+ */
+final class StreamingDocumentReader {
+    private final ObjectMapper mapper;
+    private final JavaType recordType;
+    private final CompressionCodecs compressionCodecs;
+
+    StreamingDocumentReader(ObjectMapper mapper, CompressionCodecs compressionCodecs) {
+        this.mapper = mapper;
+        this.compressionCodecs = compressionCodecs;
+        this.recordType = mapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class);
+    }
+
+    void read(File file, DataImporter.RecordSink sink) throws IOException {
+        readSections(file, section -> {
+            switch (section) {
+                case "accounts":
+                    return sink::account;
+                case "categories":
+                    return sink::category;
+                default:
+                    return null;
+            }
+        });
+        readSections(file, section -> "operations".equals(section) ? sink::operation : null);
+    }
+
+    private void readSections(File file, SectionHandlers handlers) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(compressionCodecs.openInput(file))) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected an object at the root of " + file.getName());
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Consumer<Map<String, Object>> handler = handlers.forSection(parser.getCurrentName());
+                JsonToken value = parser.nextToken();
+                if (handler == null || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    handler.accept(mapper.readValue(parser, recordType));
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SectionHandlers {
+        Consumer<Map<String, Object>> forSection(String section);
+    }
+}
@@ -5,28 +5,37 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.hse.finance.facade.BankAccountFacade;
 import com.hse.finance.facade.CategoryFacade;
 import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.util.compression.CompressionCodecs;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Map;
 
 /**
  * Implementation of DataImporter for YAML files
  */
 @Component
 public class YamlDataImporter extends DataImporter {
-    private final ObjectMapper yamlMapper;
+    private final StreamingDocumentReader reader;
 
     public YamlDataImporter(BankAccountFacade bankAccountFacade, 
                            CategoryFacade categoryFacade, 
                            OperationFacade operationFacade) {
-        super(bankAccountFacade, categoryFacade, operationFacade);
-        this.yamlMapper = new ObjectMapper(new YAMLFactory());
+        this(bankAccountFacade, categoryFacade, operationFacade, CompressionCodecs.defaults());
+    }
+
+    @Autowired
+    public YamlDataImporter(BankAccountFacade bankAccountFacade, 
+                           CategoryFacade categoryFacade, 
+                           OperationFacade operationFacade, 
+                           CompressionCodecs compressionCodecs) {
+        super(bankAccountFacade, categoryFacade, operationFacade, compressionCodecs);
+        this.reader = new StreamingDocumentReader(new ObjectMapper(new YAMLFactory()), compressionCodecs);
     }
 
     @Override
-    protected Map<String, Object> parseFile(File file) throws IOException {
-        return yamlMapper.readValue(file, Map.class);
+    protected void readRecords(File file, RecordSink sink) throws IOException {
+        reader.read(file, sink);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.hse.finance.visitor;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.hse.finance.visitor.BinarySnapshotFormat.*;
+
+/**
+ * Visitor for exporting data to the compact binary snapshot format described in
+ * {@link BinarySnapshotFormat}, restored by {@code BinarySnapshotImporter}
+ *
+ * Amounts are written as cents, so operation amounts must have at most two decimals.
+ * Without {@code begin} the result is the Base64 encoded snapshot.
+ */
+@Component
+public class BinaryExportVisitor implements ExportVisitor {
+    private DataOutputStream out;
+    private ByteArrayOutputStream buffer;
+    private String result;
+    private boolean streamed;
+    private Map<UUID, Integer> accountRefs;
+    private Map<UUID, Integer> categoryRefs;
+    private int accountsWritten;
+    private int categoriesWritten;
+
+    @Override
+    public void begin(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(MAGIC);
+        writeVarLong(this.out, VERSION);
+        buffer = null;
+        result = null;
+        streamed = true;
+        accountRefs = new HashMap<>();
+        categoryRefs = new HashMap<>();
+        accountsWritten = 0;
+        categoriesWritten = 0;
+    }
+
+    @Override
+    public void visitBankAccounts(Iterable<BankAccount> accounts) throws IOException {
+        DataOutputStream target = stream();
+        Iterator<BankAccount> records = accounts.iterator();
+        while (records.hasNext()) {
+            Section section = new Section();
+            int count = 0;
+            for (; count < BLOCK_SIZE && records.hasNext(); count++) {
+                BankAccount account = records.next();
+                writeUuid(section.records, account.getId());
+                writeVarLong(section.records, section.string(account.getName()));
+                BigDecimal balance = account.getBalance();
+                byte[] unscaled = balance.unscaledValue().toByteArray();
+                writeZigZag(section.records, balance.scale());
+                writeVarLong(section.records, unscaled.length);
+                section.records.writeBytes(unscaled);
+                accountRefs.putIfAbsent(account.getId(), ++accountsWritten);
+            }
+            section.writeTo(target, ACCOUNTS, count);
+        }
+    }
+
+    @Override
+    public void visitCategories(Iterable<Category> categories) throws IOException {
+        DataOutputStream target = stream();
+        Iterator<Category> records = categories.iterator();
+        while (records.hasNext()) {
+            Section section = new Section();
+            int count = 0;
+            for (; count < BLOCK_SIZE && records.hasNext(); count++) {
+                Category category = records.next();
+                writeUuid(section.records, category.getId());
+                writeVarLong(section.records, section.string(category.getName()));
+                section.records.write(category.getType() == null ? -1 : category.getType().ordinal());
+                categoryRefs.putIfAbsent(category.getId(), ++categoriesWritten);
+            }
+            section.writeTo(target, CATEGORIES, count);
+        }
+    }
+
+    @Override
+    public void visitOperations(Iterable<Operation> operations) throws IOException {
+        DataOutputStream target = stream();
+        Iterator<Operation> records = operations.iterator();
+        while (records.hasNext()) {
+            Section section = new Section();
+            int count = 0;
+            // Time-ordered ids and dates of consecutive operations differ little in their high bits
+            long previousIdBits = 0;
+            long previousSecond = 0;
+            for (; count < BLOCK_SIZE && records.hasNext(); count++) {
+                Operation operation = records.next();
+                long idBits = operation.getId().getMostSignificantBits();
+                writeZigZag(section.records, idBits - previousIdBits);
+                writeFixedLong(section.records, operation.getId().getLeastSignificantBits());
+                previousIdBits = idBits;
+
+                section.records.write(operation.getType().ordinal());
+                writeReference(section.records, accountRefs, operation.getBankAccountId());
+                writeReference(section.records, categoryRefs, operation.getCategoryId());
+                writeZigZag(section.records, operation.getAmountCents());
+
+                long second = operation.getDate().toEpochSecond(ZoneOffset.UTC);
+                writeZigZag(section.records, second - previousSecond);
+                writeVarLong(section.records, operation.getDate().getNano());
+                previousSecond = second;
+
+                writeVarLong(section.records, section.string(operation.getDescription()));
+            }
+            section.writeTo(target, OPERATIONS, count);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        DataOutputStream target = stream();
+        target.writeByte(END);
+        target.flush();
+        out = null;
+    }
+
+    @Override
+    public String getResult() {
+        if (streamed) {
+            throw new IllegalStateException("The export is written to a stream");
+        }
+        if (result == null) {
+            try {
+                finish();
+            } catch (IOException e) {
+                // Writing into a byte array cannot fail
+                throw new UncheckedIOException(e);
+            }
+            result = Base64.getEncoder().encodeToString(buffer.toByteArray());
+            buffer = null;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current stream, starting a buffered export if none was begun
+     */
+    private DataOutputStream stream() throws IOException {
+        if (out == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            begin(bytes);
+            buffer = bytes;
+            streamed = false;
+        }
+        return out;
+    }
+
+    private static void writeUuid(ByteArrayOutputStream out, UUID id) {
+        writeFixedLong(out, id.getMostSignificantBits());
+        writeFixedLong(out, id.getLeastSignificantBits());
+    }
+
+    private static void writeReference(ByteArrayOutputStream out, Map<UUID, Integer> refs, UUID id) {
+        Integer ref = refs.get(id);
+        if (ref != null) {
+            writeVarLong(out, ref);
+        } else {
+            writeVarLong(out, 0);
+            writeUuid(out, id);
+        }
+    }
+
+    /**
+     * Records of one section and the string table they refer to
+     */
+    private static final class Section {
+        private final Map<String, Integer> stringRefs = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream(4096);
+
+        int string(String value) {
+            if (value == null) {
+                return 0;
+            }
+            return stringRefs.computeIfAbsent(value, key -> {
+                strings.add(key);
+                return strings.size();
+            });
+        }
+
+        void writeTo(DataOutputStream out, byte tag, int recordCount) throws IOException {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            writeVarLong(header, strings.size());
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(header, bytes.length);
+                header.writeBytes(bytes);
+            }
+            writeVarLong(header, recordCount);
+
+            out.writeByte(tag);
+            writeVarLong(out, header.size() + records.size());
+            header.writeTo(out);
+            records.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hse.finance.visitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the binary snapshot written by {@link BinaryExportVisitor}
+ *
+ * <pre>
+ * header:    int magic "FSNP", varint version
+ * section:   byte tag, varint payload length, payload; tag 0 ends the file
+ * payload:   varint string count, strings (varint UTF-8 length, bytes), varint record count, records
+ * account:   id (two fixed longs), varint name, zigzag balance scale, varint length + unscaled bytes
+ * category:  id (two fixed longs), varint name, byte type
+ * operation: zigzag delta of the id high bits, fixed id low bits, byte type, varint account,
+ *            varint category, zigzag cents, zigzag delta of the epoch second, varint nanos,
+ *            varint description
+ * </pre>
+ *
+ * Strings are indexes into the section's string table plus one, 0 is null. An operation refers to
+ * an account or category by its position in the file plus one; 0 is followed by the raw id. Deltas
+ * restart in every section, sections hold at most {@link #BLOCK_SIZE} records and readers skip
+ * sections with unknown tags.
+ */
+public final class BinarySnapshotFormat {
+    public static final int MAGIC = 0x46534E50;
+    public static final int VERSION = 1;
+    public static final int BLOCK_SIZE = 65536;
+
+    public static final byte END = 0;
+    public static final byte ACCOUNTS = 1;
+    public static final byte CATEGORIES = 2;
+    public static final byte OPERATIONS = 3;
+
+    private BinarySnapshotFormat() {
+    }
+
+    public static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public static void writeZigZag(ByteArrayOutputStream out, long value) {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    public static void writeFixedLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Writes a varint straight to a stream, for the header and section lengths
+     */
+    public static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public static long readZigZag(ByteBuffer in) {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a varint from a stream, -1 if the stream ends before its first byte
+     */
+    public static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new IOException("Truncated snapshot");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
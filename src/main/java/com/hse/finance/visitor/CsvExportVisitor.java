@@ -5,84 +5,140 @@ import com.hse.finance.model.Category;
 import com.hse.finance.model.Operation;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.StringJoiner;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Visitor for exporting data to CSV format
+ *
+ * Accounts, categories and operations are written as consecutive titled sections of one file.
  */
 @Component
 public class CsvExportVisitor implements ExportVisitor {
-    private final StringBuilder accountsCsv;
-    private final StringBuilder categoriesCsv;
-    private final StringBuilder operationsCsv;
+    private static final String[] SECTION_TITLES = {
+            "=== BANK ACCOUNTS ===\n", "\n=== CATEGORIES ===\n", "\n=== OPERATIONS ===\n"
+    };
+    private static final int ACCOUNTS = 0;
+    private static final int CATEGORIES = 1;
+    private static final int OPERATIONS = 2;
 
-    public CsvExportVisitor() {
-        this.accountsCsv = new StringBuilder();
-        this.categoriesCsv = new StringBuilder();
-        this.operationsCsv = new StringBuilder();
+    private Writer writer;
+    private ByteArrayOutputStream buffer;
+    private String result;
+    private boolean streamed;
+    private int sectionsWritten;
+
+    @Override
+    public void begin(OutputStream out) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        buffer = null;
+        result = null;
+        streamed = true;
+        sectionsWritten = 0;
     }
 
     @Override
-    public void visitBankAccounts(List<BankAccount> accounts) {
-        accountsCsv.append("id,name,balance\n");
+    public void visitBankAccounts(Iterable<BankAccount> accounts) throws IOException {
+        Writer out = section(ACCOUNTS);
+        out.write("id,name,balance\n");
         
         for (BankAccount account : accounts) {
-            StringJoiner joiner = new StringJoiner(",");
-            joiner.add(account.getId().toString());
-            joiner.add(escapeField(account.getName()));
-            joiner.add(account.getBalance().toString());
-            
-            accountsCsv.append(joiner).append("\n");
+            out.write(account.getId().toString());
+            out.write(',');
+            out.write(escapeField(account.getName()));
+            out.write(',');
+            out.write(account.getBalance().toString());
+            out.write('\n');
         }
     }
 
     @Override
-    public void visitCategories(List<Category> categories) {
-        categoriesCsv.append("id,name,type\n");
+    public void visitCategories(Iterable<Category> categories) throws IOException {
+        Writer out = section(CATEGORIES);
+        out.write("id,name,type\n");
         
         for (Category category : categories) {
-            StringJoiner joiner = new StringJoiner(",");
-            joiner.add(category.getId().toString());
-            joiner.add(escapeField(category.getName()));
-            joiner.add(category.getType().name());
-            
-            categoriesCsv.append(joiner).append("\n");
+            out.write(category.getId().toString());
+            out.write(',');
+            out.write(escapeField(category.getName()));
+            out.write(',');
+            out.write(category.getType().name());
+            out.write('\n');
         }
     }
 
     @Override
-    public void visitOperations(List<Operation> operations) {
-        operationsCsv.append("id,type,amount,date,bank_account_id,category_id,description\n");
+    public void visitOperations(Iterable<Operation> operations) throws IOException {
+        Writer out = section(OPERATIONS);
+        out.write("id,type,amount,date,bank_account_id,category_id,description\n");
         
         for (Operation operation : operations) {
-            StringJoiner joiner = new StringJoiner(",");
-            joiner.add(operation.getId().toString());
-            joiner.add(operation.getType().name());
-            joiner.add(operation.getAmount().toString());
-            joiner.add(operation.getDate().toString());
-            joiner.add(operation.getBankAccountId().toString());
-            joiner.add(operation.getCategoryId().toString());
-            
-            String description = operation.getDescription() != null ? 
-                    escapeField(operation.getDescription()) : "";
-            joiner.add(description);
-            
-            operationsCsv.append(joiner).append("\n");
+            out.write(operation.getId().toString());
+            out.write(',');
+            out.write(operation.getType().name());
+            out.write(',');
+            out.write(operation.getAmount().toString());
+            out.write(',');
+            out.write(operation.getDate().toString());
+            out.write(',');
+            out.write(operation.getBankAccountId().toString());
+            out.write(',');
+            out.write(operation.getCategoryId().toString());
+            out.write(',');
+            out.write(escapeField(operation.getDescription()));
+            out.write('\n');
         }
     }
 
+    @Override
+    public void finish() throws IOException {
+        // Titles of the sections that were not visited
+        section(SECTION_TITLES.length);
+        writer.flush();
+        writer = null;
+    }
+
     @Override
     public String getResult() {
-        StringBuilder result = new StringBuilder();
-        result.append("=== BANK ACCOUNTS ===\n")
-              .append(accountsCsv)
-              .append("\n=== CATEGORIES ===\n")
-              .append(categoriesCsv)
-              .append("\n=== OPERATIONS ===\n")
-              .append(operationsCsv);
-        
-        return result.toString();
+        if (streamed) {
+            throw new IllegalStateException("The export is written to a stream");
+        }
+        if (result == null) {
+            try {
+                finish();
+            } catch (IOException e) {
+                // Writing into a byte array cannot fail
+                throw new UncheckedIOException(e);
+            }
+            result = buffer.toString(StandardCharsets.UTF_8);
+            buffer = null;
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the titles up to the given section, starting a buffered export if none was begun
+     */
+    private Writer section(int index) throws IOException {
+        if (writer == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            begin(bytes);
+            buffer = bytes;
+            streamed = false;
+        }
+        if (index < sectionsWritten) {
+            throw new IllegalStateException("Sections must be visited in order: accounts, categories, operations");
+        }
+        while (sectionsWritten < Math.min(index + 1, SECTION_TITLES.length)) {
+            writer.write(SECTION_TITLES[sectionsWritten++]);
+        }
+        return writer;
     }
     
     /**
@@ -99,4 +155,4 @@ public class CsvExportVisitor implements ExportVisitor {
         
         return field;
     }
-} 
\ No newline at end of file
+}
@@ -4,14 +4,25 @@ import com.hse.finance.model.BankAccount;
 import com.hse.finance.model.Category;
 import com.hse.finance.model.Operation;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Visitor interface for exporting finance data
+ *
+ * An export is {@link #begin}, any of the visit methods, then {@link #finish}; every record is
+ * written to the stream as it is visited, so the records may be read lazily while iterating. Each
+ * section is visited at most once. Without {@code begin} the visitor buffers the document in memory
+ * and {@link #getResult} returns it.
  */
 public interface ExportVisitor {
-    void visitBankAccounts(List<BankAccount> accounts);
-    void visitCategories(List<Category> categories);
-    void visitOperations(List<Operation> operations);
+    /**
+     * Starts a document written directly to the stream, which is flushed but not closed by {@link #finish}
+     */
+    void begin(OutputStream out) throws IOException;
+    void visitBankAccounts(Iterable<BankAccount> accounts) throws IOException;
+    void visitCategories(Iterable<Category> categories) throws IOException;
+    void visitOperations(Iterable<Operation> operations) throws IOException;
+    void finish() throws IOException;
     String getResult();
-} 
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package com.hse.finance.visitor;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Base of the visitors writing a Jackson document of the form
+ * {@code {"accounts": [...], "categories": [...], "operations": [...]}} through a streaming generator
+ *
+ * Sections may be visited in any order, but a section visited twice is rejected, as it would repeat
+ * the field.
+ */
+abstract class JacksonExportVisitor implements ExportVisitor {
+    private final JsonFactory factory;
+    private final Set<String> sections = new HashSet<>();
+    private JsonGenerator generator;
+    private ByteArrayOutputStream buffer;
+    private String result;
+    private boolean streamed;
+
+    protected JacksonExportVisitor(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Hook to configure the generator, e.g. pretty printing
+     */
+    protected void configure(JsonGenerator generator) {
+    }
+
+    @Override
+    public void begin(OutputStream out) throws IOException {
+        buffer = null;
+        result = null;
+        streamed = true;
+        sections.clear();
+        generator = factory.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        configure(generator);
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void visitBankAccounts(Iterable<BankAccount> accounts) throws IOException {
+        JsonGenerator out = section("accounts");
+        
+        for (BankAccount account : accounts) {
+            out.writeStartObject();
+            out.writeStringField("id", account.getId().toString());
+            out.writeStringField("name", account.getName());
+            out.writeStringField("balance", account.getBalance().toString());
+            out.writeEndObject();
+        }
+        
+        out.writeEndArray();
+    }
+
+    @Override
+    public void visitCategories(Iterable<Category> categories) throws IOException {
+        JsonGenerator out = section("categories");
+        
+        for (Category category : categories) {
+            out.writeStartObject();
+            out.writeStringField("id", category.getId().toString());
+            out.writeStringField("name", category.getName());
+            out.writeStringField("type", category.getType().name());
+            out.writeEndObject();
+        }
+        
+        out.writeEndArray();
+    }
+
+    @Override
+    public void visitOperations(Iterable<Operation> operations) throws IOException {
+        JsonGenerator out = section("operations");
+        
+        for (Operation operation : operations) {
+            out.writeStartObject();
+            out.writeStringField("id", operation.getId().toString());
+            out.writeStringField("type", operation.getType().name());
+            out.writeStringField("amount", operation.getAmount().toString());
+            out.writeStringField("date", operation.getDate().toString());
+            out.writeStringField("bank_account_id", operation.getBankAccountId().toString());
+            out.writeStringField("category_id", operation.getCategoryId().toString());
+            
+            if (operation.getDescription() != null) {
+                out.writeStringField("description", operation.getDescription());
+            }
+            
+            out.writeEndObject();
+        }
+        
+        out.writeEndArray();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        JsonGenerator out = generator();
+        out.writeEndObject();
+        out.close();
+        generator = null;
+    }
+
+    @Override
+    public String getResult() {
+        if (streamed) {
+            throw new IllegalStateException("The export is written to a stream");
+        }
+        if (result == null) {
+            try {
+                finish();
+            } catch (IOException e) {
+                // Writing into a byte array cannot fail
+                throw new UncheckedIOException(e);
+            }
+            result = buffer.toString(StandardCharsets.UTF_8);
+            buffer = null;
+        }
+        return result;
+    }
+
+    /**
+     * Starts the array field of a section that was not visited yet
+     */
+    private JsonGenerator section(String name) throws IOException {
+        JsonGenerator out = generator();
+        if (!sections.add(name)) {
+            throw new IllegalStateException("Section " + name + " was already visited");
+        }
+        out.writeArrayFieldStart(name);
+        return out;
+    }
+
+    private JsonGenerator generator() throws IOException {
+        if (generator == null) {
+            // Visited without begin: buffer the document for getResult
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            begin(bytes);
+            buffer = bytes;
+            streamed = false;
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,81 @@
+package com.hse.finance.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandExecutorTest {
+    private final CommandExecutor executor = new CommandExecutor(16, 2, 4);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_ShouldCompleteWithCommandResult() throws Exception {
+        // When
+        CompletableFuture<String> future = executor.submit("Test", () -> "done");
+
+        // Then
+        assertEquals("done", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_WhenCommandFails_ShouldCompleteExceptionally() {
+        // When
+        CompletableFuture<Object> future = executor.submit("Test", () -> {
+            throw new IllegalArgumentException("Bad command");
+        });
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void submit_ShouldNotRunMoreCommandsOfOneTypeThanLimit() throws Exception {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Command<Void> command = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return null;
+        };
+
+        // When
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit("Limited", command));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(0, executor.getInFlight());
+    }
+
+    @Test
+    void shared_ShouldReturnOneExecutor() throws Exception {
+        // When
+        CommandExecutor shared = CommandExecutor.shared();
+
+        // Then
+        assertSame(shared, CommandExecutor.shared());
+        assertEquals("done", shared.submit("Test", () -> "done").get(5, TimeUnit.SECONDS));
+    }
+}
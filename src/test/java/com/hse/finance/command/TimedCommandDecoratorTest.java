@@ -1,5 +1,7 @@
 package com.hse.finance.command;
 
+import com.hse.finance.service.metrics.CommandMetrics;
+import com.hse.finance.service.metrics.MetricsRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -53,4 +55,26 @@ class TimedCommandDecoratorTest {
         RuntimeException actualException = assertThrows(RuntimeException.class, decorator::execute);
         assertSame(expectedException, actualException);
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void execute_ShouldRecordOutcomeInRegistry() {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry();
+        Command<String> succeeding = () -> "ok";
+        Command<String> failing = () -> {
+            throw new IllegalStateException("Test exception");
+        };
+        
+        // When
+        new TimedCommandDecorator<>(succeeding, "TestCommand", registry).execute();
+        assertThrows(IllegalStateException.class,
+                () -> new TimedCommandDecorator<>(failing, "TestCommand", registry).execute());
+        
+        // Then
+        CommandMetrics.Snapshot snapshot = registry.command("TestCommand").snapshot();
+        assertEquals(1, snapshot.getSuccesses());
+        assertEquals(1, snapshot.getFailures());
+        assertEquals(0, snapshot.getInFlight());
+        assertEquals(2, snapshot.getLatency().getCount());
+    }
+}
@@ -0,0 +1,210 @@
+package com.hse.finance.facade;
+
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.analytics.MonthlySpendingRanking;
+import com.hse.finance.service.analytics.OperationAggregates;
+import com.hse.finance.service.analytics.TrendGranularity;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsFacadeTest {
+
+    private OperationRepository operationRepository;
+    private CategoryRepository categoryRepository;
+    private OperationAggregates aggregates;
+    private MonthlySpendingRanking ranking;
+    private AnalyticsFacade facade;
+
+    private UUID accountId;
+    private Category salary;
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        operationRepository = new OperationRepository();
+        categoryRepository = new CategoryRepository();
+        aggregates = new OperationAggregates(operationRepository);
+        ranking = new MonthlySpendingRanking(Clock.fixed(Instant.parse("2024-01-20T12:00:00Z"), ZoneOffset.UTC));
+        facade = new AnalyticsFacade(operationRepository, categoryRepository, aggregates, ranking);
+
+        accountId = UUID.randomUUID();
+        salary = category("Salary", OperationType.INCOME);
+        food = category("Food", OperationType.EXPENSE);
+        rent = category("Rent", OperationType.EXPENSE);
+
+        record(salary, "1000.00", LocalDateTime.of(2024, 1, 1, 9, 0));
+        record(food, "15.50", LocalDateTime.of(2024, 1, 1, 20, 0));
+        record(rent, "400.00", LocalDateTime.of(2024, 1, 5, 10, 0));
+        record(food, "30.00", LocalDateTime.of(2024, 1, 10, 8, 0));
+        record(food, "12.25", LocalDateTime.of(2024, 1, 10, 23, 30));
+        record(salary, "500.00", LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void calculateBalanceDifference_WithWholeDays_ShouldUseAllOperations() {
+        // When
+        BigDecimal result = facade.calculateBalanceDifference(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+
+        // Then
+        assertEquals(0, new BigDecimal("1042.25").compareTo(result));
+    }
+
+    @Test
+    void calculateBalanceDifference_WithPartialDays_ShouldMatchScan() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+        // When
+        BigDecimal result = facade.calculateBalanceDifference(start, end);
+
+        // Then
+        assertEquals(0, scanBalanceDifference(start, end).compareTo(result));
+        assertEquals(0, new BigDecimal("-445.50").compareTo(result));
+    }
+
+    @Test
+    void groupOperationsByCategory_ShouldMatchScan() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 10, 9, 0);
+
+        // When
+        Map<Category, BigDecimal> result = facade.groupOperationsByCategory(start, end);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(0, new BigDecimal("45.50").compareTo(result.get(food)));
+        assertEquals(0, new BigDecimal("400.00").compareTo(result.get(rent)));
+    }
+
+    @Test
+    void getTopSpendingCategories_ShouldIgnoreDeletedOperations() {
+        // Given
+        Operation removed = operationRepository.findByCategoryId(rent.getId()).get(0);
+        operationRepository.deleteById(removed.getId());
+        ranking.onOperationDeleted(removed);
+
+        // When
+        List<Map.Entry<Category, BigDecimal>> result = facade.getTopSpendingCategories(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 12, 31, 0, 0), 5);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(food, result.get(0).getKey());
+        assertEquals(0, new BigDecimal("57.75").compareTo(result.get(0).getValue()));
+    }
+
+    @Test
+    void calculateBalanceDifference_AfterOperationReplacedInRepository_ShouldCountNewVersion() {
+        // Given
+        Operation stored = operationRepository.findByCategoryId(rent.getId()).get(0);
+        operationRepository.save(Operation.builder()
+                .id(stored.getId())
+                .type(OperationType.EXPENSE)
+                .bankAccountId(accountId)
+                .amount(new BigDecimal("100.00"))
+                .date(LocalDateTime.of(2024, 1, 20, 10, 0))
+                .categoryId(rent.getId())
+                .build());
+
+        // When
+        BigDecimal result = facade.calculateBalanceDifference(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+
+        // Then
+        assertEquals(0, new BigDecimal("1342.25").compareTo(result));
+        assertEquals(1, aggregates.countForCategory(rent.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+    }
+
+    @Test
+    void getTopSpendingCategoriesThisMonth_ShouldRankCurrentMonthExpenses() {
+        // Given
+        record(food, "500.00", LocalDateTime.of(2024, 2, 3, 10, 0));
+        Operation removed = operationRepository.findByCategoryId(rent.getId()).get(0);
+        operationRepository.deleteById(removed.getId());
+        ranking.onOperationDeleted(removed);
+        record(rent, "40.00", LocalDateTime.of(2024, 1, 15, 10, 0));
+
+        // When
+        List<Map.Entry<Category, BigDecimal>> top = facade.getTopSpendingCategoriesThisMonth(1);
+        List<Map.Entry<Category, BigDecimal>> all = facade.getTopSpendingCategoriesThisMonth(5);
+
+        // Then
+        assertEquals(1, top.size());
+        assertEquals(food, top.get(0).getKey());
+        assertEquals(0, new BigDecimal("57.75").compareTo(top.get(0).getValue()));
+        assertEquals(List.of(food, rent), all.stream().map(Map.Entry::getKey).toList());
+        assertEquals(0, new BigDecimal("40.00").compareTo(all.get(1).getValue()));
+    }
+
+    @Test
+    void getTrendForCategory_ShouldSumPeriodsInsideWindow() {
+        // Given
+        record(food, "5.00", LocalDateTime.of(2024, 3, 31, 12, 0));
+
+        // When
+        Map<LocalDate, BigDecimal> weekly = facade.getTrendForCategory(
+                food.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), TrendGranularity.WEEK);
+        Map<LocalDate, BigDecimal> monthly = facade.getTrendForCategory(
+                food.getId(), LocalDate.of(2024, 1, 5), LocalDate.of(2024, 3, 31), TrendGranularity.MONTH);
+        Map<LocalDate, BigDecimal> quarterly = facade.getTrendForCategory(
+                food.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), TrendGranularity.QUARTER);
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8)), List.copyOf(weekly.keySet()));
+        assertEquals(0, new BigDecimal("15.50").compareTo(weekly.get(LocalDate.of(2024, 1, 1))));
+        assertEquals(0, new BigDecimal("42.25").compareTo(weekly.get(LocalDate.of(2024, 1, 8))));
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)), List.copyOf(monthly.keySet()));
+        assertEquals(0, new BigDecimal("42.25").compareTo(monthly.get(LocalDate.of(2024, 1, 1))));
+        assertEquals(1, quarterly.size());
+        assertEquals(0, new BigDecimal("62.75").compareTo(quarterly.get(LocalDate.of(2024, 1, 1))));
+    }
+
+    private BigDecimal scanBalanceDifference(LocalDateTime start, LocalDateTime end) {
+        BigDecimal difference = BigDecimal.ZERO;
+        for (Operation operation : operationRepository.findByDateBetween(start, end)) {
+            difference = operation.getType() == OperationType.INCOME
+                    ? difference.add(operation.getAmount())
+                    : difference.subtract(operation.getAmount());
+        }
+        return difference;
+    }
+
+    private Category category(String name, OperationType type) {
+        Category category = Category.builder().id(UUID.randomUUID()).name(name).type(type).build();
+        categoryRepository.save(category);
+        return category;
+    }
+
+    private void record(Category category, String amount, LocalDateTime date) {
+        Operation operation = Operation.builder()
+                .id(UUID.randomUUID())
+                .type(category.getType())
+                .bankAccountId(accountId)
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .categoryId(category.getId())
+                .build();
+        operationRepository.save(operation);
+        ranking.onOperationCreated(operation);
+    }
+}
@@ -110,7 +110,7 @@ class BankAccountFacadeTest {
         
         // Then
         assertTrue(result);
-        verify(operationRepository).deleteByBankAccountId(accountId);
+        verify(operationRepository, atLeastOnce()).findByBankAccountId(accountId);
         verify(bankAccountRepository).deleteById(accountId);
     }
     
@@ -126,7 +126,7 @@ class BankAccountFacadeTest {
         
         // Then
         assertFalse(result);
-        verify(operationRepository, never()).deleteByBankAccountId(any(UUID.class));
+        verify(operationRepository, never()).findByBankAccountId(any(UUID.class));
         verify(bankAccountRepository, never()).deleteById(any(UUID.class));
     }
     
@@ -178,4 +178,14 @@ class BankAccountFacadeTest {
         assertFalse(result.isPresent());
         verify(bankAccountRepository).findById(accountId);
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void recalculateBalance_WithoutLedger_ShouldThrowException() {
+        // Given
+        UUID id = UUID.randomUUID();
+        
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> facade.recalculateBalance(id));
+        verify(bankAccountRepository, never()).save(any(BankAccount.class));
+    }
+}
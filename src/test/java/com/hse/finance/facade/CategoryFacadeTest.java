@@ -0,0 +1,75 @@
+package com.hse.finance.facade;
+
+import com.hse.finance.factory.BankAccountFactory;
+import com.hse.finance.factory.CategoryFactory;
+import com.hse.finance.factory.OperationFactory;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.analytics.MonthlySpendingRanking;
+import com.hse.finance.service.analytics.OperationAggregates;
+import com.hse.finance.service.cascade.CascadeDeleteService;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryFacadeTest {
+
+    private BankAccountRepositoryProxy accounts;
+    private OperationFacade operationFacade;
+    private CategoryFacade categoryFacade;
+    private AnalyticsFacade analyticsFacade;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        accounts = new BankAccountRepositoryProxy(new BankAccountRepository());
+        CategoryRepository categories = new CategoryRepository();
+        OperationRepository operations = new OperationRepository();
+        AccountLocks accountLocks = new AccountLocks();
+        OperationAggregates aggregates = new OperationAggregates(operations);
+        MonthlySpendingRanking ranking = new MonthlySpendingRanking();
+
+        operationFacade = new OperationFacade(new OperationFactory(), operations, accounts, categories,
+                List.of(aggregates, ranking), accountLocks);
+        categoryFacade = new CategoryFacade(new CategoryFactory(), categories,
+                new CascadeDeleteService(operations, accounts, List.of(aggregates, ranking), accountLocks));
+        analyticsFacade = new AnalyticsFacade(operations, categories, aggregates, ranking);
+        account = new BankAccountFacade(new BankAccountFactory(), accounts, operations)
+                .createBankAccount("Main", new BigDecimal("100.00"));
+    }
+
+    @Test
+    void deleteCategory_ShouldRevertBalancesAndAggregatedAnalytics() {
+        // Given
+        Category salary = categoryFacade.createCategory("Salary", OperationType.INCOME);
+        Category food = categoryFacade.createCategory("Food", OperationType.EXPENSE);
+        operationFacade.createOperation(OperationType.INCOME, account.getId(), new BigDecimal("50.00"), salary.getId(), null);
+        operationFacade.createOperation(OperationType.EXPENSE, account.getId(), new BigDecimal("30.00"), food.getId(), null);
+        LocalDateTime start = LocalDate.now().minusDays(1).atStartOfDay();
+        LocalDateTime end = LocalDate.now().plusDays(1).atStartOfDay();
+
+        // When
+        boolean deleted = categoryFacade.deleteCategory(food.getId());
+
+        // Then
+        assertTrue(deleted);
+        assertEquals(new BigDecimal("150.00"), accounts.findById(account.getId()).orElseThrow().getBalance());
+        assertEquals(0, new BigDecimal("50.00").compareTo(analyticsFacade.calculateBalanceDifference(start, end)));
+        Map<Category, BigDecimal> byCategory = analyticsFacade.groupOperationsByCategory(start, end);
+        assertEquals(1, byCategory.size());
+        assertFalse(byCategory.containsKey(food));
+    }
+}
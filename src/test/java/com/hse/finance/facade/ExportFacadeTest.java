@@ -0,0 +1,60 @@
+package com.hse.finance.facade;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.visitor.CsvExportVisitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportFacadeTest {
+
+    @Mock
+    private BankAccountRepositoryProxy bankAccountRepository;
+
+    @Mock
+    private OperationRepository operationRepository;
+
+    @Test
+    void exportData_ShouldReadOperationsAccountByAccount() throws Exception {
+        // Given
+        BankAccount main = BankAccount.builder().id(UUID.randomUUID()).name("Main").balance(BigDecimal.TEN).build();
+        BankAccount spare = BankAccount.builder().id(UUID.randomUUID()).name("Spare").balance(BigDecimal.ONE).build();
+        Operation operation = Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.INCOME)
+                .bankAccountId(main.getId())
+                .categoryId(UUID.randomUUID())
+                .amount(new BigDecimal("5.00"))
+                .date(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .build();
+        when(bankAccountRepository.findAll()).thenReturn(List.of(main, spare));
+        when(operationRepository.findByBankAccountId(main.getId())).thenReturn(List.of(operation));
+        when(operationRepository.findByBankAccountId(spare.getId())).thenReturn(List.of());
+        ExportFacade facade = new ExportFacade(bankAccountRepository, new CategoryRepository(), operationRepository);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        facade.exportData(new CsvExportVisitor(), out);
+
+        // Then
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(operation.getId().toString()));
+        verify(operationRepository, never()).findAll();
+    }
+}
@@ -0,0 +1,127 @@
+package com.hse.finance.facade;
+
+import com.hse.finance.factory.OperationFactory;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationFacadeConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private BankAccountRepositoryProxy accounts;
+    private OperationRepository operations;
+    private OperationFacade facade;
+    private Category income;
+    private Category expense;
+
+    @BeforeEach
+    void setUp() {
+        accounts = new BankAccountRepositoryProxy(new BankAccountRepository());
+        CategoryRepository categories = new CategoryRepository();
+        operations = new OperationRepository();
+        facade = new OperationFacade(new OperationFactory(), operations, accounts, categories, List.of());
+
+        income = Category.builder().id(UUID.randomUUID()).name("Salary").type(OperationType.INCOME).build();
+        expense = Category.builder().id(UUID.randomUUID()).name("Food").type(OperationType.EXPENSE).build();
+        categories.save(income);
+        categories.save(expense);
+    }
+
+    @Test
+    void createOperation_FromManyThreads_ShouldNotLoseUpdates() throws Exception {
+        // Given
+        List<UUID> accountIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accountIds.add(account("0.00"));
+        }
+        int perThread = 2_000;
+
+        // When: every thread adds 2.00 and spends 1.00 per step on every account
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                UUID accountId = accountIds.get((thread + i) % accountIds.size());
+                facade.createOperation(OperationType.INCOME, accountId, new BigDecimal("2.00"), income.getId(), null);
+                facade.createOperation(OperationType.EXPENSE, accountId, new BigDecimal("1.00"), expense.getId(), null);
+            }
+        });
+
+        // Then
+        BigDecimal total = accountIds.stream()
+                .map(id -> accounts.findById(id).orElseThrow().getBalance())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(new BigDecimal(THREADS * perThread).setScale(2), total);
+        assertEquals(THREADS * perThread * 2, operations.findAll().size());
+    }
+
+    @Test
+    void createOperation_WithConcurrentExpenses_ShouldNeverOverdraw() throws Exception {
+        // Given
+        UUID accountId = account("100.00");
+        AtomicInteger rejected = new AtomicInteger();
+
+        // When: 8 threads try to spend 10.00 twenty times each
+        runConcurrently(thread -> {
+            for (int i = 0; i < 20; i++) {
+                try {
+                    facade.createOperation(OperationType.EXPENSE, accountId, new BigDecimal("10.00"), expense.getId(), null);
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        // Then
+        assertEquals(new BigDecimal("0.00"), accounts.findById(accountId).orElseThrow().getBalance());
+        assertEquals(10, operations.findAll().size());
+        assertEquals(THREADS * 20 - 10, rejected.get());
+    }
+
+    private UUID account(String balance) {
+        BankAccount account = BankAccount.builder().id(UUID.randomUUID()).name("Account").balance(new BigDecimal(balance)).build();
+        accounts.save(account);
+        return account.getId();
+    }
+
+    private void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int index = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                body.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
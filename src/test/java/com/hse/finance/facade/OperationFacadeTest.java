@@ -0,0 +1,159 @@
+package com.hse.finance.facade;
+
+import com.hse.finance.factory.OperationFactory;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationRequest;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationFacadeTest {
+
+    private BankAccountRepositoryProxy accounts;
+    private OperationRepository operations;
+    private OperationFacade facade;
+    private List<Operation> observed;
+    private Category salary;
+    private Category food;
+    private UUID firstAccountId;
+    private UUID secondAccountId;
+
+    @BeforeEach
+    void setUp() {
+        accounts = new BankAccountRepositoryProxy(new BankAccountRepository());
+        CategoryRepository categories = new CategoryRepository();
+        operations = new OperationRepository();
+        observed = new ArrayList<>();
+        OperationObserver observer = new OperationObserver() {
+            @Override
+            public void onOperationCreated(Operation operation) {
+                observed.add(operation);
+            }
+
+            @Override
+            public void onOperationDeleted(Operation operation) {
+            }
+
+            @Override
+            public void onOperationsReloaded(Collection<Operation> operations) {
+            }
+        };
+        facade = new OperationFacade(new OperationFactory(), operations, accounts, categories, List.of(observer));
+
+        salary = Category.builder().id(UUID.randomUUID()).name("Salary").type(OperationType.INCOME).build();
+        food = Category.builder().id(UUID.randomUUID()).name("Food").type(OperationType.EXPENSE).build();
+        categories.save(salary);
+        categories.save(food);
+        firstAccountId = account("10.00");
+        secondAccountId = account("0.00");
+    }
+
+    @Test
+    void createOperations_ShouldApplyNetBalancePerAccount() {
+        // Given
+        List<OperationRequest> requests = List.of(
+                new OperationRequest(OperationType.EXPENSE, firstAccountId, new BigDecimal("10.00"), food.getId(), null),
+                new OperationRequest(OperationType.INCOME, firstAccountId, new BigDecimal("5.50"), salary.getId(), "Bonus"),
+                new OperationRequest(OperationType.INCOME, secondAccountId, new BigDecimal("3.00"), salary.getId(), null));
+
+        // When
+        List<Operation> result = facade.createOperations(requests);
+
+        // Then
+        assertEquals(3, result.size());
+        assertEquals(new BigDecimal("5.50"), balance(firstAccountId));
+        assertEquals(new BigDecimal("3.00"), balance(secondAccountId));
+        assertEquals(3, operations.findAll().size());
+        assertEquals(result, observed);
+    }
+
+    @Test
+    void createOperations_WhenRunningBalanceGoesNegative_ShouldApplyNothing() {
+        // Given: the income would cover the expense, but only after it
+        List<OperationRequest> requests = List.of(
+                new OperationRequest(OperationType.INCOME, secondAccountId, new BigDecimal("1.00"), salary.getId(), null),
+                new OperationRequest(OperationType.EXPENSE, firstAccountId, new BigDecimal("15.00"), food.getId(), null),
+                new OperationRequest(OperationType.INCOME, firstAccountId, new BigDecimal("20.00"), salary.getId(), null));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> facade.createOperations(requests));
+        assertEquals(new BigDecimal("10.00"), balance(firstAccountId));
+        assertEquals(new BigDecimal("0.00"), balance(secondAccountId));
+        assertTrue(operations.findAll().isEmpty());
+        assertTrue(observed.isEmpty());
+    }
+
+    @Test
+    void createOperations_WithMismatchedCategory_ShouldThrowException() {
+        // Given
+        List<OperationRequest> requests = List.of(
+                new OperationRequest(OperationType.INCOME, firstAccountId, new BigDecimal("1.00"), food.getId(), null));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> facade.createOperations(requests));
+        assertTrue(operations.findAll().isEmpty());
+    }
+
+    @Test
+    void applyOperations_WithIncompleteOperationInBatch_ShouldStoreNothing() {
+        // Given: the indexed store would keep the first operation before failing on the second
+        Operation valid = operation(firstAccountId, LocalDateTime.of(2024, 1, 1, 10, 0));
+        Operation undated = operation(firstAccountId, null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> facade.applyOperations(List.of(valid, undated)));
+        assertTrue(operations.findAll().isEmpty());
+        assertEquals(new BigDecimal("10.00"), balance(firstAccountId));
+        assertTrue(observed.isEmpty());
+    }
+
+    @Test
+    void applyOperations_WithNegativeAmount_ShouldStoreNothing() {
+        // Given: the balance covers the negative income, so the running balance check alone passes it
+        Operation valid = operation(firstAccountId, LocalDateTime.of(2024, 1, 1, 10, 0));
+        Operation negative = operation(firstAccountId, LocalDateTime.of(2024, 1, 1, 11, 0));
+        negative.setAmount(new BigDecimal("-5.00"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> facade.applyOperations(List.of(valid, negative)));
+        assertTrue(operations.findAll().isEmpty());
+        assertEquals(new BigDecimal("10.00"), balance(firstAccountId));
+    }
+
+    private Operation operation(UUID accountId, LocalDateTime date) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.INCOME)
+                .bankAccountId(accountId)
+                .categoryId(salary.getId())
+                .amount(new BigDecimal("1.00"))
+                .date(date)
+                .build();
+    }
+
+    private UUID account(String balance) {
+        BankAccount account = BankAccount.builder().id(UUID.randomUUID()).name("Account").balance(new BigDecimal(balance)).build();
+        accounts.save(account);
+        return account.getId();
+    }
+
+    private BigDecimal balance(UUID accountId) {
+        return accounts.findById(accountId).orElseThrow().getBalance();
+    }
+}
@@ -69,6 +69,18 @@ class BankAccountFactoryTest {
         });
     }
     
+    @Test
+    void createBankAccount_WithFractionalCents_ShouldThrowException() {
+        // Given
+        String name = "Test Account";
+        BigDecimal initialBalance = new BigDecimal("10.005");
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            factory.createBankAccount(name, initialBalance);
+        });
+    }
+    
     @Test
     void createBankAccount_WithNullBalance_ShouldSetZeroBalance() {
         // Given
@@ -79,6 +91,6 @@ class BankAccountFactoryTest {
         BankAccount account = factory.createBankAccount(name, initialBalance);
         
         // Then
-        assertEquals(BigDecimal.ZERO, account.getBalance());
+        assertEquals(new BigDecimal("0.00"), account.getBalance());
     }
 } 
\ No newline at end of file
@@ -120,6 +120,21 @@ class OperationFactoryTest {
         });
     }
     
+    @Test
+    void createOperation_WithFractionOfCent_ShouldThrowException() {
+        // Given
+        OperationType type = OperationType.EXPENSE;
+        UUID bankAccountId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("10.005");
+        UUID categoryId = UUID.randomUUID();
+        String description = "Test description";
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            factory.createOperation(type, bankAccountId, amount, categoryId, description);
+        });
+    }
+    
     @Test
     void createOperation_WithNullCategoryId_ShouldThrowException() {
         // Given
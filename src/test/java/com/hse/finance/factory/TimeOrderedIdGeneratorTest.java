@@ -0,0 +1,46 @@
+package com.hse.finance.factory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    void nextId_ShouldReturnUniqueVersion7Ids() {
+        // Given
+        Set<UUID> ids = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        // Then
+        assertEquals(10_000, ids.size());
+        UUID id = ids.iterator().next();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void nextId_ShouldOrderIdsOfLaterMillisecondsAfterEarlierOnes() throws InterruptedException {
+        // Given
+        long before = System.currentTimeMillis();
+        UUID first = generator.nextId();
+        Thread.sleep(2);
+
+        // When
+        UUID second = generator.nextId();
+
+        // Then
+        assertTrue(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits()) < 0);
+        assertTrue((first.getMostSignificantBits() >>> 16) >= before);
+    }
+}
@@ -0,0 +1,28 @@
+package com.hse.finance.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void toCents_ShouldConvertAmountsWithAtMostTwoDecimals() {
+        // When & Then
+        assertEquals(1250, Money.toCents(new BigDecimal("12.5")));
+        assertEquals(-7, Money.toCents(new BigDecimal("-0.07")));
+        assertEquals(300, Money.toCents(new BigDecimal("3.000")));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("0.001")));
+        assertEquals(new BigDecimal("12.50"), Money.toBigDecimal(1250));
+    }
+
+    @Test
+    void add_WhenSumOverflows_ShouldThrowException() {
+        // When & Then
+        assertEquals(5, Money.add(2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.hse.finance.proxy;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    @Test
+    void get_WhenFull_ShouldEvictLeastRecentlyUsedEntry() {
+        // Given
+        BoundedCache<Integer, String> cache = new BoundedCache<>(1, null);
+        cache.put(1, "one");
+
+        // When
+        cache.put(2, "two");
+
+        // Then
+        assertNull(cache.getIfPresent(1));
+        assertEquals("two", cache.getIfPresent(2));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void get_WhenLoadedConcurrently_ShouldCallLoaderOnce() throws Exception {
+        // Given
+        BoundedCache<String, String> cache = new BoundedCache<>(16, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(pool.submit(() -> cache.get("key", key -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value";
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEntry() {
+        // Given
+        BoundedCache<Integer, String> cache = new BoundedCache<>(16, null);
+        cache.get(1, key -> "one");
+
+        // When
+        cache.invalidate(1);
+
+        // Then
+        assertEquals("reloaded", cache.get(1, key -> "reloaded"));
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.getLoads());
+        assertEquals(2, stats.getMisses());
+    }
+}
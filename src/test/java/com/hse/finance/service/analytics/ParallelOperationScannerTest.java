@@ -0,0 +1,96 @@
+package com.hse.finance.service.analytics;
+
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelOperationScannerTest {
+
+    @Test
+    void scan_WithIndexedStore_ShouldMatchSequentialScan() {
+        assertMatchesSequentialScan(new OperationRepository());
+    }
+
+    @Test
+    void scan_WithColumnarStore_ShouldMatchSequentialScan() {
+        assertMatchesSequentialScan(new OperationRepository("columnar", ChronoUnit.MONTHS));
+    }
+
+    @Test
+    void scan_WhenStoreCannotSeekByDate_ShouldScanOnce() {
+        // Given: a columnar store with operations appended out of date order
+        AtomicInteger scans = new AtomicInteger();
+        OperationRepository repository = new OperationRepository("columnar", ChronoUnit.MONTHS) {
+            @Override
+            public BigDecimal balanceDifference(LocalDateTime start, LocalDateTime end) {
+                scans.incrementAndGet();
+                return super.balanceDifference(start, end);
+            }
+        };
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        repository.save(operation(origin.plusDays(20), "5.00"));
+        repository.save(operation(origin.plusDays(5), "2.50"));
+        ParallelOperationScanner scanner = new ParallelOperationScanner(repository, 4);
+
+        // When
+        BigDecimal difference = scanner.balanceDifference(origin, origin.plusDays(30));
+        scanner.shutdown();
+
+        // Then
+        assertFalse(repository.isDateSeekable());
+        assertEquals(1, scans.get());
+        assertEquals(new BigDecimal("7.50"), difference);
+    }
+
+    private Operation operation(LocalDateTime date, String amount) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.INCOME)
+                .bankAccountId(UUID.randomUUID())
+                .categoryId(UUID.randomUUID())
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .build();
+    }
+
+    private void assertMatchesSequentialScan(OperationRepository repository) {
+        // Given
+        List<UUID> categories = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            repository.save(Operation.builder()
+                    .id(UUID.randomUUID())
+                    .type(random.nextBoolean() ? OperationType.INCOME : OperationType.EXPENSE)
+                    .bankAccountId(UUID.randomUUID())
+                    .categoryId(categories.get(random.nextInt(categories.size())))
+                    .amount(BigDecimal.valueOf(random.nextInt(100_000), 2))
+                    .date(origin.plusMinutes(random.nextInt(365 * 24 * 60)))
+                    .build());
+        }
+        ParallelOperationScanner scanner = new ParallelOperationScanner(repository, 4);
+        LocalDateTime start = origin.plusDays(10).plusHours(7);
+        LocalDateTime end = origin.plusDays(300).plusHours(3);
+
+        // When
+        BigDecimal difference = scanner.balanceDifference(start, end);
+        Map<UUID, BigDecimal> expenses = scanner.sumByCategory(start, end, OperationType.EXPENSE);
+        scanner.shutdown();
+
+        // Then
+        assertEquals(repository.balanceDifference(start, end), difference);
+        assertEquals(repository.sumByCategory(start, end, OperationType.EXPENSE), expenses);
+    }
+}
@@ -0,0 +1,158 @@
+package com.hse.finance.service.cascade;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.observer.OperationObserver;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CascadeDeleteServiceTest {
+
+    private OperationRepository operationRepository;
+    private BankAccountRepositoryProxy bankAccountRepository;
+    private List<Operation> deletedNotifications;
+
+    private BankAccount account;
+    private UUID salary;
+    private UUID food;
+
+    @BeforeEach
+    void setUp() {
+        operationRepository = new OperationRepository();
+        bankAccountRepository = new BankAccountRepositoryProxy(new BankAccountRepository());
+        deletedNotifications = new ArrayList<>();
+
+        // Balance after 100.00 salary and 30.00 of food
+        account = BankAccount.builder().id(UUID.randomUUID()).name("Main").balance(new BigDecimal("70.00")).build();
+        bankAccountRepository.save(account);
+        salary = UUID.randomUUID();
+        food = UUID.randomUUID();
+        operationRepository.save(operation(OperationType.INCOME, salary, "100.00"));
+        operationRepository.save(operation(OperationType.EXPENSE, food, "10.00"));
+        operationRepository.save(operation(OperationType.EXPENSE, food, "20.00"));
+    }
+
+    @Test
+    void deleteOperationsOfCategory_ShouldRevertBalancesAndNotifyObservers() {
+        // Given
+        CascadeDeleteService service = service(100);
+
+        // When
+        BulkDeleteJob job = service.deleteOperationsOfCategory(food);
+
+        // Then
+        assertTrue(job.isDone());
+        assertEquals(2, job.getCompletion().join());
+        assertEquals(1.0, job.getProgress());
+        assertEquals(2, deletedNotifications.size());
+        assertTrue(operationRepository.findByCategoryId(food).isEmpty());
+        assertEquals(1, operationRepository.findByCategoryId(salary).size());
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+                bankAccountRepository.findById(account.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void deleteOperationsOfAccount_AboveThreshold_ShouldRunInBackground() throws Exception {
+        // Given
+        CascadeDeleteService service = service(0);
+
+        // When
+        BulkDeleteJob job = service.deleteOperationsOfAccount(account.getId());
+
+        // Then
+        assertEquals(3, job.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals(3, job.getProcessed());
+        assertTrue(operationRepository.findAll().isEmpty());
+        assertEquals(0, new BigDecimal("70.00").compareTo(account.getBalance()));
+        service.shutdown();
+    }
+
+    @Test
+    void deleteOperationsOfCategory_WithOperationSavedUnderAccountLock_ShouldDeleteIt() throws Exception {
+        // Given
+        UUID rent = UUID.randomUUID();
+        AccountLocks accountLocks = new AccountLocks();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        operationRepository = new OperationRepository() {
+            private int calls;
+
+            @Override
+            public List<Operation> findByCategoryId(UUID categoryId) {
+                List<Operation> operations = super.findByCategoryId(categoryId);
+                if (++calls == 2) {
+                    // The writer saves only after the cascade saw no operations
+                    release.countDown();
+                }
+                return operations;
+            }
+        };
+        // An operation whose category check passed before the category was removed
+        Thread writer = new Thread(() -> accountLocks.withLock(account.getId(), () -> {
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            operationRepository.save(operation(OperationType.EXPENSE, rent, "5.00"));
+            return null;
+        }));
+        writer.start();
+        locked.await();
+        CascadeDeleteService service = service(100, accountLocks);
+
+        // When
+        BulkDeleteJob job = service.deleteOperationsOfCategory(rent);
+        writer.join();
+
+        // Then
+        assertEquals(1, job.getCompletion().join());
+        assertTrue(operationRepository.findByCategoryId(rent).isEmpty());
+    }
+
+    private CascadeDeleteService service(int backgroundThreshold) {
+        return service(backgroundThreshold, new AccountLocks());
+    }
+
+    private CascadeDeleteService service(int backgroundThreshold, AccountLocks accountLocks) {
+        OperationObserver observer = new OperationObserver() {
+            @Override
+            public void onOperationCreated(Operation operation) {
+            }
+
+            @Override
+            public synchronized void onOperationDeleted(Operation operation) {
+                deletedNotifications.add(operation);
+            }
+        };
+        return new CascadeDeleteService(operationRepository, bankAccountRepository, List.of(observer),
+                accountLocks, backgroundThreshold, 2);
+    }
+
+    private Operation operation(OperationType type, UUID categoryId, String amount) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .bankAccountId(account.getId())
+                .categoryId(categoryId)
+                .amount(new BigDecimal(amount))
+                .date(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.hse.finance.service.journal;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private BankAccountRepository accounts = new BankAccountRepository();
+    private CategoryRepository categories = new CategoryRepository();
+    private OperationRepository operations = new OperationRepository();
+
+    @Test
+    void start_ShouldReplayRecordedChanges() throws Exception {
+        // Given
+        JournalService journal = start();
+        BankAccount account = BankAccount.builder().id(UUID.randomUUID()).name("Main").balance(new BigDecimal("100.50")).build();
+        Category category = Category.builder().id(UUID.randomUUID()).name("Food").type(OperationType.EXPENSE).build();
+        Operation kept = operation(account.getId(), category.getId(), "10.25");
+        Operation deleted = operation(account.getId(), category.getId(), "3.00");
+        accounts.save(account);
+        categories.save(category);
+        operations.save(kept);
+        operations.save(deleted);
+        operations.deleteById(deleted.getId());
+        journal.stop();
+
+        // When
+        restart();
+
+        // Then
+        assertEquals("Main", accounts.findById(account.getId()).orElseThrow().getName());
+        assertEquals(new BigDecimal("100.50"), accounts.findById(account.getId()).orElseThrow().getBalance());
+        assertEquals(OperationType.EXPENSE, categories.findById(category.getId()).orElseThrow().getType());
+        List<Operation> replayed = operations.findAll();
+        assertEquals(1, replayed.size());
+        assertEquals(kept.getId(), replayed.get(0).getId());
+        assertEquals(new BigDecimal("10.25"), replayed.get(0).getAmount());
+        assertEquals(kept.getDate(), replayed.get(0).getDate());
+        assertEquals("Lunch", replayed.get(0).getDescription());
+    }
+
+    @Test
+    void compact_ShouldShrinkJournalAndKeepState() throws Exception {
+        // Given
+        JournalService journal = start();
+        UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            accounts.save(BankAccount.builder().id(accountId).name("Main").balance(BigDecimal.valueOf(i)).build());
+        }
+        journal.flush();
+        long sizeBefore = journal.size();
+
+        // When
+        journal.compact();
+        journal.flush();
+
+        // Then
+        assertTrue(journal.size() < sizeBefore);
+        journal.stop();
+        restart();
+        assertEquals(new BigDecimal("99.00"), accounts.findById(accountId).orElseThrow().getBalance());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldReportFailureInsteadOfDurability() throws Exception {
+        // Given
+        MappedJournalFile failing = new MappedJournalFile(directory.resolve("finance.journal"), 1024 * 1024) {
+            @Override
+            void append(List<byte[]> records) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        JournalService journal = new JournalService(accounts, categories, operations, List.of(), failing, 0, 1024);
+        journal.start();
+
+        // When
+        accounts.save(BankAccount.builder().id(UUID.randomUUID()).name("Main").balance(BigDecimal.ONE).build());
+
+        // Then
+        IOException flushFailure = assertThrows(IOException.class, journal::flush);
+        assertEquals("Disk full", flushFailure.getCause().getMessage());
+        assertThrows(IllegalStateException.class, () ->
+                accounts.save(BankAccount.builder().id(UUID.randomUUID()).name("Spare").balance(BigDecimal.ONE).build()));
+        assertThrows(IOException.class, journal::stop);
+    }
+
+    private JournalService start() throws Exception {
+        JournalService journal = new JournalService(accounts, categories, operations, List.of(),
+                directory.resolve("finance.journal").toString(), 0, 1024);
+        journal.start();
+        return journal;
+    }
+
+    private void restart() throws Exception {
+        accounts = new BankAccountRepository();
+        categories = new CategoryRepository();
+        operations = new OperationRepository();
+        start().stop();
+    }
+
+    private Operation operation(UUID accountId, UUID categoryId, String amount) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.EXPENSE)
+                .bankAccountId(accountId)
+                .categoryId(categoryId)
+                .amount(new BigDecimal(amount))
+                .date(LocalDateTime.of(2024, 3, 15, 12, 30, 5, 42))
+                .description("Lunch")
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.hse.finance.service.ledger;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceLedgerTest {
+
+    private BankAccountRepository bankAccountRepository;
+    private OperationRepository operationRepository;
+    private BalanceLedger ledger;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        bankAccountRepository = new BankAccountRepository();
+        operationRepository = new OperationRepository();
+        ledger = new BalanceLedger(bankAccountRepository, operationRepository, 2);
+
+        account = BankAccount.builder().id(UUID.randomUUID()).name("Main").balance(new BigDecimal("50.00")).build();
+        bankAccountRepository.save(account);
+    }
+
+    @Test
+    void replayBalance_ShouldApplyEventsSinceCheckpoint() {
+        // Given
+        operationRepository.save(operation(OperationType.INCOME, "100.00"));
+        operationRepository.save(operation(OperationType.EXPENSE, "30.00"));
+        Operation refund = operation(OperationType.EXPENSE, "5.00");
+        operationRepository.save(refund);
+        operationRepository.deleteById(refund.getId());
+
+        // When
+        BigDecimal balance = ledger.replayBalance(account.getId()).orElseThrow();
+
+        // Then
+        assertEquals(0, new BigDecimal("120.00").compareTo(balance));
+        assertTrue(ledger.getPendingEvents(account.getId()) <= 2);
+        assertTrue(ledger.replayBalance(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void rebuildAll_ShouldStartFromOpeningBalances() {
+        // Given
+        BankAccount other = BankAccount.builder().id(UUID.randomUUID()).name("Other").balance(BigDecimal.ZERO).build();
+        bankAccountRepository.save(other);
+        operationRepository.save(operation(OperationType.INCOME, "10.00"));
+        Operation otherIncome = operation(OperationType.INCOME, "7.50");
+        otherIncome.setBankAccountId(other.getId());
+        operationRepository.save(otherIncome);
+
+        // When
+        Map<UUID, BigDecimal> balances = ledger.rebuildAll();
+
+        // Then
+        assertEquals(0, new BigDecimal("60.00").compareTo(balances.get(account.getId())));
+        assertEquals(0, new BigDecimal("7.50").compareTo(balances.get(other.getId())));
+        assertEquals(0, ledger.getPendingEvents(account.getId()));
+    }
+
+    @Test
+    void replayBalance_WithOperationSavedAgain_ShouldCountLatestVersionOnly() {
+        // Given
+        Operation income = operation(OperationType.INCOME, "100.00");
+        operationRepository.save(income);
+        Operation corrected = operation(OperationType.INCOME, "40.00");
+        corrected.setId(income.getId());
+
+        // When
+        operationRepository.save(corrected);
+        operationRepository.save(corrected);
+
+        // Then
+        assertEquals(0, new BigDecimal("90.00").compareTo(ledger.replayBalance(account.getId()).orElseThrow()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(ledger.rebuildAll().get(account.getId())));
+    }
+
+    @Test
+    void rebuildAll_WithOperationsStoredBeforeLedger_ShouldStartFromTheirOpeningBalance() {
+        // Given: the stored balance includes the income already
+        operationRepository.save(operation(OperationType.INCOME, "20.00"));
+        account.setBalance(new BigDecimal("70.00"));
+        BalanceLedger attached = new BalanceLedger(bankAccountRepository, operationRepository, 2);
+        operationRepository.save(operation(OperationType.EXPENSE, "5.00"));
+
+        // When
+        Map<UUID, BigDecimal> balances = attached.rebuildAll();
+
+        // Then
+        assertEquals(0, new BigDecimal("65.00").compareTo(balances.get(account.getId())));
+        assertEquals(0, new BigDecimal("65.00").compareTo(attached.replayBalance(account.getId()).orElseThrow()));
+    }
+
+    @Test
+    void onOperationsReloaded_ShouldDeriveOpeningBalancesFromStoredBalances() {
+        // Given
+        account.setBalance(new BigDecimal("80.00"));
+        Operation income = operation(OperationType.INCOME, "30.00");
+        operationRepository.save(income);
+
+        // When
+        ledger.onOperationsReloaded(operationRepository.findAll());
+
+        // Then
+        assertEquals(0, new BigDecimal("80.00").compareTo(ledger.replayBalance(account.getId()).orElseThrow()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(ledger.rebuildAll().get(account.getId())));
+    }
+
+    private Operation operation(OperationType type, String amount) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .bankAccountId(account.getId())
+                .categoryId(UUID.randomUUID())
+                .amount(new BigDecimal(amount))
+                .date(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
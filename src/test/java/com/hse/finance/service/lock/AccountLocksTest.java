@@ -0,0 +1,61 @@
+package com.hse.finance.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLocksTest {
+    // Hash codes 0 and 1, so the accounts map to different stripes
+    private static final UUID FIRST = new UUID(0, 0);
+    private static final UUID SECOND = new UUID(0, 1);
+
+    private final AccountLocks locks = new AccountLocks(16);
+
+    @Test
+    void withLock_OnAnotherAccount_ShouldNotWaitForHeldLock() throws Exception {
+        // Given
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> locks.withLock(FIRST, () -> {
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        locked.await();
+
+        // When
+        CompletableFuture<String> other = CompletableFuture.supplyAsync(() -> locks.withLock(SECOND, () -> "done"));
+
+        // Then
+        assertEquals("done", other.get(1, TimeUnit.SECONDS));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void exclusively_WhileHoldingAccountLock_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> locks.withLock(FIRST, () -> locks.exclusively(() -> null)));
+        assertEquals("done", locks.withLocks(List.of(FIRST, SECOND), () -> "done"));
+    }
+
+    @Test
+    void exclusively_WhenNested_ShouldRunAction() {
+        // When
+        String result = locks.exclusively(() -> locks.exclusively(() -> locks.withLock(FIRST, () -> "done")));
+
+        // Then
+        assertEquals("done", result);
+    }
+}
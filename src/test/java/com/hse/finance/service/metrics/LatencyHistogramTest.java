@@ -0,0 +1,42 @@
+package com.hse.finance.service.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void snapshot_ShouldReportPercentilesWithinBucketPrecision() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        // When
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        // Then
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000_000, snapshot.getMax());
+        assertEquals(5_000_000, snapshot.getP50(), 5_000_000 * 0.04);
+        assertEquals(9_900_000, snapshot.getP99(), 9_900_000 * 0.04);
+        assertEquals(9_990_000, snapshot.getP999(), 9_990_000 * 0.04);
+    }
+
+    @Test
+    void bucket_ShouldContainValueWithinItsHighestValue() {
+        // Given
+        long[] values = {0, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE};
+
+        for (long value : values) {
+            // When
+            int bucket = LatencyHistogram.bucket(value);
+
+            // Then
+            assertTrue(LatencyHistogram.highestValue(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValue(bucket - 1) < value);
+        }
+    }
+}
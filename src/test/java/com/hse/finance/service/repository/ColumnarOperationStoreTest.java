@@ -0,0 +1,198 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarOperationStoreTest {
+
+    private ColumnarOperationStore store;
+    private UUID accountId;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarOperationStore();
+        accountId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+    }
+
+    @Test
+    void findById_ShouldMaterializeAllFields() {
+        // Given
+        Operation operation = operation(OperationType.EXPENSE, "12.34", LocalDateTime.of(2024, 1, 10, 12, 30, 15, 123456000));
+        operation.setDescription("Lunch");
+        store.save(operation);
+
+        // When
+        Operation result = store.findById(operation.getId()).orElseThrow();
+
+        // Then
+        assertNotSame(operation, result);
+        assertEquals(operation.getId(), result.getId());
+        assertEquals(OperationType.EXPENSE, result.getType());
+        assertEquals(accountId, result.getBankAccountId());
+        assertEquals(categoryId, result.getCategoryId());
+        assertEquals(new BigDecimal("12.34"), result.getAmount());
+        assertEquals(operation.getDate(), result.getDate());
+        assertEquals("Lunch", result.getDescription());
+    }
+
+    @Test
+    void save_WithFractionalCents_ShouldThrowException() {
+        // When & Then: such an operation cannot even be built, so it never reaches the store
+        assertThrows(IllegalArgumentException.class,
+                () -> store.save(operation(OperationType.EXPENSE, "1.005", LocalDateTime.of(2024, 1, 10, 12, 0))));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void save_WithoutId_ShouldThrowException() {
+        // Given
+        Operation operation = operation(OperationType.EXPENSE, "1.00", LocalDateTime.of(2024, 1, 10, 12, 0));
+        operation.setId(null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> store.save(operation));
+        assertThrows(IllegalArgumentException.class, () -> store.saveAll(List.of(operation)));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void save_WithExistingId_ShouldOverwriteRow() {
+        // Given
+        Operation operation = operation(OperationType.EXPENSE, "10.00", LocalDateTime.of(2024, 1, 10, 12, 0));
+        store.save(operation);
+
+        // When
+        operation.setAmount(new BigDecimal("20"));
+        store.save(operation);
+
+        // Then
+        assertEquals(1, store.size());
+        assertEquals(new BigDecimal("20.00"), store.findById(operation.getId()).orElseThrow().getAmount());
+    }
+
+    @Test
+    void findByDateBetween_WithUnorderedInserts_ShouldReturnMatchingRows() {
+        // Given
+        Operation late = operation(OperationType.EXPENSE, "1.00", LocalDateTime.of(2024, 3, 1, 0, 0));
+        Operation early = operation(OperationType.EXPENSE, "2.00", LocalDateTime.of(2024, 1, 1, 0, 0));
+        store.save(late);
+        store.save(early);
+
+        // When
+        List<Operation> result = store.findByDateBetween(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(early.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void analyticsScans_ShouldMatchDefaultImplementation() {
+        // Given
+        IndexedOperationStore reference = new IndexedOperationStore(new SkipListOperationDateIndex());
+        UUID otherCategory = UUID.randomUUID();
+        for (int day = 1; day <= 28; day++) {
+            Operation income = operation(OperationType.INCOME, day + ".50", LocalDateTime.of(2024, 2, day, 9, 0));
+            Operation expense = operation(OperationType.EXPENSE, "3.25", LocalDateTime.of(2024, 2, day, 18, 0));
+            expense.setCategoryId(day % 2 == 0 ? categoryId : otherCategory);
+            store.save(income);
+            store.save(expense);
+            reference.save(income);
+            reference.save(expense);
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 2, 3, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 2, 20, 12, 0);
+
+        // When
+        BigDecimal difference = store.balanceDifference(start, end);
+        Map<UUID, BigDecimal> expenses = store.sumByCategory(start, end, OperationType.EXPENSE);
+
+        // Then
+        assertEquals(0, reference.balanceDifference(start, end).compareTo(difference));
+        Map<UUID, BigDecimal> expected = reference.sumByCategory(start, end, OperationType.EXPENSE);
+        assertEquals(expected.keySet(), expenses.keySet());
+        expected.forEach((id, amount) -> assertEquals(0, amount.compareTo(expenses.get(id))));
+    }
+
+    @Test
+    void deleteByBankAccountId_ShouldCompactAndKeepOtherRows() {
+        // Given
+        UUID otherAccount = UUID.randomUUID();
+        Operation kept = operation(OperationType.INCOME, "5.00", LocalDateTime.of(2024, 1, 1, 0, 0));
+        kept.setBankAccountId(otherAccount);
+        store.save(kept);
+        for (int i = 0; i < 3000; i++) {
+            store.save(operation(OperationType.INCOME, "1.00", LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i)));
+        }
+
+        // When
+        store.deleteByBankAccountId(accountId);
+
+        // Then
+        assertEquals(1, store.size());
+        assertTrue(store.findByBankAccountId(accountId).isEmpty());
+        assertEquals(kept.getId(), store.findById(kept.getId()).orElseThrow().getId());
+        assertEquals(1, store.findByType(OperationType.INCOME).size());
+    }
+
+    @Test
+    void deleteByBankAccountId_WhenRemovingOutOfOrderRows_ShouldSeekDatesAgain() {
+        // Given
+        UUID otherAccount = UUID.randomUUID();
+        for (int i = 0; i < 3000; i++) {
+            Operation operation = operation(OperationType.INCOME, "1.00", LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            operation.setBankAccountId(i % 3 == 0 ? otherAccount : accountId);
+            store.save(operation);
+        }
+        store.save(operation(OperationType.INCOME, "1.00", LocalDateTime.of(2023, 1, 1, 0, 0)));
+        assertFalse(store.isDateSeekable());
+
+        // When
+        store.deleteByBankAccountId(accountId);
+
+        // Then
+        assertTrue(store.isDateSeekable());
+        assertEquals(1000, store.findByDateBetween(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)).size());
+    }
+
+    @Test
+    void save_WithChangedCategory_ShouldMoveRowBetweenCategories() {
+        // Given
+        UUID otherCategory = UUID.randomUUID();
+        Operation operation = operation(OperationType.EXPENSE, "10.00", LocalDateTime.of(2024, 1, 10, 12, 0));
+        store.save(operation);
+
+        // When
+        operation.setCategoryId(otherCategory);
+        store.save(operation);
+
+        // Then
+        assertTrue(store.findByCategoryId(categoryId).isEmpty());
+        assertEquals(1, store.findByCategoryId(otherCategory).size());
+        assertEquals(1, store.deleteByCategoryId(otherCategory).size());
+        assertEquals(0, store.size());
+    }
+
+    private Operation operation(OperationType type, String amount, LocalDateTime date) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .bankAccountId(accountId)
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .categoryId(categoryId)
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationRepositoryTest {
+
+    private OperationRepository repository;
+    private UUID accountId;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OperationRepository();
+        accountId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+    }
+
+    @Test
+    void findByIndexes_ShouldReturnOnlyMatchingOperations() {
+        // Given
+        Operation first = operation(accountId, categoryId, OperationType.EXPENSE, LocalDateTime.of(2024, 1, 10, 12, 0));
+        Operation second = operation(UUID.randomUUID(), categoryId, OperationType.EXPENSE, LocalDateTime.of(2024, 2, 10, 12, 0));
+        Operation third = operation(accountId, UUID.randomUUID(), OperationType.INCOME, LocalDateTime.of(2024, 3, 10, 12, 0));
+        repository.save(first);
+        repository.save(second);
+        repository.save(third);
+
+        // When & Then
+        assertEquals(2, repository.findByBankAccountId(accountId).size());
+        assertEquals(2, repository.findByCategoryId(categoryId).size());
+        assertEquals(List.of(third), repository.findByType(OperationType.INCOME));
+        assertEquals(List.of(second), repository.findByDateBetween(
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 2, 29, 23, 59)));
+    }
+
+    @Test
+    void findByDateBetween_ShouldIncludeBoundaries() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2024, 1, 10, 12, 0);
+        Operation operation = operation(accountId, categoryId, OperationType.EXPENSE, date);
+        repository.save(operation);
+
+        // When
+        List<Operation> result = repository.findByDateBetween(date, date);
+
+        // Then
+        assertEquals(List.of(operation), result);
+    }
+
+    @Test
+    void save_WithChangedFields_ShouldReindexOperation() {
+        // Given
+        Operation operation = operation(accountId, categoryId, OperationType.EXPENSE, LocalDateTime.of(2024, 1, 10, 12, 0));
+        repository.save(operation);
+        UUID newAccountId = UUID.randomUUID();
+
+        // When
+        operation.setBankAccountId(newAccountId);
+        operation.setDate(LocalDateTime.of(2024, 5, 1, 0, 0));
+        repository.save(operation);
+
+        // Then
+        assertTrue(repository.findByBankAccountId(accountId).isEmpty());
+        assertEquals(List.of(operation), repository.findByBankAccountId(newAccountId));
+        assertTrue(repository.findByDateBetween(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0)).isEmpty());
+    }
+
+    @Test
+    void deleteByBankAccountId_ShouldRemoveOperationsFromAllIndexes() {
+        // Given
+        Operation removed = operation(accountId, categoryId, OperationType.EXPENSE, LocalDateTime.of(2024, 1, 10, 12, 0));
+        Operation kept = operation(UUID.randomUUID(), categoryId, OperationType.EXPENSE, LocalDateTime.of(2024, 1, 10, 12, 0));
+        repository.save(removed);
+        repository.save(kept);
+
+        // When
+        repository.deleteByBankAccountId(accountId);
+
+        // Then
+        assertFalse(repository.findById(removed.getId()).isPresent());
+        assertEquals(List.of(kept), repository.findByCategoryId(categoryId));
+        assertEquals(List.of(kept), repository.findByType(OperationType.EXPENSE));
+        assertEquals(List.of(kept), repository.findAll());
+    }
+
+    @Test
+    void deleteByCategoryId_ShouldRemoveOperationsFromAllIndexes() {
+        // Given
+        Operation removed = operation(accountId, categoryId, OperationType.INCOME, LocalDateTime.of(2024, 1, 10, 12, 0));
+        repository.save(removed);
+
+        // When
+        repository.deleteByCategoryId(categoryId);
+
+        // Then
+        assertTrue(repository.findByBankAccountId(accountId).isEmpty());
+        assertTrue(repository.findByType(OperationType.INCOME).isEmpty());
+        assertTrue(repository.findByDateBetween(LocalDateTime.MIN, LocalDateTime.MAX).isEmpty());
+    }
+
+    @Test
+    void save_WithConcurrentWritesToOneId_ShouldNotifyInStoreOrder() throws Exception {
+        // Given: a listener mirroring the last saved version, as the journal replays it
+        UUID id = UUID.randomUUID();
+        AtomicReference<Operation> lastNotified = new AtomicReference<>();
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Operation operation) {
+                lastNotified.set(operation);
+            }
+
+            @Override
+            public void onDeleted(UUID deletedId) {
+                lastNotified.set(null);
+            }
+
+            @Override
+            public void onCleared() {
+            }
+        });
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            results.add(writers.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    Operation version = operation(accountId, categoryId, OperationType.EXPENSE,
+                            LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+                    version.setId(id);
+                    repository.save(version);
+                    if (i % 7 == 0) {
+                        repository.deleteById(id);
+                    }
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        writers.shutdown();
+
+        // Then
+        assertEquals(repository.findById(id).orElse(null), lastNotified.get());
+    }
+
+    private Operation operation(UUID bankAccountId, UUID categoryId, OperationType type, LocalDateTime date) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .bankAccountId(bankAccountId)
+                .amount(new BigDecimal("10.00"))
+                .date(date)
+                .categoryId(categoryId)
+                .build();
+    }
+}
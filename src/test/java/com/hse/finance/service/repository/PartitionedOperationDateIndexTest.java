@@ -0,0 +1,136 @@
+package com.hse.finance.service.repository;
+
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedOperationDateIndexTest {
+
+    private PartitionedOperationDateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(LocalDateTime.of(2024, 6, 15, 12, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        index = new PartitionedOperationDateIndex(ChronoUnit.MONTHS, clock);
+    }
+
+    @Test
+    void add_ShouldCreateOnePartitionPerMonth() {
+        // Given
+        add(LocalDateTime.of(2024, 1, 1, 0, 0));
+        add(LocalDateTime.of(2024, 1, 31, 23, 59));
+        add(LocalDateTime.of(2024, 3, 5, 10, 0));
+
+        // When & Then
+        assertEquals(2, index.partitionCount());
+    }
+
+    @Test
+    void findBetween_ShouldRespectBoundariesInsidePartitions() {
+        // Given
+        Operation before = add(LocalDateTime.of(2024, 2, 9, 23, 59));
+        Operation first = add(LocalDateTime.of(2024, 2, 10, 0, 0));
+        Operation second = add(LocalDateTime.of(2024, 3, 20, 0, 0));
+        Operation after = add(LocalDateTime.of(2024, 3, 20, 0, 1));
+
+        // When
+        List<Operation> result = index.findBetween(LocalDateTime.of(2024, 2, 10, 0, 0), LocalDateTime.of(2024, 3, 20, 0, 0));
+
+        // Then
+        assertEquals(List.of(first, second), result);
+        assertFalse(result.contains(before));
+        assertFalse(result.contains(after));
+    }
+
+    @Test
+    void sealedPartition_ShouldAcceptNewWritesAndRemovals() {
+        // Given
+        Operation first = add(LocalDateTime.of(2024, 1, 10, 0, 0));
+        Operation second = add(LocalDateTime.of(2024, 1, 20, 0, 0));
+        index.sealPartitionsBefore(LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        // When
+        Operation third = add(LocalDateTime.of(2024, 1, 15, 0, 0));
+        index.remove(first.getId(), first.getDate());
+
+        // Then
+        List<Operation> result = index.findBetween(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0));
+        assertEquals(List.of(third, second), result);
+    }
+
+    @Test
+    void sealedPartition_WithManyLateWrites_ShouldKeepDateOrder() {
+        // Given: enough late writes to a past month to fold the delta several times
+        add(LocalDateTime.of(2024, 1, 31, 0, 0));
+        index.sealPartitionsBefore(LocalDateTime.of(2024, 6, 1, 0, 0));
+        for (int i = 0; i < 1_000; i++) {
+            Operation late = add(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(997L * i % 40_000));
+            if (i % 3 == 0) {
+                index.remove(late.getId(), late.getDate());
+            }
+        }
+
+        // When
+        List<Operation> result = index.findBetween(LocalDateTime.of(2024, 1, 5, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0));
+
+        // Then
+        for (int i = 1; i < result.size(); i++) {
+            assertFalse(result.get(i).getDate().isBefore(result.get(i - 1).getDate()));
+        }
+        assertEquals(LocalDateTime.of(2024, 1, 31, 0, 0), result.get(result.size() - 1).getDate());
+        assertEquals(667, index.findBetween(LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 31, 23, 59)).size());
+    }
+
+    @Test
+    void remove_LastOperation_ShouldDropPartition() {
+        // Given
+        Operation operation = add(LocalDateTime.of(2024, 1, 10, 0, 0));
+
+        // When
+        index.remove(operation.getId(), operation.getDate());
+
+        // Then
+        assertEquals(0, index.partitionCount());
+    }
+
+    @Test
+    void repository_WithPartitionedStorage_ShouldAnswerDateQueries() {
+        // Given
+        OperationRepository repository = new OperationRepository("partitioned", ChronoUnit.WEEKS);
+        Operation operation = operation(LocalDateTime.of(2024, 1, 10, 0, 0));
+        repository.save(operation);
+
+        // When & Then
+        assertEquals(List.of(operation), repository.findByDateBetween(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0)));
+    }
+
+    private Operation add(LocalDateTime date) {
+        Operation operation = operation(date);
+        index.add(operation, date);
+        return operation;
+    }
+
+    private Operation operation(LocalDateTime date) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.EXPENSE)
+                .bankAccountId(UUID.randomUUID())
+                .amount(BigDecimal.ONE)
+                .date(date)
+                .categoryId(UUID.randomUUID())
+                .build();
+    }
+}
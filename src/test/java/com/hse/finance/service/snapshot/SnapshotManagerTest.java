@@ -0,0 +1,128 @@
+package com.hse.finance.service.snapshot;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotManagerTest {
+
+    private BankAccountRepository bankAccountRepository;
+    private OperationRepository operationRepository;
+    private SnapshotManager snapshotManager;
+
+    private BankAccount account;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        bankAccountRepository = new BankAccountRepository();
+        operationRepository = new OperationRepository();
+        snapshotManager = new SnapshotManager(bankAccountRepository, new CategoryRepository(),
+                operationRepository, new AccountLocks());
+
+        account = BankAccount.builder().id(UUID.randomUUID()).name("Main").balance(new BigDecimal("100.00")).build();
+        bankAccountRepository.save(account);
+        categoryId = UUID.randomUUID();
+    }
+
+    @Test
+    void open_ShouldHideChangesMadeAfterCapture() {
+        // Given
+        Operation kept = operation("10.00", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Operation deleted = operation("20.00", LocalDateTime.of(2024, 1, 2, 10, 0));
+        operationRepository.save(kept);
+        operationRepository.save(deleted);
+
+        try (RepositorySnapshot snapshot = snapshotManager.open()) {
+            // When
+            Operation added = operation("30.00", LocalDateTime.of(2024, 1, 3, 10, 0));
+            operationRepository.save(added);
+            operationRepository.deleteById(deleted.getId());
+            account.setBalance(new BigDecimal("999.00"));
+
+            // Then
+            Set<UUID> ids = snapshot.getOperations().stream().map(Operation::getId).collect(Collectors.toSet());
+            assertEquals(Set.of(kept.getId(), deleted.getId()), ids);
+            assertEquals(2, snapshot.getOperationsBetween(
+                    LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0)).size());
+            assertEquals(0, new BigDecimal("30.00").compareTo(snapshot.balanceDifference(
+                    LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0))));
+            assertEquals(0, new BigDecimal("100.00").compareTo(
+                    snapshot.findBankAccount(account.getId()).orElseThrow().getBalance()));
+        }
+        assertEquals(2, operationRepository.findAll().size());
+    }
+
+    @Test
+    void getOperationsOfAccount_AfterAccountOperationsDeleted_ShouldReturnThemFromUndoLog() {
+        // Given
+        Operation first = operation("10.00", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Operation second = operation("20.00", LocalDateTime.of(2024, 1, 2, 10, 0));
+        operationRepository.save(first);
+        operationRepository.save(second);
+
+        try (RepositorySnapshot snapshot = snapshotManager.open()) {
+            // When
+            operationRepository.deleteByBankAccountId(account.getId());
+
+            // Then
+            Set<UUID> ids = snapshot.getOperationsOfAccount(account.getId()).stream()
+                    .map(Operation::getId).collect(Collectors.toSet());
+            assertEquals(Set.of(first.getId(), second.getId()), ids);
+            assertTrue(snapshot.getOperationsOfAccount(UUID.randomUUID()).isEmpty());
+        }
+    }
+
+    @Test
+    void close_ShouldStopRecordingAndRejectReads() {
+        // Given
+        RepositorySnapshot snapshot = snapshotManager.open();
+        assertEquals(1, snapshotManager.getOpenCount());
+
+        // When
+        snapshot.close();
+
+        // Then
+        assertEquals(0, snapshotManager.getOpenCount());
+        assertThrows(IllegalStateException.class, snapshot::getOperations);
+    }
+
+    @Test
+    void clear_ShouldInvalidateOpenSnapshots() {
+        // Given
+        operationRepository.save(operation("10.00", LocalDateTime.of(2024, 1, 1, 10, 0)));
+        RepositorySnapshot snapshot = snapshotManager.open();
+
+        // When
+        operationRepository.clear();
+
+        // Then
+        assertThrows(IllegalStateException.class, snapshot::getOperations);
+        assertEquals(0, snapshotManager.getOpenCount());
+    }
+
+    private Operation operation(String amount, LocalDateTime date) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.INCOME)
+                .bankAccountId(account.getId())
+                .categoryId(categoryId)
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .build();
+    }
+}
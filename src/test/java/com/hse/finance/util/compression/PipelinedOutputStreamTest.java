@@ -0,0 +1,58 @@
+package com.hse.finance.util.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedOutputStreamTest {
+
+    @Test
+    void write_WithGzipStage_ShouldRoundTripAcrossBlocks() throws IOException {
+        // Given
+        byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        CompressionCodec codec = new GzipCompressionCodec();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+
+        // When
+        try (OutputStream out = new PipelinedOutputStream(codec.compress(file), 1024, 2, "test-compression")) {
+            out.write(data, 0, 10);
+            out.write(data[10]);
+            out.flush();
+            out.write(data, 11, data.length - 11);
+        }
+
+        // Then
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(file.toByteArray()))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void close_WhenStageFails_ShouldRethrowFailure() {
+        // Given
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        PipelinedOutputStream out = new PipelinedOutputStream(failing, 16, 1, "test-compression");
+
+        // When & Then
+        IOException e = assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write(new byte[16]);
+            }
+            out.close();
+        });
+        assertEquals("Disk full", e.getMessage());
+    }
+}
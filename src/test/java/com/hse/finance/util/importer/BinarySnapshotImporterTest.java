@@ -0,0 +1,176 @@
+package com.hse.finance.util.importer;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import com.hse.finance.service.analytics.OperationAggregates;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import com.hse.finance.visitor.BinaryExportVisitor;
+import com.hse.finance.visitor.BinarySnapshotFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BankAccountRepository bankAccountRepository;
+    private CategoryRepository categoryRepository;
+    private OperationRepository operationRepository;
+    private OperationAggregates aggregates;
+    private BinarySnapshotImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        bankAccountRepository = new BankAccountRepository();
+        categoryRepository = new CategoryRepository();
+        operationRepository = new OperationRepository();
+        aggregates = new OperationAggregates(operationRepository);
+        importer = new BinarySnapshotImporter(bankAccountRepository, categoryRepository, operationRepository,
+                List.of(aggregates), new AccountLocks());
+    }
+
+    @Test
+    void importData_ShouldRestoreExportedEntitiesAsTheyWere() throws Exception {
+        // Given
+        BankAccount account = BankAccount.builder().id(UUID.randomUUID()).name("Main")
+                .balance(new BigDecimal("1234.500")).build();
+        Category food = new Category(UUID.randomUUID(), "Food", OperationType.EXPENSE);
+        UUID unexportedCategory = UUID.randomUUID();
+        Operation lunch = operation(food.getId(), "12.30", LocalDateTime.of(2024, 1, 10, 13, 0, 0, 500), "Lunch");
+        Operation dinner = operation(food.getId(), "40.00", LocalDateTime.of(2024, 1, 9, 19, 0), "Lunch");
+        Operation other = operation(unexportedCategory, "1.00", LocalDateTime.of(2024, 1, 11, 8, 0), null);
+        other.setBankAccountId(account.getId());
+        lunch.setBankAccountId(account.getId());
+        dinner.setBankAccountId(account.getId());
+        File file = export(List.of(account), List.of(food), List.of(lunch, dinner, other));
+
+        // When
+        ImportStatistics statistics = importer.importData(file);
+
+        // Then
+        assertEquals(1, statistics.getAccounts());
+        assertEquals(1, statistics.getCategories());
+        assertEquals(3, statistics.getOperations());
+        assertEquals(new BigDecimal("1234.50"), bankAccountRepository.findById(account.getId()).orElseThrow().getBalance());
+        assertEquals("Food", categoryRepository.findById(food.getId()).orElseThrow().getName());
+
+        Operation restored = operationRepository.findById(lunch.getId()).orElseThrow();
+        assertEquals(OperationType.EXPENSE, restored.getType());
+        assertEquals(account.getId(), restored.getBankAccountId());
+        assertEquals(food.getId(), restored.getCategoryId());
+        assertEquals(new BigDecimal("12.30"), restored.getAmount());
+        assertEquals(lunch.getDate(), restored.getDate());
+        assertEquals("Lunch", restored.getDescription());
+        Operation restoredOther = operationRepository.findById(other.getId()).orElseThrow();
+        assertEquals(unexportedCategory, restoredOther.getCategoryId());
+        assertNull(restoredOther.getDescription());
+
+        // Observers are rebuilt from the restored operations
+        assertEquals(0, new BigDecimal("-53.30").compareTo(
+                aggregates.balanceDifference(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))));
+    }
+
+    @Test
+    void importData_ShouldReplaceExistingData() throws Exception {
+        // Given
+        BankAccount account = BankAccount.builder().id(UUID.randomUUID()).name("Main")
+                .balance(new BigDecimal("-12.30")).build();
+        Category food = new Category(UUID.randomUUID(), "Food", OperationType.EXPENSE);
+        Operation lunch = operation(food.getId(), "12.30", LocalDateTime.of(2024, 1, 10, 13, 0), "Lunch");
+        lunch.setBankAccountId(account.getId());
+        File file = export(List.of(account), List.of(food), List.of(lunch));
+        Operation stale = operation(food.getId(), "99.00", LocalDateTime.of(2024, 1, 12, 9, 0), "Stale");
+        stale.setBankAccountId(account.getId());
+        bankAccountRepository.save(BankAccount.builder().id(UUID.randomUUID()).name("Old").balance(BigDecimal.TEN).build());
+        operationRepository.save(stale);
+
+        // When
+        importer.importData(file);
+
+        // Then
+        assertEquals(List.of(account.getId()), bankAccountRepository.findAll().stream().map(BankAccount::getId).toList());
+        assertEquals(List.of(lunch.getId()), operationRepository.findAll().stream().map(Operation::getId).toList());
+        assertEquals(0, new BigDecimal("-12.30").compareTo(
+                aggregates.balanceDifference(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))));
+    }
+
+    @Test
+    void importData_WithForeignFile_ShouldThrowException() throws Exception {
+        // Given
+        Path file = tempDir.resolve("data.json");
+        Files.writeString(file, "{\"accounts\": []}");
+
+        // When & Then
+        assertThrows(IOException.class, () -> importer.importData(file.toFile()));
+        assertTrue(operationRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void importData_WithNegativeLength_ShouldReportMalformedSnapshot() throws Exception {
+        // Given: an accounts section with one string whose length decodes to -1
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinarySnapshotFormat.MAGIC);
+        out.writeByte(BinarySnapshotFormat.VERSION);
+        out.writeByte(BinarySnapshotFormat.ACCOUNTS);
+        byte[] payload = {0x01, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        out.writeByte(payload.length);
+        out.write(payload);
+        out.writeByte(BinarySnapshotFormat.END);
+        Path file = tempDir.resolve("corrupt.bin");
+        Files.write(file, bytes.toByteArray());
+
+        // When & Then
+        IOException e = assertThrows(IOException.class, () -> importer.importData(file.toFile()));
+        assertTrue(e.getMessage().startsWith("Malformed snapshot"));
+    }
+
+    private File export(List<BankAccount> accounts, List<Category> categories, List<Operation> operations)
+            throws IOException {
+        File file = tempDir.resolve("snapshot.bin").toFile();
+        BinaryExportVisitor visitor = new BinaryExportVisitor();
+        try (OutputStream out = new FileOutputStream(file)) {
+            visitor.begin(out);
+            visitor.visitBankAccounts(accounts);
+            visitor.visitCategories(categories);
+            visitor.visitOperations(operations);
+            visitor.finish();
+        }
+        return file;
+    }
+
+    private Operation operation(UUID categoryId, String amount, LocalDateTime date, String description) {
+        return Operation.builder()
+                .id(UUID.randomUUID())
+                .type(OperationType.EXPENSE)
+                .categoryId(categoryId)
+                .amount(new BigDecimal(amount))
+                .date(date)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.hse.finance.util.importer;
+
+import com.hse.finance.facade.BankAccountFacade;
+import com.hse.finance.facade.CategoryFacade;
+import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.factory.BankAccountFactory;
+import com.hse.finance.factory.CategoryFactory;
+import com.hse.finance.factory.OperationFactory;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Operation;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.cascade.CascadeDeleteService;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvDataImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private BankAccountFacade bankAccountFacade;
+    private CategoryFacade categoryFacade;
+    private OperationFacade operationFacade;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BankAccountRepositoryProxy accounts = new BankAccountRepositoryProxy(new BankAccountRepository());
+        CategoryRepository categories = new CategoryRepository();
+        OperationRepository operations = new OperationRepository();
+        bankAccountFacade = new BankAccountFacade(new BankAccountFactory(), accounts, operations);
+        categoryFacade = new CategoryFacade(new CategoryFactory(), categories,
+                new CascadeDeleteService(operations, accounts, List.of(), new AccountLocks()));
+        operationFacade = new OperationFacade(new OperationFactory(), operations, accounts, categories, List.of());
+
+        Files.writeString(directory.resolve("accounts.csv"), "name,balance\nMain,0\n");
+        Files.writeString(directory.resolve("categories.csv"), "name,type\nSalary,INCOME\nFood,EXPENSE\n");
+    }
+
+    @Test
+    void importData_WithSmallChunks_ShouldApplyOperationsInFileOrder() throws IOException {
+        // Given: the balance returns to zero after every pair, so any reordering would make it negative
+        StringBuilder csv = new StringBuilder("type,amount,account_name,category_name,description\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append("INCOME,").append(i + 1).append(".25,Main,Salary,\"Pay, part ").append(i).append("\"\n");
+            csv.append("EXPENSE,").append(i + 1).append(".25,Main,Food,\"Multi\nline \"\"quoted\"\"\"\n");
+        }
+        csv.append("INCOME,7,Main,Unknown,\n");
+        csv.append("INCOME,3.50,Main,Salary,last");
+        Files.writeString(directory.resolve("operations.csv"), csv.toString());
+        CsvDataImporter importer = new CsvDataImporter(bankAccountFacade, categoryFacade, operationFacade, 100, 4);
+
+        // When
+        ImportStatistics statistics = importer.importData(directory.resolve("operations.csv").toFile());
+
+        // Then
+        assertEquals(1001, statistics.getOperations());
+        assertEquals(1, statistics.getSkippedOperations());
+        BankAccount account = bankAccountFacade.getAllBankAccounts().get(0);
+        assertEquals(new BigDecimal("3.50"), account.getBalance());
+        List<Operation> operations = operationFacade.getAllOperations();
+        assertEquals(1001, operations.size());
+        assertEquals(500, operations.stream()
+                .filter(operation -> "Multi\nline \"quoted\"".equals(operation.getDescription()))
+                .count());
+    }
+
+    @Test
+    void importData_WithHeaderOnly_ShouldImportNoOperations() throws IOException {
+        // Given
+        Files.writeString(directory.resolve("operations.csv"), "type,amount,account_name,category_name,description");
+        CsvDataImporter importer = new CsvDataImporter(bankAccountFacade, categoryFacade, operationFacade, 16, 2);
+
+        // When
+        ImportStatistics statistics = importer.importData(directory.resolve("operations.csv").toFile());
+
+        // Then
+        assertEquals(0, statistics.getOperations());
+        assertEquals(3, statistics.getRows());
+    }
+}
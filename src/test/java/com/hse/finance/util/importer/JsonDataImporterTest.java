@@ -0,0 +1,136 @@
+package com.hse.finance.util.importer;
+
+import com.hse.finance.facade.BankAccountFacade;
+import com.hse.finance.facade.CategoryFacade;
+import com.hse.finance.facade.OperationFacade;
+import com.hse.finance.factory.BankAccountFactory;
+import com.hse.finance.factory.CategoryFactory;
+import com.hse.finance.factory.OperationFactory;
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Operation;
+import com.hse.finance.proxy.BankAccountRepositoryProxy;
+import com.hse.finance.service.cascade.CascadeDeleteService;
+import com.hse.finance.service.lock.AccountLocks;
+import com.hse.finance.service.repository.BankAccountRepository;
+import com.hse.finance.service.repository.CategoryRepository;
+import com.hse.finance.service.repository.OperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonDataImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private BankAccountFacade bankAccountFacade;
+    private OperationFacade operationFacade;
+    private JsonDataImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        BankAccountRepositoryProxy accounts = new BankAccountRepositoryProxy(new BankAccountRepository());
+        CategoryRepository categories = new CategoryRepository();
+        OperationRepository operations = new OperationRepository();
+        bankAccountFacade = new BankAccountFacade(new BankAccountFactory(), accounts, operations);
+        CategoryFacade categoryFacade = new CategoryFacade(new CategoryFactory(), categories,
+                new CascadeDeleteService(operations, accounts, List.of(), new AccountLocks()));
+        operationFacade = new OperationFacade(new OperationFactory(), operations, accounts, categories, List.of());
+        importer = new JsonDataImporter(bankAccountFacade, categoryFacade, operationFacade);
+    }
+
+    @Test
+    void importData_WithOperationsBeforeAccounts_ShouldResolveReferences() throws IOException {
+        // Given
+        File file = write("{\"operations\": ["
+                + "{\"type\": \"EXPENSE\", \"amount\": \"30.50\", \"account_name\": \"Main\", \"category_name\": \"Food\","
+                + " \"description\": \"Lunch\"},"
+                + "{\"type\": \"INCOME\", \"amount\": 100, \"account_name\": \"Main\", \"category_name\": \"Salary\"},"
+                + "{\"type\": \"INCOME\", \"amount\": 5, \"account_name\": \"Unknown\", \"category_name\": \"Salary\"}],"
+                + "\"metadata\": {\"version\": 1, \"tags\": [\"a\", \"b\"]},"
+                + "\"accounts\": [{\"name\": \"Main\", \"balance\": \"50.00\"}],"
+                + "\"categories\": [{\"name\": \"Food\", \"type\": \"EXPENSE\"}, {\"name\": \"Salary\", \"type\": \"INCOME\"}]}");
+
+        // When
+        ImportStatistics statistics = importer.importData(file);
+
+        // Then
+        assertEquals(1, statistics.getAccounts());
+        assertEquals(2, statistics.getCategories());
+        assertEquals(2, statistics.getOperations());
+        assertEquals(1, statistics.getSkippedOperations());
+        assertEquals(6, statistics.getRows());
+        List<BankAccount> accounts = bankAccountFacade.getAllBankAccounts();
+        assertEquals(1, accounts.size());
+        assertEquals(new BigDecimal("119.50"), accounts.get(0).getBalance());
+        List<Operation> operations = operationFacade.getAllOperations();
+        assertEquals(2, operations.size());
+        assertTrue(operations.stream().anyMatch(operation -> "Lunch".equals(operation.getDescription())));
+    }
+
+    @Test
+    void importData_WithEmptyDocument_ShouldImportNothing() throws IOException {
+        // Given
+        File file = write("{}");
+
+        // When
+        importer.importData(file);
+
+        // Then
+        assertTrue(bankAccountFacade.getAllBankAccounts().isEmpty());
+    }
+
+    @Test
+    void importData_WithFailingOperationInBatch_ShouldKeepOperationsBeforeIt() throws IOException {
+        // Given: the expense would overdraw the account
+        File file = write("{\"accounts\": [{\"name\": \"Main\", \"balance\": \"10.00\"}],"
+                + "\"categories\": [{\"name\": \"Food\", \"type\": \"EXPENSE\"}, {\"name\": \"Salary\", \"type\": \"INCOME\"}],"
+                + "\"operations\": ["
+                + "{\"type\": \"INCOME\", \"amount\": 5, \"account_name\": \"Main\", \"category_name\": \"Salary\"},"
+                + "{\"type\": \"EXPENSE\", \"amount\": 100, \"account_name\": \"Main\", \"category_name\": \"Food\"},"
+                + "{\"type\": \"INCOME\", \"amount\": 1, \"account_name\": \"Main\", \"category_name\": \"Salary\"}]}");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> importer.importData(file));
+        assertEquals(1, operationFacade.getAllOperations().size());
+        assertEquals(new BigDecimal("15.00"), bankAccountFacade.getAllBankAccounts().get(0).getBalance());
+    }
+
+    @Test
+    void importData_WithGzipFile_ShouldDecompress() throws IOException {
+        // Given
+        File file = directory.resolve("import.json.gz").toFile();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+            out.write(("{\"accounts\": [{\"name\": \"Main\", \"balance\": \"10.00\"}],"
+                    + "\"categories\": [{\"name\": \"Salary\", \"type\": \"INCOME\"}],"
+                    + "\"operations\": [{\"type\": \"INCOME\", \"amount\": 5, \"account_name\": \"Main\","
+                    + " \"category_name\": \"Salary\"}]}").getBytes(StandardCharsets.UTF_8));
+        }
+
+        // When
+        ImportStatistics statistics = importer.importData(file);
+
+        // Then
+        assertEquals(1, statistics.getOperations());
+        assertEquals(new BigDecimal("15.00"), bankAccountFacade.getAllBankAccounts().get(0).getBalance());
+    }
+
+    private File write(String content) throws IOException {
+        Path path = directory.resolve("import.json");
+        Files.writeString(path, content);
+        return path.toFile();
+    }
+}
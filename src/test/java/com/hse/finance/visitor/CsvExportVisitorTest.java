@@ -0,0 +1,85 @@
+package com.hse.finance.visitor;
+
+import com.hse.finance.model.BankAccount;
+import com.hse.finance.model.Category;
+import com.hse.finance.model.Operation;
+import com.hse.finance.model.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvExportVisitorTest {
+
+    private CsvExportVisitor visitor;
+
+    @BeforeEach
+    void setUp() {
+        visitor = new CsvExportVisitor();
+    }
+
+    @Test
+    void begin_ShouldWriteSectionsToStream() throws Exception {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        UUID operationId = UUID.randomUUID();
+        LocalDateTime date = LocalDateTime.of(2024, 2, 1, 9, 30);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        visitor.begin(out);
+        visitor.visitBankAccounts(List.of(BankAccount.builder().id(accountId).name("Main, card")
+                .balance(new BigDecimal("10.00")).build()));
+        visitor.visitOperations(List.of(Operation.builder().id(operationId).type(OperationType.EXPENSE)
+                .amount(new BigDecimal("2.50")).date(date).bankAccountId(accountId).categoryId(categoryId)
+                .description("Say \"hi\"").build()));
+        visitor.finish();
+
+        // Then
+        assertEquals("=== BANK ACCOUNTS ===\n"
+                + "id,name,balance\n"
+                + accountId + ",\"Main, card\",10.00\n"
+                + "\n=== CATEGORIES ===\n"
+                + "\n=== OPERATIONS ===\n"
+                + "id,type,amount,date,bank_account_id,category_id,description\n"
+                + operationId + ",EXPENSE,2.50," + date + "," + accountId + "," + categoryId + ",\"Say \"\"hi\"\"\"\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void visitCategories_AfterOperations_ShouldThrowException() throws Exception {
+        // Given
+        visitor.visitOperations(List.of());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> visitor.visitCategories(List.of(
+                Category.builder().id(UUID.randomUUID()).name("Food").type(OperationType.EXPENSE).build())));
+    }
+
+    @Test
+    void getResult_WithEmptyData_ShouldReturnSectionTitles() {
+        // When
+        String result = visitor.getResult();
+
+        // Then
+        assertEquals("=== BANK ACCOUNTS ===\n\n=== CATEGORIES ===\n\n=== OPERATIONS ===\n", result);
+    }
+
+    @Test
+    void getResult_AfterStreamedExport_ShouldThrowException() throws Exception {
+        // Given
+        visitor.begin(new ByteArrayOutputStream());
+        visitor.finish();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> visitor.getResult());
+    }
+}
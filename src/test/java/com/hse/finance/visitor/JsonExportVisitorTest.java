@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -180,4 +181,25 @@ class JsonExportVisitorTest {
         JsonNode rootNode = objectMapper.readTree(result);
         assertTrue(rootNode.isEmpty());
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void getResult_AfterStreamedExport_ShouldThrowException() throws Exception {
+        // Given
+        visitor.begin(new ByteArrayOutputStream());
+        visitor.visitBankAccounts(List.of());
+        visitor.finish();
+        
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> visitor.getResult());
+    }
+    
+    @Test
+    void visitOperations_Twice_ShouldThrowException() throws Exception {
+        // Given
+        visitor.begin(new ByteArrayOutputStream());
+        visitor.visitOperations(List.of());
+        
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> visitor.visitOperations(List.of()));
+    }
+}